@@ -0,0 +1,88 @@
+package com.inventory.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.inventory.dto.ProductDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares encoding and decoding a product listing as JSON, Smile and CBOR, with mappers set up
+ * like the application's message converters. Run with {@code mvn -Pbenchmark test-compile exec:exec};
+ * the size of each encoded listing is printed once per trial, before the measurements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductEncodingBenchmark {
+    
+    @Param({"json", "smile", "cbor"})
+    public String format;
+    
+    @Param({"100", "5000"})
+    public int catalogSize;
+    
+    private List<ProductDTO> products;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+    
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper mapper = new Jackson2ObjectMapperBuilder()
+            .factory(factory)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, ProductDTO.class);
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+        
+        LocalDateTime now = LocalDateTime.now();
+        products = IntStream.range(0, catalogSize)
+            .mapToObj(i -> ProductDTO.builder()
+                .id((long) i + 1)
+                .name("Benchmark Product " + i)
+                .description("Product used by the encoding benchmark")
+                .stockQuantity(i % 50)
+                .reservedQuantity(i % 5)
+                .availableQuantity(i % 50 - i % 5)
+                .lowStockThreshold(10)
+                .isLowStock(i % 50 <= 10)
+                .createdAt(now)
+                .updatedAt(now)
+                .build())
+            .toList();
+        encoded = writer.writeValueAsBytes(products);
+        System.out.printf("%n%s: %d products encode to %d bytes%n", format, catalogSize, encoded.length);
+    }
+    
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(products);
+    }
+    
+    @Benchmark
+    public List<ProductDTO> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,84 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryManagementApplication;
+import com.inventory.dto.ProductDTO;
+import com.inventory.entity.Product;
+import com.inventory.mapper.ProductMapper;
+import com.inventory.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares reading the catalog through managed entities with reading it through the
+ * {@link com.inventory.dto.ProductViewDTO} projection. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec}; the GC profiler reports the allocation
+ * per operation next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductReadBenchmark {
+    
+    @Param({"100", "5000"})
+    public int catalogSize;
+    
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductMapper productMapper;
+    private TransactionTemplate readOnlyTransaction;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN")
+            .run();
+        productRepository = context.getBean(ProductRepository.class);
+        productMapper = context.getBean(ProductMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        
+        productRepository.saveAll(IntStream.range(0, catalogSize)
+            .mapToObj(i -> Product.builder()
+                .name("Benchmark Product " + i)
+                .description("Product used by the read benchmark")
+                .stockQuantity(i % 50)
+                .lowStockThreshold(10)
+                .build())
+            .toList());
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<ProductDTO> entityRead() {
+        return readOnlyTransaction.execute(status -> productRepository.findAll().stream()
+            .map(productMapper::toDTO)
+            .toList());
+    }
+    
+    @Benchmark
+    public List<ProductDTO> projectionRead() {
+        return readOnlyTransaction.execute(status -> productRepository.findAllViews().stream()
+            .map(productMapper::toDTO)
+            .toList());
+    }
+}
@@ -2,13 +2,17 @@ package com.inventory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
  * Main application class for Inventory Management System
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableTransactionManagement
+@EnableScheduling
 public class InventoryManagementApplication {
     
     public static void main(String[] args) {
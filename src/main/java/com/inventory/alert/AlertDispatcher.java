@@ -0,0 +1,98 @@
+package com.inventory.alert;
+
+import com.inventory.config.InventoryProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers stock alerts to every {@link AlertSink} on a dedicated thread.
+ * <p>
+ * Submitting only offers the alert to a bounded queue, so a slow or failing sink can never
+ * hold up the caller; when the queue is full the alert is dropped and counted.
+ */
+@Component
+@Slf4j
+public class AlertDispatcher {
+    
+    private final List<AlertSink> sinks;
+    private final BlockingQueue<StockAlert> queue;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-alert-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+    
+    public AlertDispatcher(List<AlertSink> sinks, InventoryProperties inventoryProperties) {
+        this.sinks = sinks;
+        this.queue = new ArrayBlockingQueue<>(inventoryProperties.getAlerts().getQueueCapacity());
+    }
+    
+    @PostConstruct
+    public void start() {
+        executor.execute(this::run);
+    }
+    
+    /**
+     * Queue an alert for delivery without blocking
+     *
+     * @return false when the queue is full and the alert was dropped
+     */
+    public boolean submit(StockAlert alert) {
+        if (queue.offer(alert)) {
+            return true;
+        }
+        dropped.increment();
+        log.warn("Stock alert queue is full, dropped {} alert for product ID: {}", alert.type(), alert.productId());
+        return false;
+    }
+    
+    public long droppedCount() {
+        return dropped.sum();
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void run() {
+        try {
+            // Drain whatever is left after shutdown was requested
+            while (running || !queue.isEmpty()) {
+                StockAlert alert = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (alert != null) {
+                    deliver(alert);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void deliver(StockAlert alert) {
+        for (AlertSink sink : sinks) {
+            try {
+                sink.deliver(alert);
+            } catch (Exception ex) {
+                log.error("Alert sink {} failed to deliver {} alert for product ID: {}",
+                    sink.getClass().getSimpleName(), alert.type(), alert.productId(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.inventory.alert;
+
+/**
+ * Destination for stock alerts. Every sink bean is picked up by the {@link AlertDispatcher}
+ * and called from its delivery thread, never from a request thread.
+ */
+public interface AlertSink {
+    
+    void deliver(StockAlert alert) throws Exception;
+}
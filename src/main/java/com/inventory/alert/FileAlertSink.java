@@ -0,0 +1,35 @@
+package com.inventory.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.config.InventoryProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends every alert as one JSON line to a file
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.alerts.file", name = "enabled", havingValue = "true")
+public class FileAlertSink implements AlertSink {
+    
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    
+    public FileAlertSink(ObjectMapper objectMapper, InventoryProperties inventoryProperties) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(inventoryProperties.getAlerts().getFile().getPath());
+    }
+    
+    @Override
+    public void deliver(StockAlert alert) throws IOException {
+        String line = objectMapper.writeValueAsString(alert) + System.lineSeparator();
+        Files.writeString(path, line, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,63 @@
+package com.inventory.alert;
+
+import com.inventory.config.InventoryProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the most recent alerts in memory and forwards every alert to in-process subscribers
+ */
+@Component
+@Slf4j
+public class InMemoryAlertSink implements AlertSink {
+    
+    private final int capacity;
+    private final Deque<StockAlert> recent = new ArrayDeque<>();
+    private final List<Consumer<StockAlert>> subscribers = new CopyOnWriteArrayList<>();
+    
+    public InMemoryAlertSink(InventoryProperties inventoryProperties) {
+        this.capacity = inventoryProperties.getAlerts().getRecentCapacity();
+    }
+    
+    @Override
+    public void deliver(StockAlert alert) {
+        synchronized (recent) {
+            if (recent.size() == capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(alert);
+        }
+        for (Consumer<StockAlert> subscriber : subscribers) {
+            try {
+                subscriber.accept(alert);
+            } catch (RuntimeException ex) {
+                log.error("Alert subscriber failed for product ID: {}", alert.productId(), ex);
+            }
+        }
+    }
+    
+    /**
+     * Receive every future alert on the dispatcher thread
+     *
+     * @return a handle that removes the subscription when run
+     */
+    public Runnable subscribe(Consumer<StockAlert> subscriber) {
+        subscribers.add(subscriber);
+        return () -> subscribers.remove(subscriber);
+    }
+    
+    /**
+     * Most recent alerts, oldest first
+     */
+    public List<StockAlert> recentAlerts() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.inventory.alert;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.event.ProductDeletedEvent;
+import com.inventory.event.StockLevelChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns committed stock level changes into low-stock alerts.
+ * <p>
+ * A product raises one LOW_STOCK alert when it falls to its threshold and stays silent until
+ * it has recovered above the threshold by the re-arm margin, so stock that hovers around the
+ * threshold does not raise an alert for every movement.
+ */
+@Component
+@Slf4j
+public class LowStockAlertMonitor {
+    
+    private final AlertDispatcher alertDispatcher;
+    private final InventoryProperties.Alerts settings;
+    
+    /**
+     * Products with a LOW_STOCK alert that has not been cleared yet
+     */
+    private final Map<Long, Boolean> alerting = new ConcurrentHashMap<>();
+    
+    public LowStockAlertMonitor(AlertDispatcher alertDispatcher, InventoryProperties inventoryProperties) {
+        this.alertDispatcher = alertDispatcher;
+        this.settings = inventoryProperties.getAlerts();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        int quantity = event.stockQuantity();
+        int threshold = event.lowStockThreshold();
+        if (quantity <= threshold) {
+            if (alerting.putIfAbsent(event.productId(), Boolean.TRUE) == null) {
+                alertDispatcher.submit(alert(StockAlert.Type.LOW_STOCK, event));
+            }
+        } else if (quantity > threshold + rearmMargin(threshold) && alerting.remove(event.productId()) != null) {
+            alertDispatcher.submit(alert(StockAlert.Type.RESTOCKED, event));
+        }
+    }
+    
+    /**
+     * Forget a deleted product, so its alert state does not outlive it
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        alerting.remove(event.productId());
+    }
+    
+    private int rearmMargin(int threshold) {
+        return Math.max(1, threshold * settings.getRearmMarginPercent() / 100);
+    }
+    
+    private static StockAlert alert(StockAlert.Type type, StockLevelChangedEvent event) {
+        return new StockAlert(type, event.productId(), event.productName(),
+            event.stockQuantity(), event.lowStockThreshold(), LocalDateTime.now());
+    }
+}
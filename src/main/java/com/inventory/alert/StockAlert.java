@@ -0,0 +1,25 @@
+package com.inventory.alert;
+
+import java.time.LocalDateTime;
+
+/**
+ * A low-stock threshold crossing, as delivered to {@link AlertSink}s
+ */
+public record StockAlert(Type type,
+                         Long productId,
+                         String productName,
+                         int stockQuantity,
+                         int lowStockThreshold,
+                         LocalDateTime occurredAt) {
+    
+    public enum Type {
+        /**
+         * Stock fell to or below the low stock threshold
+         */
+        LOW_STOCK,
+        /**
+         * Stock recovered far enough above the threshold to re-arm the LOW_STOCK alert
+         */
+        RESTOCKED
+    }
+}
@@ -0,0 +1,30 @@
+package com.inventory.alert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.config.InventoryProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Webhook delivery stub: logs the payload that would be POSTed to the configured URL.
+ * Replace the body of {@link #deliver(StockAlert)} with an HTTP call to go live.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.alerts.webhook", name = "enabled", havingValue = "true")
+@Slf4j
+public class WebhookAlertSink implements AlertSink {
+    
+    private final ObjectMapper objectMapper;
+    private final String url;
+    
+    public WebhookAlertSink(ObjectMapper objectMapper, InventoryProperties inventoryProperties) {
+        this.objectMapper = objectMapper;
+        this.url = inventoryProperties.getAlerts().getWebhook().getUrl();
+    }
+    
+    @Override
+    public void deliver(StockAlert alert) throws Exception {
+        log.warn("Stock alert webhook POST {} {}", url, objectMapper.writeValueAsString(alert));
+    }
+}
@@ -0,0 +1,105 @@
+package com.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductViewDTO;
+import com.inventory.entity.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of single products, keyed by ID.
+ * <p>
+ * Entries are bounded by size and evicted with Caffeine's W-TinyLFU policy. Writers refresh
+ * or evict an entry only after their transaction commits, and a refresh never replaces an
+ * entry that carries a higher {@code @Version}, so a slow writer cannot put an older state
+ * back. Loads and writes of the same key are serialized by the cache, which means a load that
+ * read the row just before a commit is corrected by the refresh or eviction that follows it.
+ * Hit, miss and eviction counts are published as the 'cache.*' metrics with {@code cache=products}.
+ */
+@Component
+public class ProductCache {
+    
+    public static final String CACHE_NAME = "products";
+    
+    private final boolean enabled;
+    private final Cache<Long, ProductViewDTO> products;
+    
+    public ProductCache(InventoryProperties inventoryProperties, MeterRegistry meterRegistry) {
+        InventoryProperties.Caching settings = inventoryProperties.getCaching();
+        this.enabled = settings.isEnabled();
+        this.products = Caffeine.newBuilder()
+            .maximumSize(settings.getMaximumSize())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, CACHE_NAME);
+    }
+    
+    /**
+     * Return the cached product, loading and caching it on a miss. Missing products are not cached.
+     */
+    public Optional<ProductViewDTO> get(Long productId, Function<Long, Optional<ProductViewDTO>> loader) {
+        if (!enabled) {
+            return loader.apply(productId);
+        }
+        return Optional.ofNullable(products.get(productId, id -> loader.apply(id).orElse(null)));
+    }
+    
+    /**
+     * Return the cached product without loading it on a miss
+     */
+    public Optional<ProductViewDTO> getIfPresent(Long productId) {
+        return enabled ? Optional.ofNullable(products.getIfPresent(productId)) : Optional.empty();
+    }
+    
+    /**
+     * Once the current transaction commits, replace the cached copy of the product with its
+     * committed state, unless the cache already holds a newer version
+     */
+    public void refreshAfterCommit(Product product) {
+        // The version is only incremented when the transaction flushes, so read it afterwards
+        afterCommit(() -> refresh(ProductViewDTO.of(product)));
+    }
+    
+    /**
+     * Drop the cached copy of the product once the current transaction commits
+     */
+    public void evictAfterCommit(Long productId) {
+        afterCommit(() -> evict(productId));
+    }
+    
+    /**
+     * Drop the cached copy of the product now, for writes that have already committed
+     */
+    public void evict(Long productId) {
+        products.invalidate(productId);
+    }
+    
+    private void refresh(ProductViewDTO product) {
+        products.asMap().computeIfPresent(product.id(),
+            (id, cached) -> product.version() >= cached.version() ? product : cached);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}) encodings for
+ * the REST API, selected by the Accept and Content-Type headers.
+ * <p>
+ * Both are binary encodings of the JSON data model, so every endpoint, DTO and error response
+ * works unchanged, without the text formatting and parsing of numbers that dominates JSON
+ * encoding. Smile also writes each repeated property name only once per response. Spring MVC
+ * would register plain converters for both formats on its own; these replace them with mappers
+ * from the application's Jackson builder, so the 'spring.jackson.*' settings apply to every
+ * format. JSON stays the default for clients that accept anything.
+ */
+@Configuration
+public class BinaryFormatConfig {
+    
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
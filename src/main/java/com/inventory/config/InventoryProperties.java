@@ -0,0 +1,296 @@
+package com.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tunables for the inventory engine, bound from the 'inventory.*' properties
+ */
+@Data
+@ConfigurationProperties(prefix = "inventory")
+public class InventoryProperties {
+    
+    private Stock stock = new Stock();
+    
+    private HotStock hotStock = new HotStock();
+    
+    private Reservations reservations = new Reservations();
+    
+    private Coalescing coalescing = new Coalescing();
+    
+    private Idempotency idempotency = new Idempotency();
+    
+    private Ledger ledger = new Ledger();
+    
+    private ChangeFeed changeFeed = new ChangeFeed();
+    
+    private Alerts alerts = new Alerts();
+    
+    private Listing listing = new Listing();
+    
+    private Caching caching = new Caching();
+    
+    private FullText fullText = new FullText();
+    
+    private NameFilter nameFilter = new NameFilter();
+    
+    private Stats stats = new Stats();
+    
+    private Replicas replicas = new Replicas();
+    
+    /**
+     * Strategy used to apply single stock movements
+     */
+    public enum StockEngine {
+        /**
+         * Locked read with SELECT ... FOR UPDATE, validation in Java, then save
+         */
+        PESSIMISTIC_LOCK,
+        /**
+         * One guarded UPDATE statement; the row lock is only held for the statement itself
+         */
+        CONDITIONAL_UPDATE
+    }
+    
+    @Data
+    public static class Stock {
+        private StockEngine engine = StockEngine.PESSIMISTIC_LOCK;
+    }
+    
+    /**
+     * Hot-SKU mode: heavily contended products keep their stock in striped in-memory
+     * counters and are written back to the products table in periodic batches
+     */
+    @Data
+    public static class HotStock {
+        private boolean enabled = true;
+        /**
+         * Number of counter stripes per hot product, 0 means one per available processor
+         */
+        private int stripes = 0;
+        private long flushIntervalMs = 100;
+        private long evaluationWindowMs = 1000;
+        /**
+         * A product is promoted when, within one window, it sees at least this many stock movements...
+         */
+        private int promoteOpsPerWindow = 200;
+        /**
+         * ...and its movements spent at least this long waiting for the row lock
+         */
+        private long promoteLockWaitMs = 50;
+        /**
+         * A hot product is demoted when a whole window passes with fewer movements than this
+         */
+        private int demoteOpsPerWindow = 20;
+        private int maxHotProducts = 64;
+    }
+    
+    /**
+     * Stock holds and the timing wheel that expires them
+     */
+    @Data
+    public static class Reservations {
+        private int defaultTtlSeconds = 900;
+        private long tickMs = 100;
+        /**
+         * Buckets in the timing wheel; deadlines further out than one revolution wait extra rounds
+         */
+        private int wheelSize = 4096;
+    }
+    
+    /**
+     * Group commit of concurrent single stock movements on the same product
+     */
+    @Data
+    public static class Coalescing {
+        private boolean enabled = false;
+        /**
+         * How long the first movement of a group waits for others to join
+         */
+        private long maxWaitMicros = 2000;
+        private int maxBatchSize = 64;
+    }
+    
+    /**
+     * Deduplication of stock requests retried with the same Idempotency-Key
+     */
+    @Data
+    public static class Idempotency {
+        /**
+         * How long a key is remembered, in memory and in the 'idempotency_keys' table
+         */
+        private long retentionSeconds = 86400;
+        /**
+         * Keys kept in memory; older keys are still found in the table
+         */
+        private long maxEntries = 100_000;
+        private long purgeIntervalMs = 600_000;
+        /**
+         * How long a duplicate waits for the original request on the same instance before getting 409 Conflict
+         */
+        private long waitTimeoutMs = 10_000;
+    }
+    
+    /**
+     * Stock movement ledger and its snapshot compaction
+     */
+    @Data
+    public static class Ledger {
+        /**
+         * Movements older than this are rolled into per-product snapshots
+         */
+        private int retentionDays = 30;
+        private long compactionIntervalMs = 3_600_000;
+        /**
+         * Movement IDs compacted per transaction
+         */
+        private int compactionChunkSize = 10_000;
+    }
+    
+    /**
+     * Product change feed served at /api/products/changes
+     */
+    @Data
+    public static class ChangeFeed {
+        /**
+         * How often committed changes are given their feed positions
+         */
+        private long sequenceIntervalMs = 100;
+        /**
+         * Deletes older than this are dropped; positions before the last dropped delete expire
+         */
+        private int deleteRetentionDays = 7;
+        private long compactionIntervalMs = 3_600_000;
+        /**
+         * Changes dropped per transaction
+         */
+        private int compactionChunkSize = 10_000;
+    }
+    
+    /**
+     * Low-stock alert pipeline
+     */
+    @Data
+    public static class Alerts {
+        private boolean enabled = true;
+        /**
+         * Alerts waiting for delivery; further alerts are dropped while the queue is full
+         */
+        private int queueCapacity = 10_000;
+        /**
+         * A product re-arms its LOW_STOCK alert once stock exceeds the threshold by this percentage (at least 1 unit)
+         */
+        private int rearmMarginPercent = 10;
+        /**
+         * Alerts kept by the in-memory sink
+         */
+        private int recentCapacity = 100;
+        private Webhook webhook = new Webhook();
+        private File file = new File();
+        
+        @Data
+        public static class Webhook {
+            private boolean enabled = false;
+            private String url;
+        }
+        
+        @Data
+        public static class File {
+            private boolean enabled = false;
+            private String path = "stock-alerts.log";
+        }
+    }
+    
+    /**
+     * Catalog listings and exports
+     */
+    @Data
+    public static class Listing {
+        /**
+         * Rows the JDBC driver fetches per round trip while streaming the catalog
+         */
+        private int streamFetchSize = 500;
+    }
+    
+    /**
+     * Read-through cache in front of single-product reads
+     */
+    @Data
+    public static class Caching {
+        private boolean enabled = true;
+        /**
+         * Products kept in memory; the least valuable entries are evicted first (W-TinyLFU)
+         */
+        private long maximumSize = 10_000;
+    }
+    
+    /**
+     * Embedded Lucene index over product names and descriptions
+     */
+    @Data
+    public static class FullText {
+        /**
+         * Index directory; blank keeps the index in memory. It is rebuilt from the database at startup.
+         */
+        private String directory = "";
+        /**
+         * How often queued product changes are written and made searchable
+         */
+        private long refreshIntervalMs = 250;
+        /**
+         * How often written changes are committed to the directory
+         */
+        private long commitIntervalMs = 5_000;
+    }
+    
+    /**
+     * Bloom filter that lets product writes skip the duplicate-name query for new names
+     */
+    @Data
+    public static class NameFilter {
+        /**
+         * Names the filter is sized for; beyond it the false positive rate rises, which costs queries, not correctness
+         */
+        private long expectedNames = 1_000_000;
+        private double falsePositiveRate = 0.01;
+    }
+    
+    /**
+     * Catalog-wide totals kept in memory for the inventory statistics endpoint
+     */
+    @Data
+    public static class Stats {
+        /**
+         * How often the totals are checked against one aggregate query and corrected
+         */
+        private long reconcileIntervalMs = 60_000;
+    }
+    
+    /**
+     * Read replicas that serve read-only transactions; writes and lagging reads stay on the primary
+     */
+    @Data
+    public static class Replicas {
+        private boolean enabled = false;
+        private List<Instance> instances = new ArrayList<>();
+        /**
+         * Replicas further behind the primary than this are skipped
+         */
+        private long maxLagMs = 1_000;
+        /**
+         * How often the primary writes the heartbeat that replicas are measured against
+         */
+        private long heartbeatIntervalMs = 100;
+        private long lagCheckIntervalMs = 100;
+        
+        @Data
+        public static class Instance {
+            private String url;
+            private String username;
+            private String password;
+        }
+    }
+}
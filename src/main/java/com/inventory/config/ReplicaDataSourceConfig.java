@@ -0,0 +1,74 @@
+package com.inventory.config;
+
+import com.inventory.replica.ConsistencyTokenFilter;
+import com.inventory.replica.ReplicaLagMonitor;
+import com.inventory.replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data sources for a primary with read replicas, active with 'inventory.replicas.enabled=true'.
+ * <p>
+ * The primary pool is built from the regular 'spring.datasource.*' properties and each replica
+ * gets its own pool. Everything else in the application uses the routing data source.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.replicas", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             InventoryProperties inventoryProperties) {
+        InventoryProperties.Replicas settings = inventoryProperties.getReplicas();
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        primary.setPoolName("primary");
+        
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<InventoryProperties.Replicas.Instance> instances = settings.getInstances();
+        for (int i = 0; i < instances.size(); i++) {
+            InventoryProperties.Replicas.Instance instance = instances.get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(instance.getUrl())
+                .username(instance.getUsername())
+                .password(instance.getPassword())
+                .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, settings.getMaxLagMs());
+    }
+    
+    /**
+     * Connections are only fetched at the first statement, once the transaction's read-only flag is set
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+    
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource);
+    }
+    
+    @Bean
+    public ConsistencyTokenFilter consistencyTokenFilter() {
+        return new ConsistencyTokenFilter();
+    }
+}
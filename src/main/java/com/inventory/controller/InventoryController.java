@@ -0,0 +1,59 @@
+package com.inventory.controller;
+
+import com.inventory.dto.InventoryStatsDTO;
+import com.inventory.dto.StockHistogramDTO;
+import com.inventory.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for catalog-wide inventory figures
+ */
+@RestController
+@RequestMapping("/api/inventory")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Inventory", description = "Catalog-wide inventory figures")
+public class InventoryController {
+    
+    private static final int DEFAULT_BUCKET_SIZE = 10;
+    
+    private final ProductService productService;
+    
+    @Operation(summary = "Get inventory statistics",
+        description = "Total units, product count, low-stock count and out-of-stock count. "
+            + "The figures are maintained as products change and periodically checked against the database")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the statistics")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<InventoryStatsDTO> getInventoryStats() {
+        log.debug("REST request to get inventory statistics");
+        return ResponseEntity.ok(productService.getInventoryStats());
+    }
+    
+    @Operation(summary = "Get stock histogram",
+        description = "Number of products and units per stock range of 'bucketSize' quantities, lowest first. "
+            + "Computed in one grouped query over the stock quantity index; empty ranges are left out")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully computed the histogram"),
+        @ApiResponse(responseCode = "400", description = "Invalid bucket size")
+    })
+    @GetMapping("/stats/stock-histogram")
+    public ResponseEntity<StockHistogramDTO> getStockHistogram(
+            @Parameter(description = "Width of each bucket in stock units (at least 1)")
+            @RequestParam(defaultValue = "" + DEFAULT_BUCKET_SIZE) int bucketSize) {
+        log.debug("REST request to get the stock histogram with bucket size: {}", bucketSize);
+        return ResponseEntity.ok(productService.getStockHistogram(bucketSize));
+    }
+}
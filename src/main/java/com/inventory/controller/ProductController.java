@@ -1,7 +1,12 @@
 package com.inventory.controller;
 
 import com.inventory.dto.*;
+import com.inventory.service.IdempotencyService;
+import com.inventory.service.ProductExportService;
 import com.inventory.service.ProductService;
+import com.inventory.service.ReservationService;
+import com.inventory.service.StockMovementService;
+import com.inventory.stock.StockMovementCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +17,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for Product management
@@ -28,29 +40,131 @@ import java.util.List;
 @Tag(name = "Product Management", description = "Endpoints for managing products and inventory")
 public class ProductController {
     
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    /**
+     * Encodings of tagged responses, in the order content negotiation prefers them
+     */
+    private static final List<MediaType> ENCODINGS = List.of(
+        MediaType.APPLICATION_JSON, new MediaType("application", "x-jackson-smile"), MediaType.APPLICATION_CBOR);
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int DEFAULT_FULL_TEXT_PAGE_SIZE = 20;
+    private static final String FIELDS_DESCRIPTION =
+        "Comma-separated product fields to return, such as 'id,stockQuantity'; omit for all fields";
+    
     private final ProductService productService;
+    private final ReservationService reservationService;
+    private final StockMovementCoalescer stockMovementCoalescer;
+    private final IdempotencyService idempotencyService;
+    private final StockMovementService stockMovementService;
+    private final ProductExportService productExportService;
     
-    @Operation(summary = "Get all products", description = "Retrieve a list of all products in the inventory")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved products")
+    @Operation(summary = "Get all products", description = "Retrieve a list of all products in the inventory. "
+        + "Pass 'after' or 'limit' to page through them by ID; the next cursor is returned in the X-Next-Cursor header. "
+        + "Pass 'minStock' or 'maxStock' to page through the products within a stock range")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved products"),
+        @ApiResponse(responseCode = "304", description = "No product changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit, stock range or field")
+    })
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        log.info("REST request to get all products");
-        List<ProductDTO> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductDTO>> getAllProducts(
+            @Parameter(description = "Return products after this product ID")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of products (1-500); omit both parameters for the full list")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Only products with at least this stock quantity")
+            @RequestParam(required = false) Integer minStock,
+            @Parameter(description = "Only products with at most this stock quantity")
+            @RequestParam(required = false) Integer maxStock,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.info("REST request to get all products after: {}", after);
+        ProductFields selected = ProductFields.parse(fields);
+        MediaType encoding = encoding(accept);
+        return productService.readCatalog(catalogETag -> {
+            String eTag = encodedETag(catalogETag, encoding);
+            if (matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            if (minStock != null || maxStock != null) {
+                return pagedResponse(productService.getProductsByStockRange(
+                    minStock != null ? minStock : 0, maxStock != null ? maxStock : Integer.MAX_VALUE,
+                    after, limit != null ? limit : DEFAULT_PAGE_SIZE, selected), eTag, encoding);
+            }
+            if (after == null && limit == null) {
+                return tagged(eTag, encoding).body(productService.getAllProducts(selected));
+            }
+            return pagedResponse(productService.getProducts(after, limit != null ? limit : DEFAULT_PAGE_SIZE, selected),
+                eTag, encoding);
+        });
     }
     
-    @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
+    @Operation(summary = "Stream all products",
+        description = "Write the whole catalog as one JSON array while it is read from the database, "
+            + "so memory use does not depend on the catalog size")
+    @ApiResponse(responseCode = "200", description = "Products streamed successfully")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        log.info("REST request to stream all products");
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(productExportService::streamProducts);
+    }
+    
+    @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID. "
+        + "The response carries an ETag; send it back in If-None-Match to get 304 while the product is unchanged")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Product found"),
+        @ApiResponse(responseCode = "304", description = "Product unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Product not found", 
             content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
     })
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProductById(
-            @Parameter(description = "Product ID") @PathVariable Long id) {
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         log.info("REST request to get product: {}", id);
-        ProductDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        ProductFields selected = ProductFields.parse(fields);
+        MediaType encoding = encoding(accept);
+        if (ifNoneMatch != null) {
+            // Compare against the current version before loading or serializing the product
+            Optional<String> current = productService.getProductETag(id).map(eTag -> encodedETag(eTag, encoding));
+            if (current.isPresent() && matches(ifNoneMatch, current.get())) {
+                return notModified(current.get());
+            }
+        }
+        ProductService.Tagged<ProductDTO> product = productService.getTaggedProductById(id);
+        return tagged(encodedETag(product.eTag(), encoding), encoding).body(selected.project(product.body()));
+    }
+    
+    @Operation(summary = "Get products by IDs",
+        description = "Retrieve up to 5,000 products in one request. Results follow the order of the requested IDs, "
+            + "and IDs that do not exist come back with found set to false")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "One result per requested ID"),
+        @ApiResponse(responseCode = "400", description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @PostMapping("/_mget")
+    public ResponseEntity<List<ProductLookupDTO>> getProductsByIds(
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            @Valid @RequestBody ProductMultiGetRequestDTO request) {
+        log.info("REST request to get {} products by ID", request.getIds().size());
+        ProductFields selected = ProductFields.parse(fields);
+        List<ProductLookupDTO> products = productService.getProductsByIds(request.getIds());
+        return ResponseEntity.ok(selected.isAll() ? products : products.stream()
+            .map(lookup -> new ProductLookupDTO(lookup.id(), lookup.found(), selected.project(lookup.product())))
+            .toList());
     }
     
     @Operation(summary = "Create new product", description = "Add a new product to the inventory")
@@ -104,11 +218,15 @@ public class ProductController {
     @PatchMapping("/{id}/stock/add")
     public ResponseEntity<ProductDTO> addStock(
             @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Retries with the same key replay the first result")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody StockUpdateDTO stockUpdateDTO) {
         log.info("REST request to add {} units to product: {}", 
             stockUpdateDTO.getQuantity(), id);
-        ProductDTO updatedProduct = productService.addStock(id, stockUpdateDTO);
-        return ResponseEntity.ok(updatedProduct);
+        IdempotencyService.Result<ProductDTO> result = idempotencyService.execute(
+            idempotencyKey, "PATCH /products/" + id + "/stock/add", stockUpdateDTO, ProductDTO.class,
+            () -> stockMovementCoalescer.addStock(id, stockUpdateDTO));
+        return idempotentResponse(result);
     }
     
     @Operation(summary = "Remove stock", description = "Decrease the stock quantity of a product")
@@ -120,32 +238,317 @@ public class ProductController {
     @PatchMapping("/{id}/stock/remove")
     public ResponseEntity<ProductDTO> removeStock(
             @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Retries with the same key replay the first result")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody StockUpdateDTO stockUpdateDTO) {
         log.info("REST request to remove {} units from product: {}", 
             stockUpdateDTO.getQuantity(), id);
-        ProductDTO updatedProduct = productService.removeStock(id, stockUpdateDTO);
-        return ResponseEntity.ok(updatedProduct);
+        IdempotencyService.Result<ProductDTO> result = idempotencyService.execute(
+            idempotencyKey, "PATCH /products/" + id + "/stock/remove", stockUpdateDTO, ProductDTO.class,
+            () -> stockMovementCoalescer.removeStock(id, stockUpdateDTO));
+        return idempotentResponse(result);
+    }
+    
+    @Operation(summary = "Apply stock batch",
+        description = "Apply several add/remove lines in one transaction. ATOMIC batches apply all lines or none, "
+            + "BEST_EFFORT batches apply every line that can be satisfied")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed, see per-line results"),
+        @ApiResponse(responseCode = "400", description = "Invalid batch request",
+            content = @Content(schema = @Schema(implementation = ErrorResponseDTO.class)))
+    })
+    @PostMapping("/stock/batch")
+    public ResponseEntity<StockBatchResultDTO> applyStockBatch(
+            @Parameter(description = "Retries with the same key replay the first result")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody StockBatchRequestDTO batchRequest) {
+        log.info("REST request to apply {} stock batch with {} lines",
+            batchRequest.getMode(), batchRequest.getLines().size());
+        IdempotencyService.Result<StockBatchResultDTO> result = idempotencyService.execute(
+            idempotencyKey, "POST /products/stock/batch", batchRequest, StockBatchResultDTO.class,
+            () -> productService.applyStockBatch(batchRequest));
+        return idempotentResponse(result);
+    }
+    
+    @Operation(summary = "Get stock movements",
+        description = "Page through the stock ledger of a product, oldest first. Pass the returned "
+            + "nextCursor as 'after' to get the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved stock movements"),
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/{id}/movements")
+    public ResponseEntity<CursorPageDTO<StockMovementDTO>> getStockMovements(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Parameter(description = "Return movements after this movement ID")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of movements (1-500)")
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("REST request to get stock movements of product: {} after: {}", id, after);
+        return ResponseEntity.ok(stockMovementService.getMovements(id, after, limit));
+    }
+    
+    @Operation(summary = "Get product changes",
+        description = "Page through the product change feed in commit order. Every write appends an UPSERT "
+            + "carrying the product's current state, every delete a DELETE. Start from 0 to receive the whole "
+            + "catalog, then pass the seq of the last change received as 'since'; nextCursor is set while more "
+            + "changes are waiting. Changes superseded by a later one are compacted away, and a reader that "
+            + "falls behind the delete retention period gets 410 Gone and starts again from 0")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved product changes"),
+        @ApiResponse(responseCode = "400", description = "Invalid position or limit"),
+        @ApiResponse(responseCode = "410", description = "Position has expired; read again from 0")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<CursorPageDTO<ProductChangeDTO>> getChanges(
+            @Parameter(description = "Return changes after this position")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes (1-500)")
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        log.info("REST request to get product changes after: {}", since);
+        return ResponseEntity.ok(productService.getChanges(since, limit));
+    }
+    
+    @Operation(summary = "Reserve stock",
+        description = "Hold stock for a limited time without removing it. Held stock is not available "
+            + "to other removals until the reservation is confirmed, released or expires")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Stock reserved successfully"),
+        @ApiResponse(responseCode = "404", description = "Product not found"),
+        @ApiResponse(responseCode = "400", description = "Insufficient available stock or invalid quantity")
+    })
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<ReservationDTO> reserveStock(
+            @Parameter(description = "Product ID") @PathVariable Long id,
+            @Valid @RequestBody ReservationCreateDTO createDTO) {
+        log.info("REST request to reserve {} units of product: {}", createDTO.getQuantity(), id);
+        ReservationDTO reservation = reservationService.reserve(id, createDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+    
+    @Operation(summary = "Confirm reservation", description = "Remove the held stock permanently")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation confirmed"),
+        @ApiResponse(responseCode = "404", description = "Reservation not found"),
+        @ApiResponse(responseCode = "400", description = "Reservation is no longer active")
+    })
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<ReservationDTO> confirmReservation(
+            @Parameter(description = "Reservation ID") @PathVariable Long reservationId) {
+        log.info("REST request to confirm reservation: {}", reservationId);
+        return ResponseEntity.ok(reservationService.confirm(reservationId));
+    }
+    
+    @Operation(summary = "Release reservation", description = "Give the held stock back")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Reservation released"),
+        @ApiResponse(responseCode = "404", description = "Reservation not found"),
+        @ApiResponse(responseCode = "400", description = "Reservation is no longer active")
+    })
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<ReservationDTO> releaseReservation(
+            @Parameter(description = "Reservation ID") @PathVariable Long reservationId) {
+        log.info("REST request to release reservation: {}", reservationId);
+        return ResponseEntity.ok(reservationService.release(reservationId));
     }
     
     @Operation(summary = "Get low stock products", 
-        description = "Retrieve all products that are below their low stock threshold")
-    @ApiResponse(responseCode = "200", description = "Successfully retrieved low stock products")
+        description = "Retrieve all products that are below their low stock threshold. Pass 'after' or "
+            + "'limit' to page through them by ID; the next cursor is returned in the X-Next-Cursor header")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved low stock products"),
+        @ApiResponse(responseCode = "304", description = "No product changed since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit or field")
+    })
     @GetMapping("/low-stock")
-    public ResponseEntity<List<ProductDTO>> getLowStockProducts() {
-        log.info("REST request to get products with low stock");
-        List<ProductDTO> lowStockProducts = productService.getLowStockProducts();
-        return ResponseEntity.ok(lowStockProducts);
+    public ResponseEntity<List<ProductDTO>> getLowStockProducts(
+            @Parameter(description = "Return products after this product ID")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Maximum number of products (1-500); omit both parameters for the full list")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.info("REST request to get products with low stock after: {}", after);
+        ProductFields selected = ProductFields.parse(fields);
+        MediaType encoding = encoding(accept);
+        return productService.readCatalog(catalogETag -> {
+            String eTag = encodedETag(catalogETag, encoding);
+            if (matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            if (after == null && limit == null) {
+                return tagged(eTag, encoding).body(productService.getLowStockProducts(selected));
+            }
+            return pagedResponse(
+                productService.getLowStockProducts(after, limit != null ? limit : DEFAULT_PAGE_SIZE, selected),
+                eTag, encoding);
+        });
+    }
+    
+    @Operation(summary = "Full-text search over names and descriptions",
+        description = "Rank products by BM25 relevance, with name matches weighted double, and mark the "
+            + "matched terms. Supports quoted phrases, + and - operators and trailing * wildcards. "
+            + "Recent changes become searchable within the index refresh interval")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search completed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid page or size")
+    })
+    @GetMapping("/search/fulltext")
+    public ResponseEntity<FullTextPageDTO> searchFullText(
+            @Parameter(description = "Search terms") @RequestParam(defaultValue = "") String q,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Hits per page (1-500)")
+            @RequestParam(defaultValue = "" + DEFAULT_FULL_TEXT_PAGE_SIZE) int size) {
+        log.info("REST request for full-text search: {}", q);
+        return ResponseEntity.ok(productService.searchFullText(q, page, size));
+    }
+    
+    @Operation(summary = "Autocomplete product names",
+        description = "Suggest products whose name starts with the prefix, ignoring case and accents, "
+            + "most stocked first. Answered from memory, cheap enough to call on every keystroke")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions returned"),
+        @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<ProductSuggestionDTO>> autocomplete(
+            @Parameter(description = "Beginning of the product name")
+            @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-500)")
+            @RequestParam(defaultValue = "" + DEFAULT_SUGGESTIONS) int limit) {
+        log.debug("REST request to autocomplete product names: {}", prefix);
+        return ResponseEntity.ok(productService.autocomplete(prefix, limit));
     }
     
     @Operation(summary = "Search products by name", 
-        description = "Search for products containing the specified name")
+        description = "Search for products containing the specified name, ordered by ID. With fuzzy=true, "
+            + "match whole words allowing one typo in words of 3-5 characters and two in longer words, "
+            + "closest matches first")
     @ApiResponse(responseCode = "200", description = "Search completed successfully")
     @GetMapping("/search")
     public ResponseEntity<List<ProductDTO>> searchProducts(
             @Parameter(description = "Product name to search") 
-            @RequestParam(required = false) String name) {
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Maximum number of products (1-500); omit for all matches, or 50 fuzzy matches")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Tolerate typos in the name")
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         log.info("REST request to search products by name: {}", name);
-        List<ProductDTO> products = productService.searchProductsByName(name != null ? name : "");
-        return ResponseEntity.ok(products);
+        ProductFields selected = ProductFields.parse(fields);
+        MediaType encoding = encoding(accept);
+        return productService.readCatalog(catalogETag -> {
+            String eTag = encodedETag(catalogETag, encoding);
+            if (matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            String text = name != null ? name : "";
+            List<ProductDTO> products;
+            if (fuzzy) {
+                products = productService.searchProductsByNameFuzzy(text, limit != null ? limit : DEFAULT_PAGE_SIZE);
+            } else {
+                products = limit != null
+                    ? productService.searchProductsByName(text, limit)
+                    : productService.searchProductsByName(text);
+            }
+            return tagged(eTag, encoding).body(selected.project(products));
+        });
+    }
+    
+    /**
+     * Whether an If-None-Match header lists the entity tag, using the weak comparison RFC 9110 asks for
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String quoted = "\"" + eTag + "\"";
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+    
+    /**
+     * The encoding content negotiation picks for an Accept header, or null when none is acceptable,
+     * which leaves the 406 response to Spring MVC
+     */
+    private static MediaType encoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType type : acceptable) {
+            if (type.getQualityValue() > 0) {
+                for (MediaType encoding : ENCODINGS) {
+                    if (type.includes(encoding)) {
+                        return encoding;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Smile and CBOR bodies differ from the JSON one byte for byte, so each encoding gets its own strong tag
+     */
+    private static String encodedETag(String eTag, MediaType encoding) {
+        if (encoding == null || encoding.equals(MediaType.APPLICATION_JSON)) {
+            return eTag;
+        }
+        return eTag + "-" + encoding.getSubtype();
+    }
+    
+    /**
+     * 200 response carrying the tag of the encoding it is written in; the encoding is set here rather than
+     * negotiated again, so the body always matches the tag
+     */
+    private static ResponseEntity.BodyBuilder tagged(String eTag, MediaType encoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT);
+        return encoding != null ? response.contentType(encoding) : response;
+    }
+    
+    /**
+     * Keep list endpoints returning a plain array when paged, with the cursor in a header
+     */
+    private static <T> ResponseEntity<List<T>> pagedResponse(CursorPageDTO<T> page, String eTag, MediaType encoding) {
+        ResponseEntity.BodyBuilder response = tagged(eTag, encoding);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+    
+    private static <T> ResponseEntity<T> idempotentResponse(IdempotencyService.Result<T> result) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return response.body(result.body());
     }
-}
\ No newline at end of file
+}
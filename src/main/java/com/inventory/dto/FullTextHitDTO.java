@@ -0,0 +1,14 @@
+package com.inventory.dto;
+
+/**
+ * One full-text search hit. Highlights are HTML-escaped with the matched terms wrapped in &lt;em&gt;.
+ *
+ * @param score                BM25 relevance; only comparable within one search
+ * @param nameHighlight        the name with its matches marked, or null when only the description matched
+ * @param descriptionHighlight the best matching part of the description, or null when it did not match
+ */
+public record FullTextHitDTO(ProductDTO product,
+                             float score,
+                             String nameHighlight,
+                             String descriptionHighlight) {
+}
@@ -0,0 +1,14 @@
+package com.inventory.dto;
+
+import java.util.List;
+
+/**
+ * One page of full-text search hits, best match first
+ *
+ * @param totalHits number of products matching the query across all pages
+ */
+public record FullTextPageDTO(List<FullTextHitDTO> hits,
+                              long totalHits,
+                              int page,
+                              int size) {
+}
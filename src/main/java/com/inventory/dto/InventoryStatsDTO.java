@@ -0,0 +1,15 @@
+package com.inventory.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Catalog-wide stock totals, maintained as products change rather than computed per request
+ *
+ * @param reconciledAt when the totals were last checked against the database, null before the first check
+ */
+public record InventoryStatsDTO(long totalUnits,
+                                long productCount,
+                                long lowStockCount,
+                                long outOfStockCount,
+                                LocalDateTime reconciledAt) {
+}
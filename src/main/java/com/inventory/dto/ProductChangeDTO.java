@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.inventory.entity.ProductChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for returning one entry of the product change feed. Upserts carry the product's current
+ * state, or null when it has been deleted since; the delete follows later in the feed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeDTO {
+    private Long seq;
+    private Long productId;
+    private ProductChange.Type type;
+    private ProductDTO product;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime changedAt;
+}
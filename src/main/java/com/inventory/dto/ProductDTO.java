@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * DTO for returning product information
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductDTO {
@@ -20,6 +20,8 @@ public class ProductDTO {
     private String name;
     private String description;
     private Integer stockQuantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
     private Integer lowStockThreshold;
     @com.fasterxml.jackson.annotation.JsonProperty("isLowStock")
     private boolean isLowStock;
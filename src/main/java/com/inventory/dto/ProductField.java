@@ -0,0 +1,37 @@
+package com.inventory.dto;
+
+/**
+ * Fields of {@link ProductDTO} a client can ask for, by their JSON names, in serialization order
+ */
+public enum ProductField {
+    ID("id", false),
+    NAME("name", false),
+    DESCRIPTION("description", false),
+    STOCK_QUANTITY("stockQuantity", true),
+    RESERVED_QUANTITY("reservedQuantity", true),
+    AVAILABLE_QUANTITY("availableQuantity", true),
+    LOW_STOCK_THRESHOLD("lowStockThreshold", true),
+    IS_LOW_STOCK("isLowStock", true),
+    CREATED_AT("createdAt", false),
+    UPDATED_AT("updatedAt", false);
+    
+    private final String jsonName;
+    private final boolean stock;
+    
+    ProductField(String jsonName, boolean stock) {
+        this.jsonName = jsonName;
+        this.stock = stock;
+    }
+    
+    public String jsonName() {
+        return jsonName;
+    }
+    
+    /**
+     * Whether the field is derived from the stock columns, which are always read together
+     * because the live stock of hot products is overlaid on all of them at once
+     */
+    public boolean isStock() {
+        return stock;
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The product fields a read returns, parsed once per request from a comma-separated 'fields'
+ * parameter. Reads select only the columns these fields need, and {@link #project} marks the
+ * results so only these fields are serialized.
+ */
+public final class ProductFields {
+    
+    public static final ProductFields ALL = new ProductFields(EnumSet.allOf(ProductField.class));
+    
+    private static final Map<String, ProductField> BY_JSON_NAME = Arrays.stream(ProductField.values())
+        .collect(Collectors.toUnmodifiableMap(ProductField::jsonName, Function.identity()));
+    
+    private final Set<ProductField> fields;
+    private final boolean stock;
+    
+    private ProductFields(EnumSet<ProductField> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+        this.stock = fields.stream().anyMatch(ProductField::isStock);
+    }
+    
+    /**
+     * Parse a comma-separated list of JSON field names; a missing or blank list means all fields
+     *
+     * @throws IllegalArgumentException for an unknown field name or a list without any name
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<ProductField> selected = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            ProductField field = BY_JSON_NAME.get(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown product field '" + trimmed + "', expected any of " + ALL);
+            }
+            selected.add(field);
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one product field is required");
+        }
+        return selected.size() == ProductField.values().length ? ALL : new ProductFields(selected);
+    }
+    
+    public static ProductFields of(ProductField first, ProductField... rest) {
+        EnumSet<ProductField> fields = EnumSet.of(first, rest);
+        return fields.size() == ProductField.values().length ? ALL : new ProductFields(fields);
+    }
+    
+    public boolean isAll() {
+        return this == ALL;
+    }
+    
+    public boolean contains(ProductField field) {
+        return fields.contains(field);
+    }
+    
+    /**
+     * Whether any selected field needs the stock columns
+     */
+    public boolean includesStock() {
+        return stock;
+    }
+    
+    /**
+     * Selected fields in serialization order
+     */
+    public Set<ProductField> fields() {
+        return fields;
+    }
+    
+    /**
+     * The product as it should be serialized: unchanged for all fields, otherwise limited to these fields
+     */
+    public ProductDTO project(ProductDTO product) {
+        return isAll() || product == null ? product : new SparseProductDTO(product, this);
+    }
+    
+    public List<ProductDTO> project(List<ProductDTO> products) {
+        return isAll() ? products : products.stream().map(this::project).toList();
+    }
+    
+    @Override
+    public String toString() {
+        return fields.stream().map(ProductField::jsonName).collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventory.dto;
+
+/**
+ * Result of looking up one product ID of a multi-get; the product is null when it was not found
+ */
+public record ProductLookupDTO(Long id,
+                               boolean found,
+                               ProductDTO product) {
+    
+    public static ProductLookupDTO of(Long id, ProductDTO product) {
+        return new ProductLookupDTO(id, product != null, product);
+    }
+}
@@ -0,0 +1,25 @@
+package com.inventory.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for fetching several products by ID in one request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductMultiGetRequestDTO {
+    
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = 5000, message = "A request cannot contain more than 5,000 product IDs")
+    private List<@NotNull(message = "Product IDs cannot be null") Long> ids;
+}
@@ -0,0 +1,11 @@
+package com.inventory.dto;
+
+/**
+ * One autocomplete suggestion, served from memory without reading the product row
+ *
+ * @param stockQuantity stock level the suggestion was ranked by, as last seen by the index
+ */
+public record ProductSuggestionDTO(Long id,
+                                   String name,
+                                   Integer stockQuantity) {
+}
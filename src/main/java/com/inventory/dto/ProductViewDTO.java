@@ -0,0 +1,31 @@
+package com.inventory.dto;
+
+import com.inventory.entity.Product;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable read projection of a product, selected straight from the 'products' table.
+ * Reads built on it never create managed entities, so Hibernate keeps no dirty-check
+ * snapshots for them. The low-stock flag is computed by the query itself.
+ */
+public record ProductViewDTO(Long id,
+                             String name,
+                             String description,
+                             Integer stockQuantity,
+                             Integer reservedQuantity,
+                             Integer lowStockThreshold,
+                             Boolean lowStock,
+                             LocalDateTime createdAt,
+                             LocalDateTime updatedAt,
+                             Long version) {
+    
+    /**
+     * Snapshot of an entity's current state, for code that already holds the entity
+     */
+    public static ProductViewDTO of(Product product) {
+        return new ProductViewDTO(product.getId(), product.getName(), product.getDescription(),
+            product.getStockQuantity(), product.getReservedQuantity(), product.getLowStockThreshold(),
+            product.isLowStock(), product.getCreatedAt(), product.getUpdatedAt(), product.getVersion());
+    }
+}
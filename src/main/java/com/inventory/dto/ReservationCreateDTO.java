@@ -0,0 +1,31 @@
+package com.inventory.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for placing a hold on product stock
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationCreateDTO {
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 10000, message = "Quantity cannot exceed 10,000 per operation")
+    private Integer quantity;
+    
+    /**
+     * How long the hold lasts before it is released automatically; defaults to inventory.reservations.default-ttl-seconds
+     */
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    @Max(value = 86400, message = "TTL cannot exceed 24 hours")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,38 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.inventory.entity.StockReservation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for returning reservation information
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+    private Long id;
+    private Long productId;
+    private Integer quantity;
+    private StockReservation.Status status;
+    
+    /**
+     * Unreserved stock of the product right after this operation
+     */
+    private Integer availableQuantity;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime expiresAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime resolvedAt;
+}
@@ -0,0 +1,82 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A product that serializes only the requested fields.
+ * <p>
+ * It stays a {@link ProductDTO}, so endpoints keep their response type, but is written by a
+ * serializer that walks the selected fields directly instead of filtering bean properties on
+ * every call. Values and formats match what Jackson writes for a full {@link ProductDTO}.
+ */
+@JsonSerialize(using = SparseProductDTO.Serializer.class)
+public class SparseProductDTO extends ProductDTO {
+    
+    private final ProductFields fields;
+    
+    SparseProductDTO(ProductDTO product, ProductFields fields) {
+        super(product.getId(), product.getName(), product.getDescription(), product.getStockQuantity(),
+            product.getReservedQuantity(), product.getAvailableQuantity(), product.getLowStockThreshold(),
+            product.isLowStock(), product.getCreatedAt(), product.getUpdatedAt());
+        this.fields = fields;
+    }
+    
+    static final class Serializer extends StdSerializer<SparseProductDTO> {
+        
+        /**
+         * Same pattern as the {@code @JsonFormat} of the {@link ProductDTO} timestamps
+         */
+        private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        
+        Serializer() {
+            super(SparseProductDTO.class);
+        }
+        
+        @Override
+        public void serialize(SparseProductDTO product, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(product);
+            for (ProductField field : product.fields.fields()) {
+                generator.writeFieldName(field.jsonName());
+                switch (field) {
+                    case ID -> writeNumber(generator, product.getId());
+                    case NAME -> generator.writeString(product.getName());
+                    case DESCRIPTION -> generator.writeString(product.getDescription());
+                    case STOCK_QUANTITY -> writeNumber(generator, product.getStockQuantity());
+                    case RESERVED_QUANTITY -> writeNumber(generator, product.getReservedQuantity());
+                    case AVAILABLE_QUANTITY -> writeNumber(generator, product.getAvailableQuantity());
+                    case LOW_STOCK_THRESHOLD -> writeNumber(generator, product.getLowStockThreshold());
+                    case IS_LOW_STOCK -> generator.writeBoolean(product.isLowStock());
+                    case CREATED_AT -> writeTimestamp(generator, product.getCreatedAt());
+                    case UPDATED_AT -> writeTimestamp(generator, product.getUpdatedAt());
+                }
+            }
+            generator.writeEndObject();
+        }
+        
+        private static void writeNumber(JsonGenerator generator, Number value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof Long longValue) {
+                generator.writeNumber(longValue);
+            } else {
+                generator.writeNumber(value.intValue());
+            }
+        }
+        
+        private static void writeTimestamp(JsonGenerator generator, LocalDateTime value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(TIMESTAMP_FORMAT.format(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO describing the outcome of one line of a stock batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBatchLineResultDTO {
+    
+    /**
+     * APPLIED lines were written, FAILED lines could not be satisfied,
+     * SKIPPED lines were valid but not written because an ATOMIC batch was rejected
+     */
+    public enum Status {
+        APPLIED,
+        FAILED,
+        SKIPPED
+    }
+    
+    private int line;
+    private Long productId;
+    private StockBatchLineDTO.Operation operation;
+    private Integer quantity;
+    private Status status;
+    private Integer stockQuantity;
+    private String error;
+}
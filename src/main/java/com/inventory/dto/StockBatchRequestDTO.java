@@ -0,0 +1,39 @@
+package com.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for applying several stock movements in a single transaction
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBatchRequestDTO {
+    
+    /**
+     * ATOMIC applies every line or none of them; BEST_EFFORT applies every line that can be satisfied
+     */
+    public enum Mode {
+        ATOMIC,
+        BEST_EFFORT
+    }
+    
+    @NotNull(message = "Batch mode is required")
+    @Builder.Default
+    private Mode mode = Mode.ATOMIC;
+    
+    @NotEmpty(message = "At least one stock line is required")
+    @Size(max = 1000, message = "A batch cannot contain more than 1,000 lines")
+    @Valid
+    private List<StockBatchLineDTO> lines;
+}
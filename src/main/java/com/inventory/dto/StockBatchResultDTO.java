@@ -0,0 +1,23 @@
+package com.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for returning the per-line results of a stock batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBatchResultDTO {
+    private StockBatchRequestDTO.Mode mode;
+    private boolean committed;
+    private int applied;
+    private int failed;
+    private List<StockBatchLineResultDTO> results;
+}
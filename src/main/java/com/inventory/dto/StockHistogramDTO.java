@@ -0,0 +1,20 @@
+package com.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Distribution of products over stock levels, in buckets of equal width; empty buckets are left out
+ */
+public record StockHistogramDTO(int bucketSize,
+                                List<Bucket> buckets) {
+    
+    /**
+     * @param minStock lowest stock quantity in the bucket
+     * @param maxStock highest stock quantity in the bucket
+     */
+    public record Bucket(int minStock,
+                         int maxStock,
+                         long productCount,
+                         long totalUnits) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.inventory.entity.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for returning one stock ledger entry
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDTO {
+    private Long id;
+    private Long productId;
+    private Integer delta;
+    private Integer resultingQuantity;
+    private StockMovement.Reason reason;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+}
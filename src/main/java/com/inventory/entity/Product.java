@@ -1,5 +1,7 @@
 package com.inventory.entity;
 
+import com.inventory.search.NameNormalizer;
+import com.inventory.search.ProductIndexListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,13 +17,24 @@ import java.time.LocalDateTime;
  * This class maps to the 'products' table in the database.
  */
 @Entity
-@Table(name = "products")
+@EntityListeners(ProductIndexListener.class)
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_low_stock", columnList = "low_stock, id"),
+    @Index(name = "idx_products_stock_quantity", columnList = "stock_quantity, id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Product.NORMALIZED_NAME_CONSTRAINT, columnNames = "normalized_name")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     
+    /**
+     * Unique index that keeps two products from sharing a name, ignoring case, accents and spacing
+     */
+    public static final String NORMALIZED_NAME_CONSTRAINT = "uk_products_normalized_name";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,16 +42,33 @@ public class Product {
     @Column(nullable = false, length = 100)
     private String name;
     
+    /**
+     * Canonical form of the name (see {@link NameNormalizer}), maintained on every save
+     */
+    @Column(name = "normalized_name", nullable = false)
+    private String normalizedName;
+    
     @Column(length = 500)
     private String description;
     
     @Column(name = "stock_quantity", nullable = false)
     private Integer stockQuantity;
     
+    @Column(name = "reserved_quantity", nullable = false)
+    @Builder.Default
+    private Integer reservedQuantity = 0;
+    
     @Column(name = "low_stock_threshold")
     @Builder.Default
     private Integer lowStockThreshold = 10;
     
+    /**
+     * Persisted copy of {@link #isLowStock()}, kept in sync on every save so low-stock
+     * listings can use an index instead of comparing two columns on every row
+     */
+    @Column(name = "low_stock", nullable = false)
+    private boolean lowStockFlag;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -57,6 +87,13 @@ public class Product {
         return this.stockQuantity <= this.lowStockThreshold;
     }
     
+    /**
+     * Stock that is not held by an active reservation
+     */
+    public int getAvailableQuantity() {
+        return this.stockQuantity - this.reservedQuantity;
+    }
+    
     /**
      * Business method to add stock
      */
@@ -74,12 +111,46 @@ public class Product {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity to remove must be positive");
         }
-        if (this.stockQuantity < quantity) {
+        if (getAvailableQuantity() < quantity) {
+            throw new IllegalStateException(
+                String.format("Insufficient stock. Available: %d, Requested: %d", 
+                    getAvailableQuantity(), quantity)
+            );
+        }
+        this.stockQuantity -= quantity;
+    }
+    
+    /**
+     * Business method to hold stock for a reservation
+     */
+    public void reserve(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to reserve must be positive");
+        }
+        if (getAvailableQuantity() < quantity) {
             throw new IllegalStateException(
                 String.format("Insufficient stock. Available: %d, Requested: %d", 
-                    this.stockQuantity, quantity)
+                    getAvailableQuantity(), quantity)
             );
         }
+        this.reservedQuantity += quantity;
+    }
+    
+    /**
+     * Business method to give held stock back without removing it
+     */
+    public void releaseReservation(int quantity) {
+        if (quantity <= 0 || quantity > this.reservedQuantity) {
+            throw new IllegalStateException("Cannot release more stock than is reserved");
+        }
+        this.reservedQuantity -= quantity;
+    }
+    
+    /**
+     * Business method to turn held stock into a permanent removal
+     */
+    public void confirmReservation(int quantity) {
+        releaseReservation(quantity);
         this.stockQuantity -= quantity;
     }
     
@@ -92,8 +163,14 @@ public class Product {
         if (this.stockQuantity < 0) {
             throw new IllegalStateException("Stock quantity cannot be negative");
         }
+        if (this.reservedQuantity < 0 || this.reservedQuantity > this.stockQuantity) {
+            throw new IllegalStateException("Reserved quantity must be between 0 and the stock quantity");
+        }
         if (this.lowStockThreshold < 0) {
             throw new IllegalStateException("Low stock threshold cannot be negative");
         }
+        // JPA allows a single callback per event, so derived columns are refreshed here as well
+        this.lowStockFlag = isLowStock();
+        this.normalizedName = NameNormalizer.normalize(this.name);
     }
 }
\ No newline at end of file
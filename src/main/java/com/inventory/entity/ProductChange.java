@@ -0,0 +1,52 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the product change feed, written by {@link com.inventory.feed.ProductChangeFeed}.
+ * This class maps to the 'product_changes' table in the database.
+ */
+@Entity
+@Table(name = "product_changes", indexes = {
+    @Index(name = "idx_product_changes_product_seq", columnList = "product_id, seq")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChange {
+    
+    /**
+     * UPSERT covers creates and every update, including stock movements and reservations
+     */
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    /**
+     * Position in the feed, given after the change has committed; null until then
+     */
+    @Column(unique = true)
+    private Long seq;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 8)
+    private Type type;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,34 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row holding the last position handed out in the product change feed and how far it has been pruned.
+ * This class maps to the 'product_change_sequence' table in the database.
+ */
+@Entity
+@Table(name = "product_change_sequence")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeSequence {
+    
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+    
+    /**
+     * Position of the last delete dropped from the feed; earlier positions have expired
+     */
+    @Column(name = "pruned_seq", nullable = false)
+    private Long prunedSeq;
+}
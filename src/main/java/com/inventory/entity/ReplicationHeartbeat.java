@@ -0,0 +1,30 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The single row the primary stamps with its own clock so replicas can tell how far they trail it.
+ * This class maps to the 'replication_heartbeat' table in the database.
+ */
+@Entity
+@Table(name = "replication_heartbeat")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationHeartbeat {
+    
+    public static final int ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "beat_at", nullable = false)
+    private LocalDateTime beatAt;
+}
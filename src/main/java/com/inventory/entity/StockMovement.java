@@ -0,0 +1,53 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only stock ledger.
+ * This class maps to the 'stock_movements' table in the database.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movements_product", columnList = "product_id, id"),
+    @Index(name = "idx_stock_movements_created", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovement {
+    
+    public enum Reason {
+        INITIAL,
+        ADD,
+        REMOVE,
+        BATCH,
+        RESERVATION
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Integer delta;
+    
+    @Column(name = "resulting_quantity", nullable = false)
+    private Integer resultingQuantity;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Reason reason;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
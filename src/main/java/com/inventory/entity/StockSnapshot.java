@@ -0,0 +1,42 @@
+package com.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compacted ledger history of one product: the stock after the last movement rolled into it.
+ * The current stock is the snapshot quantity plus the deltas of the movements after it.
+ * This class maps to the 'stock_snapshots' table in the database.
+ */
+@Entity
+@Table(name = "stock_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+    
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(name = "last_movement_id", nullable = false)
+    private Long lastMovementId;
+    
+    /**
+     * Number of movements compacted into this snapshot so far
+     */
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount;
+    
+    @Column(name = "compacted_at", nullable = false)
+    private LocalDateTime compactedAt;
+}
@@ -0,0 +1,8 @@
+package com.inventory.event;
+
+/**
+ * Published when a product is deleted, so listeners can drop what they keep about it.
+ * Listeners should react after commit, so a rolled-back delete is never observed.
+ */
+public record ProductDeletedEvent(Long productId) {
+}
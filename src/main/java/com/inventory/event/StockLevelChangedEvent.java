@@ -0,0 +1,14 @@
+package com.inventory.event;
+
+/**
+ * Published whenever a stock movement or threshold change leaves a product at a new stock level.
+ * Listeners should react after commit, so rolled-back movements are never observed.
+ *
+ * @param delta change of the stock quantity, 0 when only the threshold changed
+ */
+public record StockLevelChangedEvent(Long productId,
+                                     String productName,
+                                     int delta,
+                                     int stockQuantity,
+                                     int lowStockThreshold) {
+}
@@ -0,0 +1,10 @@
+package com.inventory.exception;
+
+/**
+ * Exception thrown when a change feed reader resumes from a position the feed has since been pruned past
+ */
+public class ChangeFeedPositionExpiredException extends RuntimeException {
+    public ChangeFeedPositionExpiredException(long since) {
+        super(String.format("Change feed position %d has expired; read the feed again from position 0", since));
+    }
+}
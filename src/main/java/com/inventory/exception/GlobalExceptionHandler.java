@@ -1,8 +1,10 @@
 package com.inventory.exception;
 
 import com.inventory.dto.ErrorResponseDTO;
+import com.inventory.entity.Product;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -13,6 +15,7 @@ import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -37,6 +40,52 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
     
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponseDTO> handleReservationNotFoundException(
+            ReservationNotFoundException ex,
+            HttpServletRequest request) {
+        log.error("Reservation not found: {}", ex.getMessage());
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.NOT_FOUND.value())
+            .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+            .message(ex.getMessage())
+            .path(request.getRequestURI())
+            .validationErrors(null)
+            .build();
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+        
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyConflictException(
+            IdempotencyConflictException ex,
+            HttpServletRequest request) {
+        log.warn("Idempotency conflict: {}", ex.getMessage());
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.CONFLICT.value())
+            .error(HttpStatus.CONFLICT.getReasonPhrase())
+            .message(ex.getMessage())
+            .path(request.getRequestURI())
+            .build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    @ExceptionHandler(ChangeFeedPositionExpiredException.class)
+    public ResponseEntity<ErrorResponseDTO> handleChangeFeedPositionExpiredException(
+            ChangeFeedPositionExpiredException ex,
+            HttpServletRequest request) {
+        log.warn("Expired change feed position: {}", ex.getMessage());
+        ErrorResponseDTO error = ErrorResponseDTO.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.GONE.value())
+            .error(HttpStatus.GONE.getReasonPhrase())
+            .message(ex.getMessage())
+            .path(request.getRequestURI())
+            .build();
+        return ResponseEntity.status(HttpStatus.GONE).body(error);
+    }
+    
         @ExceptionHandler(InsufficientStockException.class)
         public ResponseEntity<ErrorResponseDTO> handleInsufficientStockException(
                 InsufficientStockException ex,
@@ -67,6 +116,21 @@ public class GlobalExceptionHandler {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
 
+        /**
+         * A write that lost the race for a product name reports it like the up-front name check does
+         */
+        @ExceptionHandler(DataIntegrityViolationException.class)
+        public ResponseEntity<ErrorResponseDTO> handleDataIntegrityViolationException(
+                DataIntegrityViolationException ex,
+                HttpServletRequest request) {
+            String cause = String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+            if (!cause.contains(Product.NORMALIZED_NAME_CONSTRAINT)) {
+                return handleGlobalException(ex, request);
+            }
+            return handleInvalidStockOperationException(
+                new InvalidStockOperationException("Product with this name already exists"), request);
+        }
+
         @ExceptionHandler(MethodArgumentNotValidException.class)
         public ResponseEntity<ErrorResponseDTO> handleValidationExceptions(
                 MethodArgumentNotValidException ex,
@@ -0,0 +1,10 @@
+package com.inventory.exception;
+
+/**
+ * Exception thrown when a request reuses an Idempotency-Key whose original request has not finished yet
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String key) {
+        super(String.format("A request with Idempotency-Key '%s' is still being processed", key));
+    }
+}
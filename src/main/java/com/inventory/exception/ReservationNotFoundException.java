@@ -0,0 +1,10 @@
+package com.inventory.exception;
+
+/**
+ * Exception thrown when a stock reservation is not found in the system
+ */
+public class ReservationNotFoundException extends RuntimeException {
+    public ReservationNotFoundException(Long id) {
+        super(String.format("Reservation with ID %d not found", id));
+    }
+}
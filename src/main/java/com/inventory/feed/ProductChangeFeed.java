@@ -0,0 +1,245 @@
+package com.inventory.feed;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.entity.ProductChange;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records product writes in the 'product_changes' feed, numbered by a monotonic sequence.
+ * <p>
+ * Changes are collected during the writing transaction and inserted just before it commits, without
+ * a position, so writers share no lock. Positions are handed out afterwards by {@link #sequence()},
+ * which numbers the committed rows that have none in insertion order while holding the counter row.
+ * A change that commits late is numbered after everything numbered before it, so a consumer that
+ * has read up to a position can never miss a change that shows up later with a lower one.
+ * <p>
+ * On first start the feed is seeded with one upsert per existing product, so reading from
+ * position 0 yields the whole catalog. A compaction job keeps it bounded: changes superseded by a
+ * later change to the same product are dropped, which a reader cannot tell from having missed them,
+ * and deletes are dropped after the retention period. Positions before the last dropped delete have
+ * expired, since reading on from one would miss that delete.
+ */
+@Component
+@Slf4j
+public class ProductChangeFeed {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO product_changes (product_id, change_type, changed_at) VALUES (?, ?, ?)";
+    private static final String SEED_SQL =
+        "INSERT INTO product_changes (product_id, change_type, changed_at) " +
+        "SELECT id, 'UPSERT', ? FROM products ORDER BY id";
+    private static final String LOCK_SQL = "SELECT last_seq FROM product_change_sequence WHERE id = 1 FOR UPDATE";
+    private static final String PENDING_SQL = "SELECT id FROM product_changes WHERE seq IS NULL LIMIT 1";
+    private static final String UNNUMBERED_SQL = "SELECT id FROM product_changes WHERE seq IS NULL ORDER BY id LIMIT ?";
+    private static final String NUMBER_SQL = "UPDATE product_changes SET seq = ? WHERE id = ?";
+    private static final String ADVANCE_SQL = "UPDATE product_change_sequence SET last_seq = ? WHERE id = 1";
+    private static final String SUPERSEDED_SQL =
+        "SELECT c.seq FROM product_changes c WHERE EXISTS " +
+        "(SELECT 1 FROM product_changes l WHERE l.product_id = c.product_id AND l.seq > c.seq) LIMIT ?";
+    private static final String EXPIRED_DELETES_SQL =
+        "SELECT seq FROM product_changes WHERE change_type = 'DELETE' AND seq IS NOT NULL AND changed_at < ? " +
+        "ORDER BY seq LIMIT ?";
+    private static final String DELETE_SQL = "DELETE FROM product_changes WHERE seq = ?";
+    private static final String COMMITTED_SQL =
+        "SELECT s.last_seq + (SELECT COUNT(*) FROM product_changes c WHERE c.seq IS NULL) " +
+        "FROM product_change_sequence s WHERE s.id = 1";
+    private static final String PRUNED_SQL = "SELECT pruned_seq FROM product_change_sequence WHERE id = 1";
+    private static final String ADVANCE_PRUNED_SQL =
+        "UPDATE product_change_sequence SET pruned_seq = ? WHERE id = 1 AND pruned_seq < ?";
+    
+    /**
+     * Changes numbered per transaction, so one sequencing run never holds the counter for long
+     */
+    private static final int SEQUENCE_CHUNK_SIZE = 1000;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate sequencingTemplate;
+    private final InventoryProperties.ChangeFeed settings;
+    
+    public ProductChangeFeed(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             InventoryProperties inventoryProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = inventoryProperties.getChangeFeed();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also runs ahead of feed reads, which may already be inside a read-only transaction
+        this.sequencingTemplate = new TransactionTemplate(transactionManager);
+        this.sequencingTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @PostConstruct
+    public void initialize() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.queryForList("SELECT id FROM product_change_sequence WHERE id = 1").isEmpty()) {
+                    jdbcTemplate.update(
+                        "INSERT INTO product_change_sequence (id, last_seq, pruned_seq) VALUES (1, 0, 0)");
+                    int seeded = jdbcTemplate.update(SEED_SQL, Timestamp.valueOf(LocalDateTime.now()));
+                    if (seeded > 0) {
+                        log.info("Seeded the product change feed with {} existing products", seeded);
+                    }
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            log.debug("Product change feed was initialized by another instance");
+        }
+        sequence();
+    }
+    
+    /**
+     * Record a change to a product, appended to the feed when the current transaction commits.
+     * Later changes to the same product in one transaction replace earlier ones.
+     */
+    public void record(Long productId, ProductChange.Type type) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(Map.of(productId, type));
+            return;
+        }
+        pendingChanges().changes.put(productId, type);
+    }
+    
+    /**
+     * Give positions to the committed changes that have none yet, oldest first.
+     * Runs on a schedule and before each feed read, so readers always see every committed change.
+     * Whether there is anything to number is checked first without a lock, so a run that finds
+     * nothing, as most feed reads do, opens no transaction and leaves the counter row alone.
+     */
+    @Scheduled(fixedDelayString = "${inventory.change-feed.sequence-interval-ms:100}")
+    public void sequence() {
+        if (jdbcTemplate.queryForList(PENDING_SQL, Long.class).isEmpty()) {
+            return;
+        }
+        int numbered;
+        do {
+            numbered = sequencingTemplate.execute(status -> {
+                // Concurrent sequencers queue here; writers never touch the counter row
+                long seq = jdbcTemplate.queryForObject(LOCK_SQL, Long.class);
+                List<Long> ids = jdbcTemplate.queryForList(UNNUMBERED_SQL, Long.class, SEQUENCE_CHUNK_SIZE);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                List<Object[]> rows = new ArrayList<>(ids.size());
+                for (Long id : ids) {
+                    rows.add(new Object[]{++seq, id});
+                }
+                jdbcTemplate.batchUpdate(NUMBER_SQL, rows);
+                jdbcTemplate.update(ADVANCE_SQL, seq);
+                return ids.size();
+            });
+        } while (numbered == SEQUENCE_CHUNK_SIZE);
+    }
+    
+    /**
+     * Number of changes committed so far, numbered or not. It grows with every committing write and
+     * is read in one statement, so a sequencing run cannot make it count a change twice or miss one.
+     */
+    public long committedChanges() {
+        return jdbcTemplate.queryForObject(COMMITTED_SQL, Long.class);
+    }
+    
+    /**
+     * Position up to which the feed has been pruned; reading on from an earlier position
+     * other than 0 could miss a delete
+     */
+    public long prunedThrough() {
+        return jdbcTemplate.queryForObject(PRUNED_SQL, Long.class);
+    }
+    
+    /**
+     * Drop superseded changes and deletes older than the retention period, a chunk per transaction
+     */
+    @Scheduled(fixedDelayString = "${inventory.change-feed.compaction-interval-ms:3600000}",
+        initialDelayString = "${inventory.change-feed.compaction-interval-ms:3600000}")
+    public void compact() {
+        int chunkSize = settings.getCompactionChunkSize();
+        long superseded = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                delete(jdbcTemplate.queryForList(SUPERSEDED_SQL, Long.class, chunkSize)));
+            superseded += deleted;
+        } while (deleted == chunkSize);
+        
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(settings.getDeleteRetentionDays()));
+        long expired = 0;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Long> seqs = jdbcTemplate.queryForList(EXPIRED_DELETES_SQL, Long.class, cutoff, chunkSize);
+                if (!seqs.isEmpty()) {
+                    long last = seqs.get(seqs.size() - 1);
+                    jdbcTemplate.update(ADVANCE_PRUNED_SQL, last, last);
+                }
+                return delete(seqs);
+            });
+            expired += deleted;
+        } while (deleted == chunkSize);
+        log.info("Compacted the product change feed: {} superseded changes and {} expired deletes dropped",
+            superseded, expired);
+    }
+    
+    private int delete(List<Long> seqs) {
+        if (!seqs.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, seqs.stream().map(seq -> new Object[]{seq}).toList());
+        }
+        return seqs.size();
+    }
+    
+    /**
+     * Changes collected by the current transaction; looked up among its synchronizations rather
+     * than bound as a resource, so a nested REQUIRES_NEW transaction collects its own
+     */
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending) {
+                return pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+    
+    /**
+     * Insert the changes without positions; must run in the transaction that made them
+     */
+    private void append(Map<Long, ProductChange.Type> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        for (Map.Entry<Long, ProductChange.Type> change : changes.entrySet()) {
+            rows.add(new Object[]{change.getKey(), change.getValue().name(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+    
+    private final class PendingChanges implements TransactionSynchronization {
+        
+        private final Map<Long, ProductChange.Type> changes = new LinkedHashMap<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Entity changes are left to the commit's own flush, whose errors the transaction manager translates
+            append(changes);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.inventory.mapper;
 
 import com.inventory.dto.ProductCreateDTO;
 import com.inventory.dto.ProductDTO;
+import com.inventory.dto.ProductViewDTO;
 import com.inventory.entity.Product;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -16,8 +17,16 @@ public interface ProductMapper {
      * Convert Product entity to ProductDTO
      */
     @Mapping(target = "isLowStock", expression = "java(product.isLowStock())")
+    @Mapping(target = "availableQuantity", expression = "java(product.getAvailableQuantity())")
     ProductDTO toDTO(Product product);
 
+    /**
+     * Convert a read-only product projection to ProductDTO
+     */
+    @Mapping(target = "isLowStock", source = "lowStock")
+    @Mapping(target = "availableQuantity", expression = "java(view.stockQuantity() - view.reservedQuantity())")
+    ProductDTO toDTO(ProductViewDTO view);
+
     /**
      * Convert ProductCreateDTO to Product entity
      */
@@ -25,5 +34,8 @@ public interface ProductMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
+    @Mapping(target = "reservedQuantity", ignore = true)
+    @Mapping(target = "lowStockFlag", ignore = true)
+    @Mapping(target = "normalizedName", ignore = true)
     Product toEntity(ProductCreateDTO createDTO);
 }
@@ -0,0 +1,35 @@
+package com.inventory.replica;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the consistency token a client sends back, so the reads of its request only use
+ * replicas that have applied the write the token came from. Malformed tokens are ignored.
+ */
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String token = request.getHeader(ReadConsistency.TOKEN_HEADER);
+        if (token != null) {
+            try {
+                ReadConsistency.require(Long.parseLong(token.trim()));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring malformed consistency token: " + token);
+            }
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadConsistency.clear();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.inventory.replica;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread read routing hints for {@link ReplicaRoutingDataSource}.
+ * <p>
+ * A write returns a consistency token: the primary database's clock, read after the commit. A replica that
+ * has applied a heartbeat written later than the token has applied the write as well, so a client
+ * that sends the token back only reads from replicas that already show its own writes. Reads
+ * whose results are kept, such as cache loads and index rebuilds, go to the primary instead.
+ * Without replicas every read uses the single database and these hints have no effect.
+ */
+@Slf4j
+public final class ReadConsistency {
+    
+    public static final String TOKEN_HEADER = "X-Consistency-Token";
+    
+    private static final ThreadLocal<Long> REQUIRED_POSITION = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+    /**
+     * Marks a transaction that already issues a token on commit
+     */
+    private static final Object TOKEN_ISSUED = new Object();
+    
+    private ReadConsistency() {
+    }
+    
+    /**
+     * Run a read on the primary, for results that must not be stale. Only reads that start a
+     * transaction, or run first in one, are routed; a transaction keeps its first connection.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+    
+    public static void onPrimary(Runnable read) {
+        onPrimary(() -> {
+            read.run();
+            return null;
+        });
+    }
+    
+    static boolean primaryRequired() {
+        return PRIMARY.get() != null;
+    }
+    
+    /**
+     * Oldest replica position the current request may read from, 0 when any replica will do
+     */
+    static long requiredPosition() {
+        Long position = REQUIRED_POSITION.get();
+        return position != null ? position : 0;
+    }
+    
+    static void require(long position) {
+        REQUIRED_POSITION.set(position);
+    }
+    
+    static void clear() {
+        REQUIRED_POSITION.remove();
+    }
+    
+    /**
+     * Put a consistency token on the current response once the current write transaction commits.
+     * The service transaction commits before the controller writes the body, so the header still fits.
+     */
+    static void issueTokenAfterCommit(LongSupplier primaryClock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(TOKEN_ISSUED)
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request)
+                || request.getResponse() == null) {
+            return;
+        }
+        HttpServletResponse response = request.getResponse();
+        TransactionSynchronizationManager.bindResource(TOKEN_ISSUED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (response.isCommitted()) {
+                    return;
+                }
+                try {
+                    response.setHeader(TOKEN_HEADER, Long.toString(primaryClock.getAsLong()));
+                } catch (DataAccessException e) {
+                    // The write has committed; without a token the client's next read may just be stale
+                    log.warn("Could not read the primary clock for a consistency token: {}", e.getMessage());
+                }
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TOKEN_ISSUED);
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.inventory.replica;
+
+import com.inventory.entity.ReplicationHeartbeat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+
+/**
+ * Measures how far each replica trails the primary.
+ * <p>
+ * The primary stamps a one-row heartbeat table with its own database clock every heartbeat
+ * interval, and the stamp replicates like any other write. A replica's lag is how old the stamp
+ * it shows is by that same clock, so it does not matter which node beat last or how far the
+ * nodes' clocks disagree. The measurement is only as fine as the heartbeat and check intervals.
+ * A replica that cannot be queried, or shows no heartbeat yet, serves no reads until it does.
+ * The heartbeat table is part of the schema, mapped by {@link ReplicationHeartbeat}.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    
+    private static final String SELECT_SQL = "SELECT beat_at FROM replication_heartbeat WHERE id = 1";
+    
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final JdbcTemplate primary;
+    
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+        this.primary = new JdbcTemplate(routingDataSource.primary());
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.replicas.heartbeat-interval-ms:100}")
+    public void beat() {
+        if (primary.update("UPDATE replication_heartbeat SET beat_at = CURRENT_TIMESTAMP(3) WHERE id = 1") == 0) {
+            primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP(3))");
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.replicas.lag-check-interval-ms:100}")
+    public void poll() {
+        try {
+            routingDataSource.synchronizeClock();
+        } catch (DataAccessException e) {
+            log.warn("Could not read the primary clock, keeping the last offset: {}", e.getMessage());
+        }
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.replicas()) {
+            try {
+                Timestamp heartbeat = new JdbcTemplate(replica.dataSource).queryForObject(SELECT_SQL, Timestamp.class);
+                replica.observed(heartbeat.getTime());
+            } catch (DataAccessException e) {
+                if (replica.unreachable()) {
+                    log.warn("Replica {} stopped serving reads: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+}
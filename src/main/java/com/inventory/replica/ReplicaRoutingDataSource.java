@@ -0,0 +1,168 @@
+package com.inventory.replica;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * A replica serves a read only while its last observed heartbeat (see {@link ReplicaLagMonitor})
+ * is no older than the allowed lag and newer than the caller's consistency token; eligible
+ * replicas take turns, and when none qualifies the read falls back to the primary. The lookup
+ * happens when a transaction first needs a connection, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: by then the
+ * transaction's read-only flag is known.
+ * <p>
+ * Heartbeats and tokens are stamped with the primary database's clock, so application nodes
+ * whose clocks disagree still compare them correctly. Lag is measured against an estimate of
+ * that clock, corrected on every lag check.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    static final String PRIMARY = "primary";
+    static final String CLOCK_SQL = "SELECT CURRENT_TIMESTAMP(3)";
+    
+    private final DataSource primary;
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    /**
+     * Primary database clock minus the local clock, in milliseconds
+     */
+    private volatile long clockOffsetMs;
+    
+    /**
+     * @param replicas replica data sources by name, in the order they take turns
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagMs) {
+        this.primary = primary;
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.maxLagMs = maxLagMs;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+    
+    DataSource primary() {
+        return primary;
+    }
+    
+    List<Replica> replicas() {
+        return replicas;
+    }
+    
+    /**
+     * Read the primary database's clock, in epoch milliseconds
+     */
+    long readPrimaryClock() {
+        return primaryJdbcTemplate.queryForObject(CLOCK_SQL, Timestamp.class).getTime();
+    }
+    
+    /**
+     * Re-measure how far the primary database's clock is from the local one
+     */
+    void synchronizeClock() {
+        long before = System.currentTimeMillis();
+        long primaryNow = readPrimaryClock();
+        long after = System.currentTimeMillis();
+        clockOffsetMs = primaryNow - (before + after) / 2;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadConsistency.issueTokenAfterCommit(this::readPrimaryClock);
+            return PRIMARY;
+        }
+        if (ReadConsistency.primaryRequired()) {
+            return PRIMARY;
+        }
+        Replica replica = select(ReadConsistency.requiredPosition(), System.currentTimeMillis() + clockOffsetMs);
+        return replica != null ? replica.name : PRIMARY;
+    }
+    
+    /**
+     * Next replica, in turn, that is caught up with the position and within the allowed lag
+     *
+     * @return null when the read has to go to the primary
+     */
+    Replica select(long requiredPosition, long now) {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.serves(requiredPosition, now, maxLagMs)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            close(replica.dataSource);
+        }
+        close(primary);
+    }
+    
+    private static void close(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+    
+    /**
+     * A replica and the latest primary heartbeat it has been seen to apply
+     */
+    static final class Replica {
+        
+        final String name;
+        final DataSource dataSource;
+        private volatile long appliedUpTo;
+        private volatile boolean reachable;
+        
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+        
+        void observed(long heartbeat) {
+            appliedUpTo = heartbeat;
+            reachable = true;
+        }
+        
+        /**
+         * @return whether the replica was reachable until now
+         */
+        boolean unreachable() {
+            boolean was = reachable;
+            reachable = false;
+            return was;
+        }
+        
+        boolean serves(long requiredPosition, long now, long maxLagMs) {
+            // A heartbeat written in the token's own millisecond may predate the write
+            return reachable && appliedUpTo > requiredPosition && now - appliedUpTo <= maxLagMs;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.inventory.repository;
+
+import com.inventory.entity.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for ProductChange entity.
+ * Changes are inserted over JDBC by {@link com.inventory.feed.ProductChangeFeed}.
+ */
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+    
+    /**
+     * Keyset page of the feed after the given position, oldest first
+     */
+    @Query("SELECT c FROM ProductChange c WHERE c.seq > :since ORDER BY c.seq")
+    List<ProductChange> findPage(@Param("since") long since, Pageable pageable);
+}
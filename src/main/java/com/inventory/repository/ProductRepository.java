@@ -1,22 +1,85 @@
 package com.inventory.repository;
 
+import com.inventory.dto.ProductViewDTO;
 import com.inventory.entity.Product;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Product entity
  * Extends JpaRepository for basic CRUD operations
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, SparseProductQueries {
+    
+    /**
+     * Select list shared by the read-only queries that project straight into {@link ProductViewDTO}
+     */
+    String PRODUCT_VIEW = "SELECT new com.inventory.dto.ProductViewDTO(p.id, p.name, p.description, " +
+        "p.stockQuantity, p.reservedQuantity, p.lowStockThreshold, " +
+        "CASE WHEN p.stockQuantity <= p.lowStockThreshold THEN true ELSE false END, " +
+        "p.createdAt, p.updatedAt, p.version) FROM Product p ";
+    
+    // Conditions of the listing queries, shared with their sparse variants in SparseProductQueries
+    String PAGE_AFTER = "WHERE p.id > :after ORDER BY p.id";
+    String LOW_STOCK = "WHERE p.lowStockFlag = true ORDER BY p.id";
+    String LOW_STOCK_AFTER = "WHERE p.lowStockFlag = true AND p.id > :after ORDER BY p.id";
+    String STOCK_RANGE_AFTER = "WHERE p.stockQuantity BETWEEN :min AND :max AND p.id > :after ORDER BY p.id";
+    
+    /**
+     * Read-only view of all products
+     */
+    @Query(PRODUCT_VIEW)
+    List<ProductViewDTO> findAllViews();
+    
+    /**
+     * Read-only view of one product
+     */
+    @Query(PRODUCT_VIEW + "WHERE p.id = :id")
+    Optional<ProductViewDTO> findViewById(@Param("id") Long id);
+    
+    /**
+     * Read-only views of the given products, in ascending ID order
+     */
+    @Query(PRODUCT_VIEW + "WHERE p.id IN :ids ORDER BY p.id")
+    List<ProductViewDTO> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Stream every product view in ID order, fetching rows in batches, to rebuild the in-memory indexes.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(PRODUCT_VIEW + "ORDER BY p.id")
+    Stream<ProductViewDTO> streamAllViews();
+    
+    /**
+     * Version and unreserved stock of a product, all a conditional GET needs to compare entity tags
+     */
+    @Query("SELECT p.version AS version, p.stockQuantity - p.reservedQuantity AS availableQuantity " +
+           "FROM Product p WHERE p.id = :id")
+    Optional<ProductVersion> findVersionById(@Param("id") Long id);
+    
+    /**
+     * Read-only views of the products whose lower-cased name contains the given lower-case text.
+     * LIKE wildcards in the text are escaped, so they match literally.
+     */
+    @Query(PRODUCT_VIEW + "WHERE LOWER(p.name) LIKE %?#{escape([0])}% ESCAPE ?#{escapeCharacter()}")
+    List<ProductViewDTO> findViewsByNameContaining(String lowerCaseName);
     
     /**
      * Find product by ID with pessimistic write lock for stock operations
@@ -27,10 +90,67 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByIdWithLock(@Param("id") Long id);
     
     /**
-     * Find all products that are below their low stock threshold
+     * Lock several products with one SELECT ... FOR UPDATE for batch stock operations.
+     * Rows are locked in ascending ID order, so concurrent batches always acquire
+     * their locks in the same order and cannot deadlock against each other.
      */
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity <= p.lowStockThreshold")
-    List<Product> findLowStockProducts();
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdWithLock(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Remove stock with a single guarded UPDATE.
+     * Returns 0 when the product does not exist or does not hold enough unreserved stock.
+     * The low-stock flag is assigned first so every database computes it from the old quantity.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET " +
+           "p.lowStockFlag = CASE WHEN p.stockQuantity - :quantity <= p.lowStockThreshold THEN true ELSE false END, " +
+           "p.stockQuantity = p.stockQuantity - :quantity, " +
+           "p.version = p.version + 1, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.stockQuantity - p.reservedQuantity >= :quantity")
+    int removeStockIfAvailable(@Param("id") Long id,
+                               @Param("quantity") int quantity,
+                               @Param("now") LocalDateTime now);
+    
+    /**
+     * Add stock with a single guarded UPDATE that refuses to overflow.
+     * Returns 0 when the product does not exist or the addition would overflow.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET " +
+           "p.lowStockFlag = CASE WHEN p.stockQuantity + :quantity <= p.lowStockThreshold THEN true ELSE false END, " +
+           "p.stockQuantity = p.stockQuantity + :quantity, " +
+           "p.version = p.version + 1, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.stockQuantity <= :maxCurrent")
+    int addStockIfWithinLimit(@Param("id") Long id,
+                              @Param("quantity") int quantity,
+                              @Param("maxCurrent") int maxCurrent,
+                              @Param("now") LocalDateTime now);
+    
+    /**
+     * Read only the unreserved stock of a product, without loading the entity
+     */
+    @Query("SELECT p.stockQuantity - p.reservedQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findAvailableQuantityById(@Param("id") Long id);
+    
+    /**
+     * Find all products that are below their low stock threshold, served by the low_stock index
+     */
+    @Query(PRODUCT_VIEW + LOW_STOCK)
+    List<ProductViewDTO> findLowStockProducts();
+    
+    /**
+     * Keyset page of the low stock products with an ID greater than the cursor
+     */
+    @Query(PRODUCT_VIEW + LOW_STOCK_AFTER)
+    List<ProductViewDTO> findLowStockProductsAfter(@Param("after") Long after, Pageable pageable);
+    
+    /**
+     * Keyset page of all products with an ID greater than the cursor
+     */
+    @Query(PRODUCT_VIEW + PAGE_AFTER)
+    List<ProductViewDTO> findPageAfter(@Param("after") Long after, Pageable pageable);
     
     /**
      * Find products by name (case-insensitive partial match)
@@ -38,25 +158,64 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByNameContainingIgnoreCase(String name);
     
     /**
-     * Check if a product exists by name
+     * Check if a product uses the normalized name, served by the unique normalized_name index
+     */
+    boolean existsByNormalizedName(String normalizedName);
+    
+    /**
+     * Keyset page of the products with a stock quantity between min and max (inclusive) and an ID
+     * greater than the cursor; the range is served by the stock_quantity index
      */
-    boolean existsByNameIgnoreCase(String name);
+    @Query(PRODUCT_VIEW + STOCK_RANGE_AFTER)
+    List<ProductViewDTO> findByStockQuantityBetweenAfter(@Param("min") int min,
+                                                         @Param("max") int max,
+                                                         @Param("after") Long after,
+                                                         Pageable pageable);
     
     /**
-     * Find products with stock quantity between min and max
+     * Number of products at each distinct stock quantity, in ascending quantity order.
+     * Grouped on the stock_quantity index, so no product row is read.
      */
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity BETWEEN :min AND :max")
-    List<Product> findByStockQuantityBetween(@Param("min") Integer min, @Param("max") Integer max);
+    @Query("SELECT p.stockQuantity AS stockQuantity, COUNT(p) AS productCount FROM Product p " +
+           "GROUP BY p.stockQuantity ORDER BY p.stockQuantity")
+    List<StockLevelCount> countByStockQuantity();
     
     /**
-     * Get total value of all stock
+     * Catalog-wide stock totals in one scan, only used to reconcile the maintained inventory statistics
      */
-    @Query("SELECT SUM(p.stockQuantity) FROM Product p")
-    Long getTotalStockQuantity();
+    @Query("SELECT COUNT(p) AS productCount, SUM(p.stockQuantity) AS totalUnits, " +
+           "SUM(CASE WHEN p.stockQuantity <= p.lowStockThreshold THEN 1 ELSE 0 END) AS lowStockCount, " +
+           "SUM(CASE WHEN p.stockQuantity = 0 THEN 1 ELSE 0 END) AS outOfStockCount FROM Product p")
+    InventoryTotals getInventoryTotals();
     
     /**
      * Find out of stock products
      */
     @Query("SELECT p FROM Product p WHERE p.stockQuantity = 0")
     List<Product> findOutOfStockProducts();
-}
\ No newline at end of file
+    
+    interface ProductVersion {
+        Long getVersion();
+        
+        Integer getAvailableQuantity();
+    }
+    
+    interface StockLevelCount {
+        Integer getStockQuantity();
+        
+        Long getProductCount();
+    }
+    
+    /**
+     * Sums are null while the table is empty
+     */
+    interface InventoryTotals {
+        Long getProductCount();
+        
+        Long getTotalUnits();
+        
+        Long getLowStockCount();
+        
+        Long getOutOfStockCount();
+    }
+}
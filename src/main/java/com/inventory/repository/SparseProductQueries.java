@@ -0,0 +1,24 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductFields;
+import com.inventory.dto.ProductViewDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product reads that select only the columns a set of fields needs
+ */
+public interface SparseProductQueries {
+    
+    /**
+     * Read-only views of the products matching a condition on {@code p}, such as one of the
+     * conditions shared with {@link ProductRepository}. Only the ID and the columns the fields
+     * need are selected; every other component of the views is null.
+     *
+     * @param condition  JPQL WHERE and ORDER BY clauses, or an empty string for all products
+     * @param maxResults maximum number of products, or 0 for all of them
+     */
+    List<ProductViewDTO> findSparseViews(ProductFields fields, String condition, Map<String, ?> parameters,
+                                         int maxResults);
+}
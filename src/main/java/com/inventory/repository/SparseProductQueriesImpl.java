@@ -0,0 +1,74 @@
+package com.inventory.repository;
+
+import com.inventory.dto.ProductField;
+import com.inventory.dto.ProductFields;
+import com.inventory.dto.ProductViewDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the select list from the requested fields and runs it as a tuple query, so unrequested
+ * columns, above all the long descriptions, are never read or transferred
+ */
+class SparseProductQueriesImpl implements SparseProductQueries {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ProductViewDTO> findSparseViews(ProductFields fields, String condition, Map<String, ?> parameters,
+                                                int maxResults) {
+        TypedQuery<Tuple> query = entityManager.createQuery(
+            selectList(fields) + " FROM Product p " + condition, Tuple.class);
+        parameters.forEach(query::setParameter);
+        if (maxResults > 0) {
+            query.setMaxResults(maxResults);
+        }
+        return query.getResultList().stream()
+            .map(row -> toView(fields, row))
+            .toList();
+    }
+    
+    static String selectList(ProductFields fields) {
+        StringBuilder select = new StringBuilder("SELECT p.id AS id");
+        if (fields.contains(ProductField.NAME)) {
+            select.append(", p.name AS name");
+        }
+        if (fields.contains(ProductField.DESCRIPTION)) {
+            select.append(", p.description AS description");
+        }
+        if (fields.includesStock()) {
+            select.append(", p.stockQuantity AS stockQuantity, p.reservedQuantity AS reservedQuantity, ")
+                .append("p.lowStockThreshold AS lowStockThreshold, ")
+                .append("CASE WHEN p.stockQuantity <= p.lowStockThreshold THEN true ELSE false END AS lowStock");
+        }
+        if (fields.contains(ProductField.CREATED_AT)) {
+            select.append(", p.createdAt AS createdAt");
+        }
+        if (fields.contains(ProductField.UPDATED_AT)) {
+            select.append(", p.updatedAt AS updatedAt");
+        }
+        return select.toString();
+    }
+    
+    private static ProductViewDTO toView(ProductFields fields, Tuple row) {
+        boolean stock = fields.includesStock();
+        return new ProductViewDTO(
+            row.get("id", Long.class),
+            fields.contains(ProductField.NAME) ? row.get("name", String.class) : null,
+            fields.contains(ProductField.DESCRIPTION) ? row.get("description", String.class) : null,
+            stock ? row.get("stockQuantity", Integer.class) : null,
+            stock ? row.get("reservedQuantity", Integer.class) : null,
+            stock ? row.get("lowStockThreshold", Integer.class) : null,
+            stock ? row.get("lowStock", Boolean.class) : null,
+            fields.contains(ProductField.CREATED_AT) ? row.get("createdAt", LocalDateTime.class) : null,
+            fields.contains(ProductField.UPDATED_AT) ? row.get("updatedAt", LocalDateTime.class) : null,
+            null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.inventory.repository;
+
+import com.inventory.entity.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for StockMovement entity.
+ * Movements are inserted in JDBC batches by {@link com.inventory.stock.StockLedger}.
+ */
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+    
+    /**
+     * Keyset page of the ledger of one product, oldest first
+     */
+    @Query("SELECT m FROM StockMovement m WHERE m.productId = :productId AND m.id > :after ORDER BY m.id")
+    List<StockMovement> findPage(@Param("productId") Long productId,
+                                 @Param("after") Long after,
+                                 Pageable pageable);
+    
+    /**
+     * Highest movement ID recorded before the given time, i.e. the compaction boundary
+     */
+    @Query("SELECT MAX(m.id) FROM StockMovement m WHERE m.createdAt < :before")
+    Long findLastIdBefore(@Param("before") LocalDateTime before);
+    
+    @Query("SELECT MIN(m.id) FROM StockMovement m")
+    Long findFirstId();
+    
+    /**
+     * Latest movement ID and movement count of every product in an ID range
+     */
+    @Query("SELECT m.productId AS productId, MAX(m.id) AS lastMovementId, COUNT(m) AS movementCount " +
+           "FROM StockMovement m WHERE m.id > :fromId AND m.id <= :toId GROUP BY m.productId")
+    List<CompactionRange> findCompactionRanges(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    interface CompactionRange {
+        Long getProductId();
+        
+        Long getLastMovementId();
+        
+        Long getMovementCount();
+    }
+}
@@ -0,0 +1,50 @@
+package com.inventory.repository;
+
+import com.inventory.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for StockReservation entity
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    /**
+     * Resolve the product of a reservation without loading it, so the product row
+     * can be locked before the reservation itself is read
+     */
+    @Query("SELECT r.productId FROM StockReservation r WHERE r.id = :id")
+    Optional<Long> findProductIdById(@Param("id") Long id);
+    
+    /**
+     * Reservations in the given status with their deadlines, used to rebuild the expiry schedule on startup
+     */
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM StockReservation r WHERE r.status = :status")
+    List<PendingExpiry> findExpiriesByStatus(@Param("status") StockReservation.Status status);
+    
+    /**
+     * Move every reservation of a product from one status to another in a single UPDATE,
+     * e.g. to release the holds on a product that is being deleted
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to, r.resolvedAt = :now " +
+           "WHERE r.productId = :productId AND r.status = :from")
+    int resolveAllByProductId(@Param("productId") Long productId,
+                              @Param("from") StockReservation.Status from,
+                              @Param("to") StockReservation.Status to,
+                              @Param("now") LocalDateTime now);
+    
+    interface PendingExpiry {
+        Long getId();
+        
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,300 @@
+package com.inventory.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Compressed (radix) trie over normalized product names that answers "top N names starting
+ * with a prefix, by score".
+ * <p>
+ * Every edge carries a run of characters and every node is either the end of a name or a
+ * branch, so n names never need more than 2n nodes and memory grows with the characters
+ * that names do not share. Each node caches the best score below it; a query walks to the
+ * prefix and expands nodes best-first, so it touches only the branches that can still
+ * contribute to the top N instead of every name under the prefix. Not thread-safe; callers
+ * guard it with a lock.
+ */
+final class CompletionTrie {
+    
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+    
+    /**
+     * Higher score first; on equal scores, nodes are expanded before names are emitted,
+     * so names with equal scores come out in ID order
+     */
+    private static final Comparator<Candidate> RANKING = Comparator
+        .comparingInt(Candidate::score).reversed()
+        .thenComparing(candidate -> candidate.node() == null)
+        .thenComparingLong(Candidate::id);
+    
+    private final Node root = new Node(new char[0]);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    
+    record Completion(long id, String name, int score) {
+    }
+    
+    private record Entry(String key, String name, int score) {
+    }
+    
+    private record Candidate(int score, Node node, long id) {
+    }
+    
+    boolean isIndexed(long id, String name, int score) {
+        Entry entry = entries.get(id);
+        return entry != null && entry.name().equals(name) && entry.score() == score;
+    }
+    
+    void put(long id, String name, int score) {
+        String key = NameNormalizer.normalize(name);
+        Entry previous = entries.put(id, new Entry(key, name, score));
+        if (previous != null && previous.key().equals(key)) {
+            recomputeBest(path(key));
+            return;
+        }
+        if (previous != null) {
+            removeKey(id, previous.key());
+        }
+        insert(id, key);
+        recomputeBest(path(key));
+    }
+    
+    /**
+     * Change the score of an indexed name; unknown IDs are ignored
+     */
+    void updateScore(long id, int score) {
+        Entry entry = entries.get(id);
+        if (entry != null && entry.score() != score) {
+            entries.put(id, new Entry(entry.key(), entry.name(), score));
+            recomputeBest(path(entry.key()));
+        }
+    }
+    
+    void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            removeKey(id, entry.key());
+        }
+    }
+    
+    void clear() {
+        entries.clear();
+        root.children = NO_CHILDREN;
+        root.ids = NO_IDS;
+        root.best = Integer.MIN_VALUE;
+    }
+    
+    int size() {
+        return entries.size();
+    }
+    
+    /**
+     * The highest-scoring names that start with the prefix, at most {@code limit} of them
+     */
+    List<Completion> complete(String prefix, int limit) {
+        Node start = find(NameNormalizer.normalize(prefix));
+        if (start == null) {
+            return List.of();
+        }
+        List<Completion> completions = new ArrayList<>(Math.min(limit, entries.size()));
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(RANKING);
+        queue.add(new Candidate(start.best, start, 0));
+        while (!queue.isEmpty() && completions.size() < limit) {
+            Candidate next = queue.poll();
+            if (next.node() == null) {
+                completions.add(new Completion(next.id(), entries.get(next.id()).name(), next.score()));
+                continue;
+            }
+            for (long id : next.node().ids) {
+                queue.add(new Candidate(entries.get(id).score(), null, id));
+            }
+            for (Node child : next.node().children) {
+                queue.add(new Candidate(child.best, child, 0));
+            }
+        }
+        return completions;
+    }
+    
+    /**
+     * The node whose subtree holds exactly the names starting with the prefix
+     */
+    private Node find(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(position));
+            if (index < 0) {
+                return null;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, position);
+            if (position + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length) {
+                return null;
+            }
+            node = child;
+            position += common;
+        }
+        return node;
+    }
+    
+    private void insert(long id, String key) {
+        Node node = root;
+        int position = 0;
+        while (position < key.length()) {
+            int index = childIndex(node, key.charAt(position));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(position).toCharArray());
+                leaf.ids = new long[] {id};
+                node.children = insertAt(node.children, -index - 1, leaf);
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, position);
+            if (common < child.label.length) {
+                Node branch = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                branch.children = new Node[] {child};
+                node.children[index] = branch;
+                child = branch;
+            }
+            node = child;
+            position += common;
+        }
+        node.ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+        node.ids[node.ids.length - 1] = id;
+    }
+    
+    private void removeKey(long id, String key) {
+        List<Node> path = path(key);
+        Node end = path.get(path.size() - 1);
+        end.ids = Arrays.stream(end.ids).filter(indexed -> indexed != id).toArray();
+        
+        // Drop nodes that no longer lead to a name and fold single-child branches into their child
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.ids.length > 0) {
+                break;
+            }
+            if (node.children.length == 0) {
+                Node parent = path.get(i - 1);
+                parent.children = removeAt(parent.children, childIndex(parent, node.label[0]));
+                continue;
+            }
+            if (node.children.length == 1) {
+                Node child = node.children[0];
+                char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+                System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+                node.label = label;
+                node.children = child.children;
+                node.ids = child.ids;
+                node.best = child.best;
+            }
+            break;
+        }
+        recomputeBest(path);
+    }
+    
+    /**
+     * The nodes from the root down to the end of the key, or as far as the key is present
+     */
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < key.length()) {
+            int index = childIndex(node, key.charAt(position));
+            if (index < 0) {
+                break;
+            }
+            Node child = node.children[index];
+            if (commonPrefix(child.label, key, position) < child.label.length) {
+                break;
+            }
+            node = child;
+            path.add(node);
+            position += child.label.length;
+        }
+        return path;
+    }
+    
+    private void recomputeBest(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            int best = Integer.MIN_VALUE;
+            for (long id : node.ids) {
+                best = Math.max(best, entries.get(id).score());
+            }
+            for (Node child : node.children) {
+                best = Math.max(best, child.best);
+            }
+            node.best = best;
+        }
+    }
+    
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char candidate = node.children[middle].label[0];
+            if (candidate < first) {
+                low = middle + 1;
+            } else if (candidate > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int length = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < length && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static Node[] insertAt(Node[] children, int index, Node child) {
+        Node[] grown = new Node[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, index);
+        grown[index] = child;
+        System.arraycopy(children, index, grown, index + 1, children.length - index);
+        return grown;
+    }
+    
+    private static Node[] removeAt(Node[] children, int index) {
+        if (children.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] shrunk = new Node[children.length - 1];
+        System.arraycopy(children, 0, shrunk, 0, index);
+        System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+        return shrunk;
+    }
+    
+    private static final class Node {
+        char[] label;
+        Node[] children = NO_CHILDREN;
+        long[] ids = NO_IDS;
+        /**
+         * Highest score of any name in this subtree
+         */
+        int best = Integer.MIN_VALUE;
+        
+        Node(char[] label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.inventory.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of product names for lookups: accents stripped, lower-cased and with runs
+ * of whitespace collapsed, so "  Café  Crème" and "cafe creme" compare equal
+ */
+public final class NameNormalizer {
+    
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    
+    private NameNormalizer() {
+    }
+    
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        String stripped = MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+}
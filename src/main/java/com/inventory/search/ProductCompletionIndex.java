@@ -0,0 +1,123 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductSuggestionDTO;
+import com.inventory.dto.ProductViewDTO;
+import com.inventory.event.StockLevelChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix autocomplete over product names, ranked by stock quantity so products that can
+ * actually be ordered are suggested first.
+ * <p>
+ * Names come from the {@link ProductIndexer}. Stock levels also change through bulk UPDATEs
+ * that the indexer never sees, so the rank follows the committed {@link StockLevelChangedEvent}s too.
+ * Stock movements only note the new level in a concurrent map and never wait for the trie's lock;
+ * the noted levels are applied by the next completion that finds the trie idle, or by the next
+ * name change, whichever comes first.
+ */
+@Component
+public class ProductCompletionIndex implements ProductIndex {
+    
+    private final CompletionTrie trie = new CompletionTrie();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Latest stock level per product not yet applied to the trie
+     */
+    private final Map<Long, Integer> pendingScores = new ConcurrentHashMap<>();
+    
+    public List<ProductSuggestionDTO> complete(String prefix, int limit) {
+        if (!pendingScores.isEmpty() && lock.writeLock().tryLock()) {
+            try {
+                applyPendingScores();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        List<CompletionTrie.Completion> completions;
+        lock.readLock().lock();
+        try {
+            completions = trie.complete(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return completions.stream()
+            .map(completion -> new ProductSuggestionDTO(completion.id(), completion.name(), completion.score()))
+            .toList();
+    }
+    
+    @Override
+    public void index(ProductViewDTO product) {
+        int score = product.stockQuantity();
+        lock.readLock().lock();
+        try {
+            if (trie.isIndexed(product.id(), product.name(), score)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            // Earlier stock levels go first, so they cannot overwrite the score indexed here
+            applyPendingScores();
+            trie.put(product.id(), product.name(), score);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        pendingScores.put(event.productId(), event.stockQuantity());
+    }
+    
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            applyPendingScores();
+            trie.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            pendingScores.clear();
+            trie.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Callers must hold the write lock; a level noted meanwhile stays pending for the next call
+     */
+    private void applyPendingScores() {
+        for (Long productId : pendingScores.keySet()) {
+            Integer score = pendingScores.remove(productId);
+            if (score != null) {
+                trie.updateScore(productId, score);
+            }
+        }
+    }
+}
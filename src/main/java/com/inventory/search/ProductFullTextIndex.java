@@ -0,0 +1,298 @@
+package com.inventory.search;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductViewDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.NullFragmenter;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleHTMLEncoder;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text index over product names and descriptions, ranked with Lucene's BM25 scoring.
+ * <p>
+ * Changes from the {@link ProductIndexer} only land in a pending map keyed by product, so the
+ * write path never touches Lucene and several changes to one product collapse into one document
+ * update. A dedicated thread writes the pending changes and reopens the searcher every refresh
+ * interval (near-real-time search), and commits to the directory on its own, longer interval.
+ * Changes that only move stock are skipped, since neither indexed field changed.
+ */
+@Component
+@Slf4j
+public class ProductFullTextIndex implements ProductIndex {
+    
+    /**
+     * Deepest hit a query may page to, bounding the hits Lucene has to collect and rank
+     */
+    public static final int MAX_RESULT_WINDOW = 10_000;
+    
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(NAME, 2.0f, DESCRIPTION, 1.0f);
+    
+    private final InventoryProperties.FullText settings;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    
+    /**
+     * Latest state of each changed product, or null for a deleted one, waiting to be written
+     */
+    private Map<Long, ProductViewDTO> pending = new LinkedHashMap<>();
+    private boolean cleared;
+    private final Object queueLock = new Object();
+    private final Object writeLock = new Object();
+    /**
+     * Fingerprint of the indexed name and description of each product
+     */
+    private final Map<Long, Long> fingerprints = new ConcurrentHashMap<>();
+    
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-full-text-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+    
+    public ProductFullTextIndex(InventoryProperties inventoryProperties) {
+        this.settings = inventoryProperties.getFullText();
+        try {
+            this.directory = settings.getDirectory().isBlank()
+                ? new ByteBuffersDirectory()
+                : FSDirectory.open(Path.of(settings.getDirectory()));
+            // The database is the source of truth; the index is rebuilt from it at startup
+            IndexWriterConfig config = new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+            this.writer = new IndexWriter(directory, config);
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open full-text index in '" + settings.getDirectory() + "'", ex);
+        }
+    }
+    
+    @PostConstruct
+    public void start() {
+        executor.execute(this::run);
+    }
+    
+    @Override
+    public void index(ProductViewDTO product) {
+        long fingerprint = fingerprint(product.name(), product.description());
+        Long previous = fingerprints.put(product.id(), fingerprint);
+        if (previous == null || previous != fingerprint) {
+            enqueue(product.id(), product);
+        }
+    }
+    
+    @Override
+    public void remove(Long productId) {
+        fingerprints.remove(productId);
+        enqueue(productId, null);
+    }
+    
+    @Override
+    public void clear() {
+        synchronized (queueLock) {
+            fingerprints.clear();
+            pending = new LinkedHashMap<>();
+            cleared = true;
+        }
+    }
+    
+    /**
+     * One page of the products matching the query, best match first.
+     * The query accepts quoted phrases, + and - operators and trailing * wildcards.
+     */
+    public Result search(String text, int offset, int size) {
+        if ((long) offset + size > MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Full-text results are limited to the first " + MAX_RESULT_WINDOW + " hits");
+        }
+        Query query = text == null ? null : new SimpleQueryParser(analyzer, FIELD_WEIGHTS).parse(text);
+        if (query == null) {
+            return new Result(0, List.of());
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] top = searcher.search(query, offset + size).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                Highlighter nameHighlighter = highlighter(query, NAME);
+                nameHighlighter.setTextFragmenter(new NullFragmenter());
+                Highlighter descriptionHighlighter = highlighter(query, DESCRIPTION);
+                
+                List<Hit> hits = new ArrayList<>(Math.max(0, top.length - offset));
+                for (int i = offset; i < top.length; i++) {
+                    Document document = storedFields.document(top[i].doc);
+                    hits.add(new Hit(Long.valueOf(document.get(ID)), top[i].score,
+                        highlight(nameHighlighter, NAME, document.get(NAME)),
+                        highlight(descriptionHighlighter, DESCRIPTION, document.get(DESCRIPTION))));
+                }
+                return new Result(searcher.count(query), hits);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /**
+     * Write the pending changes and make them visible to searches now instead of at the next refresh
+     */
+    public void refresh() throws IOException {
+        synchronized (writeLock) {
+            Map<Long, ProductViewDTO> batch;
+            boolean deleteAll;
+            synchronized (queueLock) {
+                batch = pending;
+                deleteAll = cleared;
+                pending = new LinkedHashMap<>();
+                cleared = false;
+            }
+            if (batch.isEmpty() && !deleteAll) {
+                return;
+            }
+            if (deleteAll) {
+                writer.deleteAll();
+            }
+            for (Map.Entry<Long, ProductViewDTO> change : batch.entrySet()) {
+                Term id = new Term(ID, change.getKey().toString());
+                if (change.getValue() == null) {
+                    writer.deleteDocuments(id);
+                } else {
+                    writer.updateDocument(id, document(change.getValue()));
+                }
+            }
+            searcherManager.maybeRefresh();
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        refresh();
+        writer.commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+    
+    private void enqueue(Long productId, ProductViewDTO product) {
+        synchronized (queueLock) {
+            pending.put(productId, product);
+        }
+    }
+    
+    private void run() {
+        long lastCommit = System.nanoTime();
+        while (running) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(settings.getRefreshIntervalMs());
+                refresh();
+                if (System.nanoTime() - lastCommit >= TimeUnit.MILLISECONDS.toNanos(settings.getCommitIntervalMs())) {
+                    if (writer.hasUncommittedChanges()) {
+                        writer.commit();
+                    }
+                    lastCommit = System.nanoTime();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException ex) {
+                log.error("Failed to update the full-text index", ex);
+            }
+        }
+    }
+    
+    private Highlighter highlighter(Query query, String field) {
+        return new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"), new SimpleHTMLEncoder(),
+            new QueryScorer(query, field));
+    }
+    
+    /**
+     * The best fragment of the field with the matched terms wrapped in &lt;em&gt;, HTML-escaped;
+     * null when the field did not match
+     */
+    private String highlight(Highlighter highlighter, String field, String text) throws IOException {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return highlighter.getBestFragment(analyzer, field, text);
+        } catch (InvalidTokenOffsetsException ex) {
+            return null;
+        }
+    }
+    
+    private static Document document(ProductViewDTO product) {
+        Document document = new Document();
+        document.add(new StringField(ID, product.id().toString(), Field.Store.YES));
+        document.add(new TextField(NAME, product.name(), Field.Store.YES));
+        if (product.description() != null) {
+            document.add(new TextField(DESCRIPTION, product.description(), Field.Store.YES));
+        }
+        return document;
+    }
+    
+    /**
+     * 64-bit FNV-1a hash of name and description, to tell content changes from stock-only updates
+     */
+    private static long fingerprint(String name, String description) {
+        long hash = 0xcbf29ce484222325L;
+        String content = name + '\u0000' + (description != null ? description : "\u0001");
+        for (int i = 0; i < content.length(); i++) {
+            hash = (hash ^ content.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * @param nameHighlight       name with the matched terms in &lt;em&gt;, or null when it did not match
+     * @param descriptionHighlight best matching description fragment, or null
+     */
+    public record Hit(Long productId, float score, String nameHighlight, String descriptionHighlight) {
+    }
+    
+    public record Result(long totalHits, List<Hit> hits) {
+    }
+}
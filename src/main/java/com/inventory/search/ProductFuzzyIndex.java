@@ -0,0 +1,71 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductViewDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant product name lookup backed by a {@link SymSpellIndex}
+ */
+@Component
+public class ProductFuzzyIndex implements ProductIndex {
+    
+    private final SymSpellIndex index = new SymSpellIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * IDs of the products whose name has a close match for every word of the text,
+     * smallest total edit distance first
+     */
+    public List<Long> search(String text, int limit) {
+        List<SymSpellIndex.Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = index.search(text, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.stream().map(SymSpellIndex.Match::id).toList();
+    }
+    
+    @Override
+    public void index(ProductViewDTO product) {
+        lock.readLock().lock();
+        try {
+            if (index.isIndexed(product.id(), product.name())) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            index.put(product.id(), product.name());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
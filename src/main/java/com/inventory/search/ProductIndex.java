@@ -0,0 +1,21 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductViewDTO;
+
+/**
+ * In-memory search structure over products, kept in sync by {@link ProductIndexer}
+ */
+public interface ProductIndex {
+    
+    /**
+     * Add a product or replace its previous entry
+     */
+    void index(ProductViewDTO product);
+    
+    void remove(Long productId);
+    
+    /**
+     * Drop every entry before the index is rebuilt from the database
+     */
+    void clear();
+}
@@ -0,0 +1,33 @@
+package com.inventory.search;
+
+import com.inventory.entity.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener that forwards product writes to the {@link ProductIndexer}.
+ * Hibernate creates it through Spring; the indexer is looked up lazily because it depends on
+ * the repositories, which are built on the entity manager factory that creates this listener.
+ * In contexts without an indexer, such as JPA slice tests, writes are not forwarded.
+ */
+public class ProductIndexListener {
+    
+    private final ObjectProvider<ProductIndexer> indexer;
+    
+    public ProductIndexListener(ObjectProvider<ProductIndexer> indexer) {
+        this.indexer = indexer;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    void indexed(Product product) {
+        indexer.ifAvailable(productIndexer -> productIndexer.indexed(product));
+    }
+    
+    @PostRemove
+    void removed(Product product) {
+        indexer.ifAvailable(productIndexer -> productIndexer.removed(product.getId()));
+    }
+}
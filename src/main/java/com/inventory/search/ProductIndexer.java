@@ -0,0 +1,108 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductViewDTO;
+import com.inventory.entity.Product;
+import com.inventory.replica.ReadConsistency;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every {@link ProductIndex} in step with the products table.
+ * <p>
+ * Entity changes arrive through {@link ProductIndexListener} as soon as Hibernate writes them,
+ * so a transaction can search for the products it just saved. If that transaction rolls back,
+ * the touched products are re-read from the database and indexed again. Bulk stock UPDATEs
+ * bypass the listener; they never change a name, so name-based indexes are unaffected.
+ * The indexes are rebuilt from the database once the application has started. Both rebuilds and
+ * resyncs read from the primary, since a lagging replica would leave stale entries behind.
+ */
+@Component
+@Slf4j
+public class ProductIndexer {
+    
+    private final List<ProductIndex> indexes;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    public ProductIndexer(List<ProductIndex> indexes,
+                          ProductRepository productRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.indexes = indexes;
+        this.productRepository = productRepository;
+        // Resyncs run while the rolled-back transaction is still bound, so they need their own
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+    
+    /**
+     * A product was inserted or updated
+     */
+    public void indexed(Product product) {
+        index(ProductViewDTO.of(product));
+        resyncOnRollback(product.getId());
+    }
+    
+    /**
+     * A product was deleted
+     */
+    public void removed(Long productId) {
+        indexes.forEach(index -> index.remove(productId));
+        resyncOnRollback(productId);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        indexes.forEach(ProductIndex::clear);
+        ReadConsistency.onPrimary(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProductViewDTO> products = productRepository.streamAllViews()) {
+                products.forEach(this::index);
+            }
+        }));
+        log.info("Rebuilt {} product indexes in {} ms", indexes.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    /**
+     * Replace the indexed state of a product with its committed state
+     */
+    void resync(Long productId) {
+        Optional<ProductViewDTO> product = ReadConsistency.onPrimary(
+            () -> transactionTemplate.execute(status -> productRepository.findViewById(productId)));
+        if (product != null && product.isPresent()) {
+            index(product.get());
+        } else {
+            indexes.forEach(index -> index.remove(productId));
+        }
+    }
+    
+    private void index(ProductViewDTO product) {
+        indexes.forEach(index -> index.index(product));
+    }
+    
+    private void resyncOnRollback(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    resync(productId);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory.search;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductViewDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the normalized names of all products, used to skip the duplicate-name
+ * query when a name is certainly new.
+ * <p>
+ * A negative answer is definite; a positive one only means the name may be taken and has to be
+ * confirmed against the database. Names of deleted or renamed products cannot be taken out of
+ * the filter and only cost an extra query until the next rebuild. The unique index on
+ * {@code products.normalized_name} stays the authority, so a stale filter never lets a
+ * duplicate through. Bits are set with atomic operations, so the filter needs no lock.
+ */
+@Component
+public class ProductNameFilter implements ProductIndex {
+    
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    
+    public ProductNameFilter(InventoryProperties inventoryProperties) {
+        InventoryProperties.NameFilter settings = inventoryProperties.getNameFilter();
+        long expected = Math.max(1, settings.getExpectedNames());
+        double rate = settings.getFalsePositiveRate();
+        // Optimal size and hash count for the expected names and false positive rate
+        long optimalBits = (long) Math.ceil(-expected * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) optimalBits / expected * Math.log(2)));
+    }
+    
+    /**
+     * Whether a product may already use the name; false means it is certainly unused
+     */
+    public boolean mightContain(String name) {
+        long hash = hash(NameNormalizer.normalize(name));
+        long step = step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public void add(String name) {
+        long hash = hash(NameNormalizer.normalize(name));
+        long step = step(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * step, bitCount);
+            long mask = 1L << bit;
+            bits.getAndUpdate((int) (bit >>> 6), word -> word | mask);
+        }
+    }
+    
+    @Override
+    public void index(ProductViewDTO product) {
+        // Most updates only move stock; skip the atomic writes when the bits are already set
+        if (!mightContain(product.name())) {
+            add(product.name());
+        }
+    }
+    
+    @Override
+    public void remove(Long productId) {
+        // Bloom filters cannot forget; the name only costs a query until the next rebuild
+    }
+    
+    @Override
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0);
+        }
+    }
+    
+    /**
+     * 64-bit FNV-1a hash
+     */
+    private static long hash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * Second hash for double hashing, derived with the SplitMix64 finalizer; odd so it never stalls
+     */
+    private static long step(long hash) {
+        long mixed = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94d049bb133111ebL;
+        return (mixed ^ (mixed >>> 31)) | 1;
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventory.search;
+
+import com.inventory.dto.ProductViewDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Substring search over product names, answered from a {@link TrigramIndex} instead of a
+ * {@code LIKE %text%} scan of the products table
+ */
+@Component
+public class ProductNameIndex implements ProductIndex {
+    
+    private final TrigramIndex index = new TrigramIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /**
+     * IDs of the products whose name contains the text, ignoring case, in ascending order
+     */
+    public List<Long> search(String text, int limit) {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = index.search(text, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Arrays.stream(ids).boxed().toList();
+    }
+    
+    @Override
+    public void index(ProductViewDTO product) {
+        // Most updates only move stock; they should not compete with searches for the write lock
+        lock.readLock().lock();
+        try {
+            if (index.isIndexed(product.id(), product.name())) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            index.put(product.id(), product.name());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.inventory.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Typo-tolerant word index over product names, using the SymSpell symmetric delete algorithm.
+ * <p>
+ * Every distinct word is stored under all the strings obtained by deleting up to
+ * {@link #MAX_DISTANCE} of its characters. Two words within that edit distance always share
+ * one of those delete variants, so a lookup generates the variants of the query word, collects
+ * the dictionary words stored under them and only computes the exact distance for those few
+ * candidates, never for the whole dictionary. Distances count insertions, deletions,
+ * substitutions and swaps of adjacent characters. Not thread-safe; callers guard it with a lock.
+ */
+final class SymSpellIndex {
+    
+    static final int MAX_DISTANCE = 2;
+    
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String[] NO_WORDS = new String[0];
+    
+    /**
+     * Delete variant to the dictionary words it was derived from
+     */
+    private final Map<String, List<String>> variants = new HashMap<>();
+    /**
+     * Dictionary word to the sorted IDs of the products whose name contains it
+     */
+    private final Map<String, long[]> postings = new HashMap<>();
+    private final Map<Long, String[]> productWords = new HashMap<>();
+    
+    /**
+     * @param distance sum over the query words of the distance to the closest word of the name
+     */
+    record Match(long id, int distance) {
+    }
+    
+    /**
+     * Typos allowed in a query word of the given length: none below three characters,
+     * where almost every word would match, one up to five characters and two beyond
+     */
+    static int allowedDistance(int length) {
+        return length < 3 ? 0 : length < 6 ? 1 : MAX_DISTANCE;
+    }
+    
+    static String[] words(String text) {
+        String normalized = NameNormalizer.normalize(text);
+        if (normalized.isEmpty()) {
+            return NO_WORDS;
+        }
+        return Arrays.stream(WORD_SEPARATORS.split(normalized))
+            .filter(word -> !word.isEmpty())
+            .distinct()
+            .toArray(String[]::new);
+    }
+    
+    boolean isIndexed(long id, String name) {
+        return Arrays.equals(productWords.get(id), words(name));
+    }
+    
+    void put(long id, String name) {
+        remove(id);
+        String[] words = words(name);
+        productWords.put(id, words);
+        for (String word : words) {
+            long[] ids = postings.get(word);
+            if (ids == null) {
+                postings.put(word, new long[] {id});
+                for (String variant : deleteVariants(word, MAX_DISTANCE)) {
+                    variants.computeIfAbsent(variant, key -> new ArrayList<>(1)).add(word);
+                }
+            } else {
+                int position = -Arrays.binarySearch(ids, id) - 1;
+                long[] grown = new long[ids.length + 1];
+                System.arraycopy(ids, 0, grown, 0, position);
+                grown[position] = id;
+                System.arraycopy(ids, position, grown, position + 1, ids.length - position);
+                postings.put(word, grown);
+            }
+        }
+    }
+    
+    void remove(long id) {
+        String[] words = productWords.remove(id);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            long[] ids = postings.get(word);
+            if (ids.length > 1) {
+                postings.put(word, Arrays.stream(ids).filter(indexed -> indexed != id).toArray());
+                continue;
+            }
+            // Last product using the word: drop it from the dictionary
+            postings.remove(word);
+            for (String variant : deleteVariants(word, MAX_DISTANCE)) {
+                List<String> remaining = variants.get(variant);
+                remaining.remove(word);
+                if (remaining.isEmpty()) {
+                    variants.remove(variant);
+                }
+            }
+        }
+    }
+    
+    void clear() {
+        variants.clear();
+        postings.clear();
+        productWords.clear();
+    }
+    
+    int size() {
+        return productWords.size();
+    }
+    
+    int dictionarySize() {
+        return postings.size();
+    }
+    
+    /**
+     * Products whose name has a close match for every word of the text, closest first,
+     * ties in ID order
+     */
+    List<Match> search(String text, int limit) {
+        String[] terms = words(text);
+        if (terms.length == 0) {
+            return List.of();
+        }
+        List<Map<String, Integer>> similar = Arrays.stream(terms).map(this::similarWords).toList();
+        if (terms.length == 1) {
+            return closest(similar.get(0), limit);
+        }
+        
+        // Only the postings of the term with the fewest are walked; the other terms are checked
+        // against the words of each candidate, so common words never cost a walk of their postings
+        int driver = 0;
+        for (int i = 1; i < similar.size(); i++) {
+            if (postingCount(similar.get(i)) < postingCount(similar.get(driver))) {
+                driver = i;
+            }
+        }
+        Map<Long, Integer> candidates = new HashMap<>();
+        similar.get(driver).forEach((word, distance) -> {
+            for (long id : postings.get(word)) {
+                candidates.merge(id, distance, Math::min);
+            }
+        });
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<Long, Integer> candidate : candidates.entrySet()) {
+            String[] words = productWords.get(candidate.getKey());
+            int total = candidate.getValue();
+            for (int i = 0; i < similar.size() && total >= 0; i++) {
+                if (i != driver) {
+                    int distance = closestWord(words, similar.get(i));
+                    total = distance < 0 ? -1 : total + distance;
+                }
+            }
+            if (total >= 0) {
+                matches.add(new Match(candidate.getKey(), total));
+            }
+        }
+        return matches.stream()
+            .sorted(Comparator.comparingInt(Match::distance).thenComparingLong(Match::id))
+            .limit(limit)
+            .toList();
+    }
+    
+    /**
+     * Products with a word close to a single term. The words are taken closest first and their
+     * sorted postings merged in ID order, so the walk stops as soon as {@code limit} products are found.
+     */
+    private List<Match> closest(Map<String, Integer> similar, int limit) {
+        List<Match> matches = new ArrayList<>(Math.min(limit, productWords.size()));
+        Set<Long> found = new HashSet<>();
+        for (int distance = 0; distance <= MAX_DISTANCE && matches.size() < limit; distance++) {
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingLong(Cursor::current));
+            for (Map.Entry<String, Integer> word : similar.entrySet()) {
+                if (word.getValue() == distance) {
+                    cursors.add(new Cursor(postings.get(word.getKey()), 0));
+                }
+            }
+            while (!cursors.isEmpty() && matches.size() < limit) {
+                Cursor cursor = cursors.poll();
+                if (found.add(cursor.current())) {
+                    matches.add(new Match(cursor.current(), distance));
+                }
+                if (cursor.position() + 1 < cursor.ids().length) {
+                    cursors.add(new Cursor(cursor.ids(), cursor.position() + 1));
+                }
+            }
+        }
+        return matches;
+    }
+    
+    private int postingCount(Map<String, Integer> similar) {
+        int count = 0;
+        for (String word : similar.keySet()) {
+            count += postings.get(word).length;
+        }
+        return count;
+    }
+    
+    /**
+     * Distance of the closest of the words among the similar ones, or -1 when none of them is similar
+     */
+    private static int closestWord(String[] words, Map<String, Integer> similar) {
+        int closest = -1;
+        for (String word : words) {
+            Integer distance = similar.get(word);
+            if (distance != null && (closest < 0 || distance < closest)) {
+                closest = distance;
+            }
+        }
+        return closest;
+    }
+    
+    /**
+     * Position in the sorted postings of one word
+     */
+    private record Cursor(long[] ids, int position) {
+        
+        long current() {
+            return ids[position];
+        }
+    }
+    
+    /**
+     * Dictionary words within the allowed distance of the term, with their distance
+     */
+    private Map<String, Integer> similarWords(String term) {
+        int allowed = allowedDistance(term.length());
+        Map<String, Integer> similar = new HashMap<>();
+        Set<String> checked = new HashSet<>();
+        for (String variant : deleteVariants(term, allowed)) {
+            for (String word : variants.getOrDefault(variant, List.of())) {
+                if (checked.add(word)) {
+                    int distance = distance(term, word, allowed);
+                    if (distance <= allowed) {
+                        similar.put(word, distance);
+                    }
+                }
+            }
+        }
+        return similar;
+    }
+    
+    /**
+     * The word itself and every string obtained by deleting up to {@code maxDeletes} of its characters
+     */
+    private static Set<String> deleteVariants(String word, int maxDeletes) {
+        Set<String> found = new LinkedHashSet<>();
+        found.add(word);
+        List<String> frontier = List.of(word);
+        for (int deletes = 0; deletes < maxDeletes; deletes++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                for (int i = 0; i < current.length(); i++) {
+                    String shorter = current.substring(0, i) + current.substring(i + 1);
+                    if (found.add(shorter)) {
+                        next.add(shorter);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return found;
+    }
+    
+    /**
+     * Optimal string alignment distance, or {@code max + 1} as soon as it must exceed {@code max}
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMinimum = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMinimum = Math.min(rowMinimum, d[i][j]);
+            }
+            if (rowMinimum > max) {
+                return max + 1;
+            }
+        }
+        return Math.min(d[a.length()][b.length()], max + 1);
+    }
+}
@@ -0,0 +1,183 @@
+package com.inventory.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from character trigrams to the IDs of the names that contain them.
+ * <p>
+ * A query of three or more characters intersects the posting lists of its trigrams, shortest
+ * first, and checks each surviving candidate against the stored name, so trigram false
+ * positives never reach the caller. Shorter queries have no trigram to look up and scan the
+ * stored names instead. Names are compared lower-cased, like {@code LOWER(name) LIKE %text%}.
+ * Not thread-safe; callers guard it with a lock.
+ */
+final class TrigramIndex {
+    
+    private static final long[] NONE = new long[0];
+    
+    private final Map<Long, String> names = new HashMap<>();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Whether the product is indexed under exactly this name
+     */
+    boolean isIndexed(long id, String name) {
+        return normalize(name).equals(names.get(id));
+    }
+    
+    void put(long id, String name) {
+        String normalized = normalize(name);
+        String previous = names.put(id, normalized);
+        if (normalized.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            removePostings(id, previous);
+        }
+        for (long trigram : trigrams(normalized)) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+        }
+    }
+    
+    void remove(long id) {
+        String previous = names.remove(id);
+        if (previous != null) {
+            removePostings(id, previous);
+        }
+    }
+    
+    void clear() {
+        names.clear();
+        postings.clear();
+    }
+    
+    int size() {
+        return names.size();
+    }
+    
+    /**
+     * IDs of the names containing the text, in ascending order, at most {@code limit} of them
+     */
+    long[] search(String text, int limit) {
+        String needle = normalize(text);
+        if (needle.length() < 3) {
+            return scan(needle, limit);
+        }
+        
+        List<PostingList> lists = new ArrayList<>();
+        for (long trigram : trigrams(needle)) {
+            PostingList list = postings.get(trigram);
+            if (list == null) {
+                return NONE;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        
+        PostingList shortest = lists.get(0);
+        long[] matches = new long[Math.min(limit, shortest.size())];
+        int found = 0;
+        for (int i = 0; i < shortest.size() && found < matches.length; i++) {
+            long id = shortest.get(i);
+            if (inAll(lists, id) && names.get(id).contains(needle)) {
+                matches[found++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+    
+    private long[] scan(String needle, int limit) {
+        long[] matches = names.entrySet().stream()
+            .filter(entry -> entry.getValue().contains(needle))
+            .mapToLong(Map.Entry::getKey)
+            .sorted()
+            .toArray();
+        return matches.length > limit ? Arrays.copyOf(matches, limit) : matches;
+    }
+    
+    private static boolean inAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void removePostings(long id, String name) {
+        for (long trigram : trigrams(name)) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+    
+    /**
+     * Distinct trigrams of a string, each packed into one long
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+    
+    /**
+     * Sorted, growable array of product IDs. New products get ascending IDs, so adds almost
+     * always append and stay amortized O(1).
+     */
+    private static final class PostingList {
+        private long[] ids = new long[2];
+        private int size;
+        
+        int size() {
+            return size;
+        }
+        
+        long get(int index) {
+            return ids[index];
+        }
+        
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+        
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+        
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.inventory.service;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for replaying the results of requests retried with the same Idempotency-Key
+ */
+public interface IdempotencyService {
+    
+    /**
+     * Run an operation at most once per key.
+     * The first request with a key runs the action and stores its result; later requests with
+     * the same key and the same parameters get the stored result without running it again.
+     * Failed actions are not stored, so the client may retry them.
+     *
+     * @param key the client's Idempotency-Key, or null to run the action without deduplication
+     * @param operation name of the operation, e.g. the HTTP method and path
+     * @param request parameters of the operation, used to reject a key reused for a different request
+     */
+    <T> Result<T> execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action);
+    
+    /**
+     * @param replayed true when the body is a stored result and the action did not run
+     */
+    record Result<T>(T body, boolean replayed) {
+    }
+}
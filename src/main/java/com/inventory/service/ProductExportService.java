@@ -0,0 +1,15 @@
+package com.inventory.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for streaming the whole catalog without holding it in memory
+ */
+public interface ProductExportService {
+    
+    /**
+     * Write every product as one JSON array, ordered by ID, straight to the given stream
+     */
+    void streamProducts(OutputStream out) throws IOException;
+}
@@ -1,7 +1,11 @@
 package com.inventory.service;
 
 import com.inventory.dto.*;
+import com.inventory.stock.StockAdjustment;
+import com.inventory.stock.StockAdjustmentOutcome;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Service interface for Product operations
@@ -13,11 +17,68 @@ public interface ProductService {
      */
     List<ProductDTO> getAllProducts();
     
+    /**
+     * Get all products, reading only the columns the fields need. This and the other overloads taking
+     * {@link ProductFields} return products that serialize only those fields.
+     */
+    List<ProductDTO> getAllProducts(ProductFields fields);
+    
+    /**
+     * Get one keyset page of the products ordered by ID, starting after the given ID
+     */
+    CursorPageDTO<ProductDTO> getProducts(Long after, int limit);
+    
+    CursorPageDTO<ProductDTO> getProducts(Long after, int limit, ProductFields fields);
+    
+    /**
+     * Get one keyset page of the products with a stock quantity between min and max (inclusive), ordered by ID
+     */
+    CursorPageDTO<ProductDTO> getProductsByStockRange(int minStock, int maxStock, Long after, int limit);
+    
+    CursorPageDTO<ProductDTO> getProductsByStockRange(int minStock, int maxStock, Long after, int limit,
+                                                      ProductFields fields);
+    
     /**
      * Get product by ID
      */
     ProductDTO getProductById(Long id);
     
+    /**
+     * Get several products by ID, one result per requested ID in request order; IDs that do not
+     * exist are marked as not found
+     */
+    List<ProductLookupDTO> getProductsByIds(List<Long> ids);
+    
+    /**
+     * Get one page of the product change feed after the given position, in commit order, with the
+     * current state of each upserted product; fails when the feed has been pruned past the position
+     */
+    CursorPageDTO<ProductChangeDTO> getChanges(long since, int limit);
+    
+    /**
+     * Get product by ID together with the entity tag of exactly that representation
+     */
+    Tagged<ProductDTO> getTaggedProductById(Long id);
+    
+    /**
+     * Current entity tag of a product, looked up without loading the product; empty when it does not exist
+     */
+    Optional<String> getProductETag(Long id);
+    
+    /**
+     * Entity tag shared by all product listings; it changes whenever any product is created, changed or deleted
+     */
+    String getCatalogETag();
+    
+    /**
+     * Run a product listing in the read-only transaction that computes the catalog entity tag.
+     * The listing's reads join that transaction, so with replicas it comes from the same database
+     * as the tag and, read after it, is never older than the tag it is sent with.
+     *
+     * @param read receives the catalog entity tag and returns the response
+     */
+    <T> T readCatalog(Function<String, T> read);
+    
     /**
      * Create a new product
      */
@@ -33,6 +94,16 @@ public interface ProductService {
      */
     void deleteProduct(Long id);
     
+    /**
+     * Catalog-wide stock totals, served from the maintained counters without querying the products table
+     */
+    InventoryStatsDTO getInventoryStats();
+    
+    /**
+     * Distribution of products over stock levels, in buckets of the given width
+     */
+    StockHistogramDTO getStockHistogram(int bucketSize);
+    
     /**
      * Add stock to a product
      */
@@ -43,15 +114,63 @@ public interface ProductService {
      */
     ProductDTO removeStock(Long productId, StockUpdateDTO stockUpdateDTO);
     
+    /**
+     * Apply several add/remove lines in one transaction
+     */
+    StockBatchResultDTO applyStockBatch(StockBatchRequestDTO batchRequest);
+    
+    /**
+     * Apply several movements of one product in order, under a single row lock and save.
+     * Every movement gets its own outcome, so one failed removal does not affect the others.
+     * When a hot product is demoted midway, only the outcomes of the movements applied so far
+     * are returned and the caller must apply the rest on their own.
+     */
+    List<StockAdjustmentOutcome> applyStockAdjustments(Long productId, List<StockAdjustment> adjustments);
+    
     /**
      * Get all products with low stock
      */
     List<ProductDTO> getLowStockProducts();
     
+    List<ProductDTO> getLowStockProducts(ProductFields fields);
+    
+    /**
+     * Get one keyset page of the products with low stock, ordered by ID
+     */
+    CursorPageDTO<ProductDTO> getLowStockProducts(Long after, int limit);
+    
+    CursorPageDTO<ProductDTO> getLowStockProducts(Long after, int limit, ProductFields fields);
+    
     /**
      * Search products by name
      */
     List<ProductDTO> searchProductsByName(String name);
+    
+    /**
+     * Search products by name, returning at most {@code limit} matches in ID order
+     */
+    List<ProductDTO> searchProductsByName(String name, int limit);
+    
+    /**
+     * Search products by name tolerating up to two typos per word, closest matches first
+     */
+    List<ProductDTO> searchProductsByNameFuzzy(String name, int limit);
+    
+    /**
+     * Suggest product names starting with the prefix, most stocked first
+     */
+    List<ProductSuggestionDTO> autocomplete(String prefix, int limit);
+    
+    /**
+     * Search names and descriptions, most relevant first, one page at a time
+     */
+    FullTextPageDTO searchFullText(String query, int page, int size);
+    
+    /**
+     * A response body with its entity tag, without quotes
+     */
+    record Tagged<T>(T body, String eTag) {
+    }
 }
 
 // File: ProductServiceImpl.java
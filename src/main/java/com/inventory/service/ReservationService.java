@@ -0,0 +1,30 @@
+package com.inventory.service;
+
+import com.inventory.dto.ReservationCreateDTO;
+import com.inventory.dto.ReservationDTO;
+
+/**
+ * Service interface for stock reservation operations
+ */
+public interface ReservationService {
+    
+    /**
+     * Hold stock of a product until the reservation is confirmed, released or expires
+     */
+    ReservationDTO reserve(Long productId, ReservationCreateDTO createDTO);
+    
+    /**
+     * Turn a reservation into a permanent stock removal
+     */
+    ReservationDTO confirm(Long reservationId);
+    
+    /**
+     * Give the held stock back
+     */
+    ReservationDTO release(Long reservationId);
+    
+    /**
+     * Give the held stock of an overdue reservation back; does nothing when it was already resolved
+     */
+    void expireReservation(Long reservationId);
+}
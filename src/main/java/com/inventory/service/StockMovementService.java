@@ -0,0 +1,15 @@
+package com.inventory.service;
+
+import com.inventory.dto.CursorPageDTO;
+import com.inventory.dto.StockMovementDTO;
+
+/**
+ * Service interface for reading the stock movement ledger
+ */
+public interface StockMovementService {
+    
+    /**
+     * Get the movements of a product recorded after the given movement ID, oldest first
+     */
+    CursorPageDTO<StockMovementDTO> getMovements(Long productId, Long after, int limit);
+}
@@ -0,0 +1,262 @@
+package com.inventory.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inventory.config.InventoryProperties;
+import com.inventory.entity.IdempotencyRecord;
+import com.inventory.exception.IdempotencyConflictException;
+import com.inventory.exception.InvalidStockOperationException;
+import com.inventory.replica.ReadConsistency;
+import com.inventory.repository.IdempotencyRecordRepository;
+import com.inventory.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency keys backed by a bounded in-memory index and the 'idempotency_keys' table.
+ * <p>
+ * Retries that reach the same instance are answered from memory without a database round
+ * trip, and concurrent duplicates wait for the original instead of running again. A new key
+ * is claimed with an INSERT and completed with its response in the same transaction as the
+ * stock change, so the stored result commits or rolls back together with the change and no
+ * extra commit is needed. The INSERT doubles as the lookup: a duplicate-key error means the
+ * key was seen before, e.g. by another instance or before a restart. A duplicate sent while
+ * the original is still running waits on the original's uncommitted claim.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+    
+    private static final int MAX_KEY_LENGTH = 100;
+    
+    private static final String CLAIM_SQL =
+        "INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at) VALUES (?, ?, ?, ?)";
+    
+    private static final String COMPLETE_SQL =
+        "UPDATE idempotency_keys SET response_body = ?, completed_at = ? WHERE idempotency_key = ?";
+    
+    private static final String DELETE_EXPIRED_KEY_SQL =
+        "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at < ?";
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration waitTimeout;
+    private final Cache<String, Entry> entries;
+    
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  InventoryProperties inventoryProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        InventoryProperties.Idempotency settings = inventoryProperties.getIdempotency();
+        this.retention = Duration.ofSeconds(settings.getRetentionSeconds());
+        this.waitTimeout = Duration.ofMillis(settings.getWaitTimeoutMs());
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(settings.getMaxEntries())
+            .expireAfterWrite(retention)
+            .build();
+    }
+    
+    @Override
+    public <T> Result<T> execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String fingerprint = fingerprint(operation, request);
+        Entry entry = new Entry(fingerprint);
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            return new Result<>(replay(key, existing, fingerprint, responseType), true);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (int attempt = 0; ; attempt++) {
+            T response;
+            try {
+                response = transactionTemplate.execute(status -> claimAndRun(key, entry, now, action));
+            } catch (KeyTakenException ex) {
+                // The key has only just committed on the primary; a replica may not show it yet
+                Optional<IdempotencyRecord> stored =
+                    ReadConsistency.onPrimary(() -> idempotencyRecordRepository.findById(key));
+                if (stored.isPresent() && stored.get().getExpiresAt().isAfter(now)) {
+                    return new Result<>(replayStored(key, entry, stored.get(), responseType), true);
+                }
+                if (attempt > 0) {
+                    RuntimeException conflict = new IdempotencyConflictException(key);
+                    abandon(key, entry, conflict);
+                    throw conflict;
+                }
+                // An expired record that has not been purged yet does not count
+                jdbcTemplate.update(DELETE_EXPIRED_KEY_SQL, key, Timestamp.valueOf(now));
+                continue;
+            } catch (RuntimeException ex) {
+                // Failed requests are not remembered, so the client can retry them
+                abandon(key, entry, ex);
+                throw ex;
+            }
+            return new Result<>(response, false);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+    
+    /**
+     * Claim the key, run the action and store its response in one transaction, which the stock change joins.
+     * The response is handed to waiting duplicates only once the transaction has committed.
+     *
+     * @throws KeyTakenException when the key was stored before
+     */
+    private <T> T claimAndRun(String key, Entry entry, LocalDateTime now, Supplier<T> action) {
+        try {
+            jdbcTemplate.update(CLAIM_SQL, key, entry.fingerprint,
+                Timestamp.valueOf(now), Timestamp.valueOf(now.plus(retention)));
+        } catch (DuplicateKeyException ex) {
+            throw new KeyTakenException();
+        }
+        T response = action.get();
+        String responseBody;
+        try {
+            responseBody = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not store the response for Idempotency-Key " + key, ex);
+        }
+        jdbcTemplate.update(COMPLETE_SQL, responseBody, Timestamp.valueOf(LocalDateTime.now()), key);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entry.response.complete(responseBody);
+            }
+        });
+        return response;
+    }
+    
+    private <T> T replayStored(String key, Entry entry, IdempotencyRecord stored, Class<T> responseType) {
+        if (!stored.getFingerprint().equals(entry.fingerprint)) {
+            RuntimeException mismatch = keyReused(key);
+            abandon(key, entry, mismatch);
+            throw mismatch;
+        }
+        if (!stored.isCompleted()) {
+            // Left by a version that completed keys after the stock transaction had committed
+            RuntimeException conflict = new IdempotencyConflictException(key);
+            abandon(key, entry, conflict);
+            throw conflict;
+        }
+        log.info("Replaying stored response for Idempotency-Key: {}", key);
+        entry.response.complete(stored.getResponseBody());
+        return deserialize(stored.getResponseBody(), responseType);
+    }
+    
+    private <T> T replay(String key, Entry existing, String fingerprint, Class<T> responseType) {
+        if (!existing.fingerprint.equals(fingerprint)) {
+            throw keyReused(key);
+        }
+        try {
+            // Waits when the original request is still running on this instance, but not for ever
+            String responseBody = existing.response.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Replaying response for Idempotency-Key: {}", key);
+            return deserialize(responseBody, responseType);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyConflictException(key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(key);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+    
+    private void abandon(String key, Entry entry, RuntimeException failure) {
+        entries.asMap().remove(key, entry);
+        entry.response.completeExceptionally(failure);
+    }
+    
+    private <T> T deserialize(String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", ex);
+        }
+    }
+    
+    private static InvalidStockOperationException keyReused(String key) {
+        return new InvalidStockOperationException(
+            "Idempotency-Key '" + key + "' was already used for a different request");
+    }
+    
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot fingerprint request", ex);
+        }
+    }
+    
+    /**
+     * Signals that the claim INSERT found the key already stored; rolls back the claiming transaction
+     */
+    private static final class KeyTakenException extends RuntimeException {
+        private KeyTakenException() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * In-memory state of a key; the response completes when the original request finishes
+     */
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<String> response = new CompletableFuture<>();
+        
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
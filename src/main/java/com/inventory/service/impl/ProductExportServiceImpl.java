@@ -0,0 +1,107 @@
+package com.inventory.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductDTO;
+import com.inventory.service.ProductExportService;
+import com.inventory.stock.HotStockManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Streams the catalog from a forward-only JDBC cursor.
+ * <p>
+ * Rows are read in fetch-size chunks and serialized one at a time, so neither entities nor
+ * the full result list are ever materialized and memory use does not grow with the catalog.
+ * The read runs in a read-only transaction, which drivers such as PostgreSQL need before
+ * they honour the fetch size instead of buffering the whole result.
+ */
+@Service
+@Slf4j
+public class ProductExportServiceImpl implements ProductExportService {
+    
+    private static final String STREAM_SQL =
+        "SELECT id, name, description, stock_quantity, reserved_quantity, low_stock_threshold, created_at, updated_at " +
+        "FROM products ORDER BY id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+    private final HotStockManager hotStockManager;
+    private final int fetchSize;
+    
+    public ProductExportServiceImpl(JdbcTemplate jdbcTemplate,
+                                    ObjectMapper objectMapper,
+                                    HotStockManager hotStockManager,
+                                    InventoryProperties inventoryProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // Flushing after every product would turn each row into its own network write
+        this.productWriter = objectMapper.writerFor(ProductDTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.hotStockManager = hotStockManager;
+        this.fetchSize = inventoryProperties.getListing().getStreamFetchSize();
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public void streamProducts(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartArray();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    STREAM_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (RowCallbackHandler) row -> write(generator, toDTO(row)));
+        } catch (UncheckedIOException ex) {
+            // The client went away; stop reading instead of draining the cursor
+            throw ex.getCause();
+        }
+        generator.writeEndArray();
+        generator.flush();
+    }
+    
+    private void write(JsonGenerator generator, ProductDTO product) {
+        try {
+            productWriter.writeValue(generator, product);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private ProductDTO toDTO(ResultSet row) throws SQLException {
+        int stockQuantity = row.getInt("stock_quantity");
+        int reservedQuantity = row.getInt("reserved_quantity");
+        int lowStockThreshold = row.getInt("low_stock_threshold");
+        ProductDTO product = ProductDTO.builder()
+            .id(row.getLong("id"))
+            .name(row.getString("name"))
+            .description(row.getString("description"))
+            .stockQuantity(stockQuantity)
+            .reservedQuantity(reservedQuantity)
+            .availableQuantity(stockQuantity - reservedQuantity)
+            .lowStockThreshold(lowStockThreshold)
+            .isLowStock(stockQuantity <= lowStockThreshold)
+            .createdAt(row.getObject("created_at", LocalDateTime.class))
+            .updatedAt(row.getObject("updated_at", LocalDateTime.class))
+            .build();
+        hotStockManager.applyHotStock(product);
+        return product;
+    }
+}
@@ -1,19 +1,54 @@
 package com.inventory.service.impl;
 
+import com.inventory.cache.ProductCache;
+import com.inventory.config.InventoryProperties;
 import com.inventory.dto.*;
 import com.inventory.entity.Product;
+import com.inventory.entity.ProductChange;
+import com.inventory.entity.StockMovement;
+import com.inventory.entity.StockReservation;
+import com.inventory.event.ProductDeletedEvent;
+import com.inventory.event.StockLevelChangedEvent;
+import com.inventory.exception.ChangeFeedPositionExpiredException;
 import com.inventory.exception.InsufficientStockException;
 import com.inventory.exception.InvalidStockOperationException;
 import com.inventory.exception.ProductNotFoundException;
+import com.inventory.feed.ProductChangeFeed;
 import com.inventory.mapper.ProductMapper;
+import com.inventory.replica.ReadConsistency;
+import com.inventory.repository.ProductChangeRepository;
 import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.search.NameNormalizer;
+import com.inventory.search.ProductCompletionIndex;
+import com.inventory.search.ProductFullTextIndex;
+import com.inventory.search.ProductFuzzyIndex;
+import com.inventory.search.ProductNameFilter;
+import com.inventory.search.ProductNameIndex;
 import com.inventory.service.ProductService;
+import com.inventory.stock.HotStockManager;
+import com.inventory.stock.InventoryStatistics;
+import com.inventory.stock.StockAdjustment;
+import com.inventory.stock.StockAdjustmentOutcome;
+import com.inventory.stock.StockLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -25,24 +60,183 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ProductServiceImpl implements ProductService {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final InventoryProperties inventoryProperties;
+    private final HotStockManager hotStockManager;
+    private final StockLedger stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductCache productCache;
+    private final ProductNameIndex productNameIndex;
+    private final ProductCompletionIndex productCompletionIndex;
+    private final ProductFullTextIndex productFullTextIndex;
+    private final ProductFuzzyIndex productFuzzyIndex;
+    private final ProductNameFilter productNameFilter;
+    private final InventoryStatistics inventoryStatistics;
+    private final ProductChangeFeed productChangeFeed;
+    private final ProductChangeRepository productChangeRepository;
+    private final StockReservationRepository reservationRepository;
     
     @Override
     public List<ProductDTO> getAllProducts() {
+        return getAllProducts(ProductFields.ALL);
+    }
+    
+    @Override
+    public List<ProductDTO> getAllProducts(ProductFields fields) {
         log.debug("Fetching all products");
-        List<Product> products = productRepository.findAll();
+        List<ProductViewDTO> products = fields.isAll()
+            ? productRepository.findAllViews()
+            : productRepository.findSparseViews(fields, "", Map.of(), 0);
         return products.stream()
-            .map(productMapper::toDTO)
+            .map(product -> toDTO(product, fields))
             .collect(Collectors.toList());
     }
     
+    @Override
+    public CursorPageDTO<ProductDTO> getProducts(Long after, int limit) {
+        return getProducts(after, limit, ProductFields.ALL);
+    }
+    
+    @Override
+    public CursorPageDTO<ProductDTO> getProducts(Long after, int limit, ProductFields fields) {
+        validatePageSize(limit);
+        log.debug("Fetching up to {} products after ID: {}", limit, after);
+        Long cursor = after != null ? after : 0L;
+        List<ProductViewDTO> products = fields.isAll()
+            ? productRepository.findPageAfter(cursor, PageRequest.of(0, limit + 1))
+            : productRepository.findSparseViews(fields, ProductRepository.PAGE_AFTER,
+                Map.of("after", cursor), limit + 1);
+        return toPage(products, limit, fields);
+    }
+    
+    @Override
+    public CursorPageDTO<ProductDTO> getProductsByStockRange(int minStock, int maxStock, Long after, int limit) {
+        return getProductsByStockRange(minStock, maxStock, after, limit, ProductFields.ALL);
+    }
+    
+    @Override
+    public CursorPageDTO<ProductDTO> getProductsByStockRange(int minStock, int maxStock, Long after, int limit,
+                                                             ProductFields fields) {
+        validatePageSize(limit);
+        if (minStock > maxStock) {
+            throw new IllegalArgumentException("minStock must not be greater than maxStock");
+        }
+        log.debug("Fetching up to {} products with stock between {} and {} after ID: {}", limit, minStock, maxStock, after);
+        Long cursor = after != null ? after : 0L;
+        List<ProductViewDTO> products = fields.isAll()
+            ? productRepository.findByStockQuantityBetweenAfter(
+                minStock, maxStock, cursor, PageRequest.of(0, limit + 1))
+            : productRepository.findSparseViews(fields, ProductRepository.STOCK_RANGE_AFTER,
+                Map.of("min", minStock, "max", maxStock, "after", cursor), limit + 1);
+        return toPage(products, limit, fields);
+    }
+    
     @Override
     public ProductDTO getProductById(Long id) {
+        return getTaggedProductById(id).body();
+    }
+    
+    @Override
+    public List<ProductLookupDTO> getProductsByIds(List<Long> ids) {
+        log.debug("Fetching {} products by ID", ids.size());
+        Map<Long, ProductDTO> products = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            productCache.getIfPresent(id).ifPresentOrElse(
+                product -> products.put(id, toDTO(product)),
+                () -> misses.add(id));
+        }
+        // Misses are not put in the cache: unlike a single load, a bulk load is not atomic with
+        // the refresh of a concurrent write and could cache a copy that write already replaced
+        for (int from = 0; from < misses.size(); from += MAX_PAGE_SIZE) {
+            productRepository.findViewsByIdIn(misses.subList(from, Math.min(from + MAX_PAGE_SIZE, misses.size())))
+                .forEach(product -> products.put(product.id(), toDTO(product)));
+        }
+        return ids.stream()
+            .map(id -> ProductLookupDTO.of(id, products.get(id)))
+            .toList();
+    }
+    
+    @Override
+    public CursorPageDTO<ProductChangeDTO> getChanges(long since, int limit) {
+        validatePageSize(limit);
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        log.debug("Fetching up to {} product changes after: {}", limit, since);
+        // Number what has committed since the last sequencing run, so the page includes it;
+        // when the scheduled run has already done so this is one indexed read without a lock
+        productChangeFeed.sequence();
+        List<ProductChange> changes = productChangeRepository.findPage(since, PageRequest.of(0, limit + 1));
+        // Checked after the read, so a delete pruned while reading is caught too
+        if (since > 0 && since < productChangeFeed.prunedThrough()) {
+            throw new ChangeFeedPositionExpiredException(since);
+        }
+        boolean hasMore = changes.size() > limit;
+        List<ProductChange> page = hasMore ? changes.subList(0, limit) : changes;
+        
+        Set<Long> upserted = page.stream()
+            .filter(change -> change.getType() == ProductChange.Type.UPSERT)
+            .map(ProductChange::getProductId)
+            .collect(Collectors.toSet());
+        Map<Long, ProductDTO> products = upserted.isEmpty() ? Map.of() : productRepository.findViewsByIdIn(upserted)
+            .stream()
+            .collect(Collectors.toMap(ProductViewDTO::id, this::toDTO));
+        List<ProductChangeDTO> items = page.stream()
+            .map(change -> ProductChangeDTO.builder()
+                .seq(change.getSeq())
+                .productId(change.getProductId())
+                .type(change.getType())
+                .product(change.getType() == ProductChange.Type.UPSERT ? products.get(change.getProductId()) : null)
+                .changedAt(change.getChangedAt())
+                .build())
+            .toList();
+        
+        return CursorPageDTO.<ProductChangeDTO>builder()
+            .items(items)
+            .nextCursor(hasMore ? page.get(page.size() - 1).getSeq() : null)
+            .build();
+    }
+    
+    @Override
+    public Tagged<ProductDTO> getTaggedProductById(Long id) {
         log.debug("Fetching product with ID: {}", id);
-        Product product = productRepository.findById(id)
+        // Cached copies are only corrected by later writes, so they must not be loaded from a lagging replica
+        ProductViewDTO product = productCache.get(id,
+                key -> ReadConsistency.onPrimary(() -> productRepository.findViewById(key)))
             .orElseThrow(() -> new ProductNotFoundException(id));
-        return productMapper.toDTO(product);
+        ProductDTO dto = toDTO(product);
+        // Tag the representation itself, including any hot stock overlaid on it
+        return new Tagged<>(dto, productETag(product.version(), dto.getAvailableQuantity()));
+    }
+    
+    @Override
+    public Optional<String> getProductETag(Long id) {
+        // A cached copy answers without a query; otherwise only the version columns are read
+        Optional<ProductViewDTO> cached = productCache.getIfPresent(id);
+        if (cached.isPresent()) {
+            ProductViewDTO product = cached.get();
+            return Optional.of(currentETag(id, product.version(), product.stockQuantity() - product.reservedQuantity()));
+        }
+        return productRepository.findVersionById(id)
+            .map(current -> currentETag(id, current.getVersion(), current.getAvailableQuantity()));
+    }
+    
+    @Override
+    public String getCatalogETag() {
+        // Every committed write records a feed change, so their count versions the whole catalog
+        // without aggregating over the products table
+        String eTag = Long.toString(productChangeFeed.committedChanges());
+        long hotStock = hotStockManager.fingerprint();
+        return hotStock == 0 ? eTag : eTag + "-" + Long.toHexString(hotStock);
+    }
+    
+    @Override
+    public <T> T readCatalog(Function<String, T> read) {
+        return read.apply(getCatalogETag());
     }
     
     @Override
@@ -50,17 +244,20 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO createProduct(ProductCreateDTO createDTO) {
         log.debug("Creating new product: {}", createDTO.getName());
         
-        // Check if product with same name already exists
-        if (productRepository.existsByNameIgnoreCase(createDTO.getName())) {
-            throw new InvalidStockOperationException(
-                "Product with name '" + createDTO.getName() + "' already exists");
-        }
+        // The unique normalized_name index rejects duplicates; the query only runs for names that may be taken
+        rejectTakenName(createDTO.getName());
         
         Product product = productMapper.toEntity(createDTO);
         Product savedProduct = productRepository.save(product);
+        productChangeFeed.record(savedProduct.getId(), ProductChange.Type.UPSERT);
+        ProductDTO created = productMapper.toDTO(savedProduct);
+        inventoryStatistics.productCreated(savedProduct.getLowStockThreshold());
+        if (savedProduct.getStockQuantity() > 0) {
+            recordMovement(created, savedProduct.getStockQuantity(), StockMovement.Reason.INITIAL);
+        }
         
         log.info("Product created successfully with ID: {}", savedProduct.getId());
-        return productMapper.toDTO(savedProduct);
+        return created;
     }
     
     @Override
@@ -68,16 +265,17 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO updateProduct(Long id, ProductUpdateDTO updateDTO) {
         log.debug("Updating product with ID: {}", id);
         
-        Product product = productRepository.findById(id)
+        // Locked because the save writes the whole row: a hot-stock write-back leaves the version alone,
+        // so the save of an unlocked read would not conflict with it and could overwrite its stock
+        Product product = productRepository.findByIdWithLock(id)
             .orElseThrow(() -> new ProductNotFoundException(id));
+        int previousThreshold = product.getLowStockThreshold();
         
         // Update only non-null fields
         if (updateDTO.getName() != null) {
-            // Check if another product with the same name exists
-            if (productRepository.existsByNameIgnoreCase(updateDTO.getName()) &&
-                !product.getName().equalsIgnoreCase(updateDTO.getName())) {
-                throw new InvalidStockOperationException(
-                    "Product with name '" + updateDTO.getName() + "' already exists");
+            // Renaming to a variant of the current name cannot clash with another product
+            if (!NameNormalizer.normalize(updateDTO.getName()).equals(NameNormalizer.normalize(product.getName()))) {
+                rejectTakenName(updateDTO.getName());
             }
             product.setName(updateDTO.getName());
         }
@@ -91,8 +289,30 @@ public class ProductServiceImpl implements ProductService {
         }
         
         Product updatedProduct = productRepository.save(product);
+        productCache.refreshAfterCommit(updatedProduct);
+        productChangeFeed.record(updatedProduct.getId(), ProductChange.Type.UPSERT);
         log.info("Product updated successfully with ID: {}", id);
-        return productMapper.toDTO(updatedProduct);
+        ProductDTO updated = productMapper.toDTO(updatedProduct);
+        hotStockManager.refresh(updated);
+        hotStockManager.applyHotStock(updated);
+        if (updateDTO.getLowStockThreshold() != null) {
+            inventoryStatistics.thresholdChanged(updated.getStockQuantity(),
+                previousThreshold, updated.getLowStockThreshold());
+            eventPublisher.publishEvent(new StockLevelChangedEvent(id, updated.getName(),
+                0, updated.getStockQuantity(), updated.getLowStockThreshold()));
+        }
+        return updated;
+    }
+    
+    /**
+     * Fail early with a readable message when the name is known to be taken. Names the filter
+     * has never seen skip the query; concurrent duplicates are still caught by the unique index.
+     */
+    private void rejectTakenName(String name) {
+        if (productNameFilter.mightContain(name)
+                && productRepository.existsByNormalizedName(NameNormalizer.normalize(name))) {
+            throw new InvalidStockOperationException("Product with name '" + name + "' already exists");
+        }
     }
     
     @Override
@@ -100,24 +320,102 @@ public class ProductServiceImpl implements ProductService {
     public void deleteProduct(Long id) {
         log.debug("Deleting product with ID: {}", id);
         
-        if (!productRepository.existsById(id)) {
-            throw new ProductNotFoundException(id);
+        // Hot stock is written back and the product kept on the database path until its row is locked.
+        // Loaded rather than only checked, so the statistics subtract the stock level the locked row
+        // holds after that write-back rather than one read before the counters were flushed.
+        hotStockManager.pin(id);
+        Product product;
+        try {
+            product = productRepository.findByIdWithLock(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+        } finally {
+            hotStockManager.unpin(id);
+        }
+        
+        // Holds on the product end with it; their pending expiries find them released and do nothing
+        int released = reservationRepository.resolveAllByProductId(id,
+            StockReservation.Status.ACTIVE, StockReservation.Status.RELEASED, LocalDateTime.now());
+        if (released > 0) {
+            log.info("Released {} active reservations of product ID: {}", released, id);
         }
         
-        productRepository.deleteById(id);
+        productRepository.delete(product);
+        hotStockManager.evictAfterCommit(id);
+        inventoryStatistics.productDeleted(product.getStockQuantity(), product.getLowStockThreshold());
+        productCache.evictAfterCommit(id);
+        productChangeFeed.record(id, ProductChange.Type.DELETE);
+        eventPublisher.publishEvent(new ProductDeletedEvent(id));
         log.info("Product deleted successfully with ID: {}", id);
     }
     
+    @Override
+    public InventoryStatsDTO getInventoryStats() {
+        return inventoryStatistics.snapshot();
+    }
+    
+    @Override
+    public StockHistogramDTO getStockHistogram(int bucketSize) {
+        if (bucketSize < 1) {
+            throw new IllegalArgumentException("Bucket size must be at least 1");
+        }
+        // The query returns one row per distinct quantity in ascending order, so buckets fill one after another
+        List<StockHistogramDTO.Bucket> buckets = new ArrayList<>();
+        long bucket = -1;
+        long productCount = 0;
+        long totalUnits = 0;
+        for (ProductRepository.StockLevelCount level : productRepository.countByStockQuantity()) {
+            long quantity = level.getStockQuantity();
+            if (quantity / bucketSize != bucket) {
+                if (productCount > 0) {
+                    buckets.add(bucket(bucket, bucketSize, productCount, totalUnits));
+                }
+                bucket = quantity / bucketSize;
+                productCount = 0;
+                totalUnits = 0;
+            }
+            productCount += level.getProductCount();
+            totalUnits += quantity * level.getProductCount();
+        }
+        if (productCount > 0) {
+            buckets.add(bucket(bucket, bucketSize, productCount, totalUnits));
+        }
+        return new StockHistogramDTO(bucketSize, buckets);
+    }
+    
+    private static StockHistogramDTO.Bucket bucket(long bucket, int bucketSize, long productCount, long totalUnits) {
+        long minStock = bucket * bucketSize;
+        return new StockHistogramDTO.Bucket((int) minStock, (int) Math.min(Integer.MAX_VALUE, minStock + bucketSize - 1),
+            productCount, totalUnits);
+    }
+    
     @Override
     @Transactional
     public ProductDTO addStock(Long productId, StockUpdateDTO stockUpdateDTO) {
         log.debug("Adding {} units to product ID: {}", stockUpdateDTO.getQuantity(), productId);
         
+        int quantityToAdd = stockUpdateDTO.getQuantity();
+        
+        // Hot products are served from in-memory counters without touching the row
+        Optional<ProductDTO> hotResult = hotStockManager.addStock(productId, quantityToAdd);
+        if (hotResult.isPresent()) {
+            return announceMovement(hotResult.get(), quantityToAdd);
+        }
+        
+        if (usesConditionalUpdates()) {
+            return addStockConditionally(productId, quantityToAdd);
+        }
+        
         // Use pessimistic locking to prevent concurrent modifications
+        long lockRequestedAt = System.nanoTime();
         Product product = productRepository.findByIdWithLock(productId)
             .orElseThrow(() -> new ProductNotFoundException(productId));
+        hotStockManager.recordStockOperation(productId, System.nanoTime() - lockRequestedAt);
         
-        int quantityToAdd = stockUpdateDTO.getQuantity();
+        // The product may have been promoted to hot mode while we waited for the lock
+        hotResult = hotStockManager.addStock(productId, quantityToAdd);
+        if (hotResult.isPresent()) {
+            return announceMovement(hotResult.get(), quantityToAdd);
+        }
         
         // Validate the operation won't cause overflow
         if (product.getStockQuantity() > Integer.MAX_VALUE - quantityToAdd) {
@@ -127,11 +425,13 @@ public class ProductServiceImpl implements ProductService {
         
         product.addStock(quantityToAdd);
         Product updatedProduct = productRepository.save(product);
+        productCache.refreshAfterCommit(updatedProduct);
+        productChangeFeed.record(updatedProduct.getId(), ProductChange.Type.UPSERT);
         
         log.info("Successfully added {} units to product ID: {}. New stock: {}", 
             quantityToAdd, productId, updatedProduct.getStockQuantity());
         
-        return productMapper.toDTO(updatedProduct);
+        return recordMovement(productMapper.toDTO(updatedProduct), quantityToAdd, StockMovement.Reason.ADD);
     }
     
     @Override
@@ -139,55 +439,552 @@ public class ProductServiceImpl implements ProductService {
     public ProductDTO removeStock(Long productId, StockUpdateDTO stockUpdateDTO) {
         log.debug("Removing {} units from product ID: {}", stockUpdateDTO.getQuantity(), productId);
         
+        int quantityToRemove = stockUpdateDTO.getQuantity();
+        
+        // Hot products are served from in-memory counters without touching the row
+        Optional<ProductDTO> hotResult = hotStockManager.removeStock(productId, quantityToRemove);
+        if (hotResult.isPresent()) {
+            return announceMovement(hotResult.get(), -quantityToRemove);
+        }
+        
+        if (usesConditionalUpdates()) {
+            return removeStockConditionally(productId, quantityToRemove);
+        }
+        
         // Use pessimistic locking to prevent concurrent modifications
+        long lockRequestedAt = System.nanoTime();
         Product product = productRepository.findByIdWithLock(productId)
             .orElseThrow(() -> new ProductNotFoundException(productId));
+        hotStockManager.recordStockOperation(productId, System.nanoTime() - lockRequestedAt);
         
-        int quantityToRemove = stockUpdateDTO.getQuantity();
+        // The product may have been promoted to hot mode while we waited for the lock
+        hotResult = hotStockManager.removeStock(productId, quantityToRemove);
+        if (hotResult.isPresent()) {
+            return announceMovement(hotResult.get(), -quantityToRemove);
+        }
         
-        // Check if sufficient stock is available
-        if (product.getStockQuantity() < quantityToRemove) {
+        // Check if sufficient stock is available (reserved stock cannot be removed)
+        if (product.getAvailableQuantity() < quantityToRemove) {
             throw new InsufficientStockException(
                 productId, 
                 quantityToRemove, 
-                product.getStockQuantity()
+                product.getAvailableQuantity()
             );
         }
         
         product.removeStock(quantityToRemove);
         Product updatedProduct = productRepository.save(product);
+        productCache.refreshAfterCommit(updatedProduct);
+        productChangeFeed.record(updatedProduct.getId(), ProductChange.Type.UPSERT);
         
         log.info("Successfully removed {} units from product ID: {}. New stock: {}", 
             quantityToRemove, productId, updatedProduct.getStockQuantity());
         
-        // Check if low stock alert should be triggered
-        if (updatedProduct.isLowStock()) {
-            log.warn("Product ID: {} is now low on stock. Current: {}, Threshold: {}", 
-                productId, 
-                updatedProduct.getStockQuantity(), 
-                updatedProduct.getLowStockThreshold());
+        return recordMovement(productMapper.toDTO(updatedProduct), -quantityToRemove, StockMovement.Reason.REMOVE);
+    }
+    
+    private boolean usesConditionalUpdates() {
+        return inventoryProperties.getStock().getEngine() == InventoryProperties.StockEngine.CONDITIONAL_UPDATE;
+    }
+    
+    /**
+     * Add stock with one guarded UPDATE instead of a locked read followed by a save
+     */
+    private ProductDTO addStockConditionally(Long productId, int quantityToAdd) {
+        long startedAt = System.nanoTime();
+        int updated = productRepository.addStockIfWithinLimit(
+            productId, quantityToAdd, Integer.MAX_VALUE - quantityToAdd, LocalDateTime.now());
+        hotStockManager.recordStockOperation(productId, System.nanoTime() - startedAt);
+        if (updated == 0) {
+            // No row matched: either the product is missing or the addition would overflow
+            productRepository.findAvailableQuantityById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+            throw new InvalidStockOperationException(
+                "Stock addition would exceed maximum allowed value");
+        }
+        
+        // A promotion that committed just before the UPDATE seeded the counters without this movement:
+        // move it to the counters and take it back out of the row, which stays locked until commit
+        Optional<ProductDTO> hotResult = hotStockManager.isHot(productId)
+            ? hotStockManager.addStock(productId, quantityToAdd)
+            : Optional.empty();
+        if (hotResult.isPresent()) {
+            productRepository.removeStockIfAvailable(productId, quantityToAdd, LocalDateTime.now());
+            productCache.evictAfterCommit(productId);
+            return announceMovement(hotResult.get(), quantityToAdd);
+        }
+        
+        Product updatedProduct = productRepository.findById(productId)
+            .orElseThrow(() -> new ProductNotFoundException(productId));
+        productCache.refreshAfterCommit(updatedProduct);
+        productChangeFeed.record(updatedProduct.getId(), ProductChange.Type.UPSERT);
+        log.info("Successfully added {} units to product ID: {}. New stock: {}", 
+            quantityToAdd, productId, updatedProduct.getStockQuantity());
+        return recordMovement(productMapper.toDTO(updatedProduct), quantityToAdd, StockMovement.Reason.ADD);
+    }
+    
+    /**
+     * Remove stock with one guarded UPDATE. The affected-row count tells a successful
+     * removal apart from a missing product or insufficient stock.
+     */
+    private ProductDTO removeStockConditionally(Long productId, int quantityToRemove) {
+        long startedAt = System.nanoTime();
+        int updated = productRepository.removeStockIfAvailable(productId, quantityToRemove, LocalDateTime.now());
+        hotStockManager.recordStockOperation(productId, System.nanoTime() - startedAt);
+        if (updated == 0) {
+            int available = productRepository.findAvailableQuantityById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+            throw new InsufficientStockException(productId, quantityToRemove, available);
+        }
+        
+        // Same race with a promotion as for additions
+        Optional<ProductDTO> hotResult = hotStockManager.isHot(productId)
+            ? hotStockManager.removeStock(productId, quantityToRemove)
+            : Optional.empty();
+        if (hotResult.isPresent()) {
+            productRepository.addStockIfWithinLimit(
+                productId, quantityToRemove, Integer.MAX_VALUE - quantityToRemove, LocalDateTime.now());
+            productCache.evictAfterCommit(productId);
+            return announceMovement(hotResult.get(), -quantityToRemove);
+        }
+        
+        Product updatedProduct = productRepository.findById(productId)
+            .orElseThrow(() -> new ProductNotFoundException(productId));
+        productCache.refreshAfterCommit(updatedProduct);
+        productChangeFeed.record(updatedProduct.getId(), ProductChange.Type.UPSERT);
+        log.info("Successfully removed {} units from product ID: {}. New stock: {}", 
+            quantityToRemove, productId, updatedProduct.getStockQuantity());
+        return recordMovement(productMapper.toDTO(updatedProduct), -quantityToRemove, StockMovement.Reason.REMOVE);
+    }
+    
+    private static StockMovement.Reason movementReason(StockAdjustment adjustment) {
+        return adjustment.operation() == StockBatchLineDTO.Operation.ADD
+            ? StockMovement.Reason.ADD
+            : StockMovement.Reason.REMOVE;
+    }
+    
+    /**
+     * Append a movement to the ledger, written in one batch with the transaction's other movements
+     * just before it commits, and announce the new stock level once it has
+     */
+    private ProductDTO recordMovement(ProductDTO product, int delta, StockMovement.Reason reason) {
+        stockLedger.record(product.getId(), delta, product.getStockQuantity(), reason);
+        return announceMovement(product, delta);
+    }
+    
+    /**
+     * Announce a movement served from the hot-SKU counters, which queue its ledger entry for the next write-back
+     */
+    private ProductDTO announceMovement(ProductDTO product, int delta) {
+        eventPublisher.publishEvent(new StockLevelChangedEvent(product.getId(), product.getName(),
+            delta, product.getStockQuantity(), product.getLowStockThreshold()));
+        return product;
+    }
+    
+    @Override
+    @Transactional
+    public StockBatchResultDTO applyStockBatch(StockBatchRequestDTO batchRequest) {
+        List<StockBatchLineDTO> lines = batchRequest.getLines();
+        boolean atomic = batchRequest.getMode() == StockBatchRequestDTO.Mode.ATOMIC;
+        log.debug("Applying {} stock batch with {} lines", batchRequest.getMode(), lines.size());
+        
+        // Lock every referenced row up front with a single ordered SELECT ... FOR UPDATE
+        Set<Long> productIds = lines.stream()
+            .map(StockBatchLineDTO::getProductId)
+            .collect(Collectors.toCollection(TreeSet::new));
+        // Hot products are written back and returned to the database path so the batch sees their real stock.
+        // The pins keep them there until the rows are locked; a promotion after that waits for our commit.
+        productIds.forEach(hotStockManager::pin);
+        List<Product> lockedProducts;
+        try {
+            lockedProducts = productRepository.findAllByIdWithLock(productIds);
+        } finally {
+            productIds.forEach(hotStockManager::unpin);
+        }
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Product product : lockedProducts) {
+            products.put(product.getId(), product);
+            quantities.put(product.getId(), product.getStockQuantity());
+        }
+        
+        // Work against a copy of the quantities so a rejected ATOMIC batch never touches an entity
+        List<StockBatchLineResultDTO> results = new ArrayList<>(lines.size());
+        int failed = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            StockBatchLineDTO line = lines.get(i);
+            StockBatchLineResultDTO result = StockBatchLineResultDTO.builder()
+                .line(i)
+                .productId(line.getProductId())
+                .operation(line.getOperation())
+                .quantity(line.getQuantity())
+                .build();
+            try {
+                int newQuantity = applyBatchLine(line, quantities, products);
+                quantities.put(line.getProductId(), newQuantity);
+                result.setStatus(StockBatchLineResultDTO.Status.APPLIED);
+                result.setStockQuantity(newQuantity);
+            } catch (ProductNotFoundException | InsufficientStockException | InvalidStockOperationException ex) {
+                failed++;
+                result.setStatus(StockBatchLineResultDTO.Status.FAILED);
+                result.setError(ex.getMessage());
+            }
+            results.add(result);
+        }
+        
+        boolean committed = !atomic || failed == 0;
+        if (committed) {
+            List<Product> changedProducts = new ArrayList<>();
+            products.forEach((id, product) -> {
+                int newQuantity = quantities.get(id);
+                if (newQuantity != product.getStockQuantity()) {
+                    int delta = newQuantity - product.getStockQuantity();
+                    product.setStockQuantity(newQuantity);
+                    changedProducts.add(product);
+                    eventPublisher.publishEvent(new StockLevelChangedEvent(id, product.getName(),
+                        delta, newQuantity, product.getLowStockThreshold()));
+                }
+            });
+            productRepository.saveAll(changedProducts);
+            changedProducts.forEach(changed -> {
+                productCache.refreshAfterCommit(changed);
+                productChangeFeed.record(changed.getId(), ProductChange.Type.UPSERT);
+            });
+            results.stream()
+                .filter(result -> result.getStatus() == StockBatchLineResultDTO.Status.APPLIED)
+                .forEach(result -> stockLedger.record(result.getProductId(),
+                    result.getOperation() == StockBatchLineDTO.Operation.ADD ? result.getQuantity() : -result.getQuantity(),
+                    result.getStockQuantity(), StockMovement.Reason.BATCH));
+        } else {
+            results.stream()
+                .filter(result -> result.getStatus() == StockBatchLineResultDTO.Status.APPLIED)
+                .forEach(result -> {
+                    result.setStatus(StockBatchLineResultDTO.Status.SKIPPED);
+                    result.setStockQuantity(null);
+                });
+        }
+        
+        int applied = committed ? lines.size() - failed : 0;
+        log.info("Stock batch finished. Mode: {}, committed: {}, applied: {}, failed: {}",
+            batchRequest.getMode(), committed, applied, failed);
+        
+        return StockBatchResultDTO.builder()
+            .mode(batchRequest.getMode())
+            .committed(committed)
+            .applied(applied)
+            .failed(failed)
+            .results(results)
+            .build();
+    }
+    
+    /**
+     * Validate one batch line against the working quantities and return the resulting stock
+     */
+    private int applyBatchLine(StockBatchLineDTO line, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        Long productId = line.getProductId();
+        Integer currentQuantity = quantities.get(productId);
+        if (currentQuantity == null) {
+            throw new ProductNotFoundException(productId);
         }
         
-        return productMapper.toDTO(updatedProduct);
+        int quantity = line.getQuantity();
+        if (line.getOperation() == StockBatchLineDTO.Operation.ADD) {
+            if (currentQuantity > Integer.MAX_VALUE - quantity) {
+                throw new InvalidStockOperationException(
+                    "Stock addition would exceed maximum allowed value");
+            }
+            return currentQuantity + quantity;
+        }
+        
+        int available = currentQuantity - products.get(productId).getReservedQuantity();
+        if (available < quantity) {
+            throw new InsufficientStockException(productId, quantity, available);
+        }
+        return currentQuantity - quantity;
+    }
+    
+    @Override
+    @Transactional
+    public List<StockAdjustmentOutcome> applyStockAdjustments(Long productId, List<StockAdjustment> adjustments) {
+        log.debug("Applying {} coalesced stock movements to product ID: {}", adjustments.size(), productId);
+        
+        // Always a locked read, whatever the engine: one lock and one save cover the whole group
+        long lockRequestedAt = System.nanoTime();
+        Optional<Product> locked = productRepository.findByIdWithLock(productId);
+        long lockWaitNanos = System.nanoTime() - lockRequestedAt;
+        if (locked.isEmpty()) {
+            ProductNotFoundException notFound = new ProductNotFoundException(productId);
+            return adjustments.stream().map(adjustment -> StockAdjustmentOutcome.failed(notFound)).toList();
+        }
+        Product product = locked.get();
+        for (int i = 0; i < adjustments.size(); i++) {
+            hotStockManager.recordStockOperation(productId, i == 0 ? lockWaitNanos : 0);
+        }
+        
+        // The product may be hot; its movements are then served from the counters one by one
+        if (hotStockManager.isHot(productId)) {
+            List<StockAdjustmentOutcome> outcomes = applyHotAdjustments(productId, adjustments);
+            if (outcomes != null) {
+                return outcomes;
+            }
+        }
+        
+        // Replay the movements in arrival order against a running quantity
+        int quantity = product.getStockQuantity();
+        int reserved = product.getReservedQuantity();
+        List<Integer> quantities = new ArrayList<>(adjustments.size());
+        List<RuntimeException> failures = new ArrayList<>(adjustments.size());
+        for (StockAdjustment adjustment : adjustments) {
+            RuntimeException failure = null;
+            if (adjustment.operation() == StockBatchLineDTO.Operation.ADD) {
+                if (quantity > Integer.MAX_VALUE - adjustment.quantity()) {
+                    failure = new InvalidStockOperationException(
+                        "Stock addition would exceed maximum allowed value");
+                } else {
+                    quantity += adjustment.quantity();
+                }
+            } else if (quantity - reserved < adjustment.quantity()) {
+                failure = new InsufficientStockException(productId, adjustment.quantity(), quantity - reserved);
+            } else {
+                quantity -= adjustment.quantity();
+            }
+            quantities.add(quantity);
+            failures.add(failure);
+        }
+        
+        Product updatedProduct = product;
+        if (quantity != product.getStockQuantity()) {
+            product.setStockQuantity(quantity);
+            updatedProduct = productRepository.saveAndFlush(product);
+            productCache.refreshAfterCommit(updatedProduct);
+            productChangeFeed.record(updatedProduct.getId(), ProductChange.Type.UPSERT);
+            log.info("Applied {} coalesced stock movements to product ID: {}. New stock: {}",
+                adjustments.size(), productId, quantity);
+        }
+        
+        // Each caller sees the stock as its own movement left it
+        ProductDTO template = productMapper.toDTO(updatedProduct);
+        List<StockAdjustmentOutcome> outcomes = new ArrayList<>(adjustments.size());
+        for (int i = 0; i < adjustments.size(); i++) {
+            if (failures.get(i) != null) {
+                outcomes.add(StockAdjustmentOutcome.failed(failures.get(i)));
+            } else {
+                int callerQuantity = quantities.get(i);
+                outcomes.add(StockAdjustmentOutcome.applied(recordMovement(template.toBuilder()
+                    .stockQuantity(callerQuantity)
+                    .availableQuantity(callerQuantity - reserved)
+                    .isLowStock(callerQuantity <= updatedProduct.getLowStockThreshold())
+                    .build(), adjustments.get(i).signedQuantity(), movementReason(adjustments.get(i)))));
+            }
+        }
+        return outcomes;
+    }
+    
+    /**
+     * Serve coalesced movements from the hot-SKU counters.
+     *
+     * @return the outcomes of the movements applied before the product left hot mode,
+     *         or null when it left before the first one
+     */
+    private List<StockAdjustmentOutcome> applyHotAdjustments(Long productId, List<StockAdjustment> adjustments) {
+        List<StockAdjustmentOutcome> outcomes = new ArrayList<>(adjustments.size());
+        for (StockAdjustment adjustment : adjustments) {
+            try {
+                Optional<ProductDTO> hotResult = adjustment.operation() == StockBatchLineDTO.Operation.ADD
+                    ? hotStockManager.addStock(productId, adjustment.quantity())
+                    : hotStockManager.removeStock(productId, adjustment.quantity());
+                if (hotResult.isEmpty()) {
+                    // Demoted midway: its write-back waits for our row lock, so the rest is left to the caller
+                    return outcomes.isEmpty() ? null : outcomes;
+                }
+                outcomes.add(StockAdjustmentOutcome.applied(
+                    announceMovement(hotResult.get(), adjustment.signedQuantity())));
+            } catch (InsufficientStockException | InvalidStockOperationException ex) {
+                outcomes.add(StockAdjustmentOutcome.failed(ex));
+            }
+        }
+        return outcomes;
     }
     
     @Override
     public List<ProductDTO> getLowStockProducts() {
+        return getLowStockProducts(ProductFields.ALL);
+    }
+    
+    @Override
+    public List<ProductDTO> getLowStockProducts(ProductFields fields) {
         log.debug("Fetching products with low stock");
-        List<Product> lowStockProducts = productRepository.findLowStockProducts();
+        List<ProductViewDTO> lowStockProducts = fields.isAll()
+            ? productRepository.findLowStockProducts()
+            : productRepository.findSparseViews(fields, ProductRepository.LOW_STOCK, Map.of(), 0);
         
         log.info("Found {} products with low stock", lowStockProducts.size());
         return lowStockProducts.stream()
-            .map(productMapper::toDTO)
+            .map(product -> toDTO(product, fields))
             .collect(Collectors.toList());
     }
     
+    @Override
+    public CursorPageDTO<ProductDTO> getLowStockProducts(Long after, int limit) {
+        return getLowStockProducts(after, limit, ProductFields.ALL);
+    }
+    
+    @Override
+    public CursorPageDTO<ProductDTO> getLowStockProducts(Long after, int limit, ProductFields fields) {
+        validatePageSize(limit);
+        log.debug("Fetching up to {} products with low stock after ID: {}", limit, after);
+        Long cursor = after != null ? after : 0L;
+        List<ProductViewDTO> products = fields.isAll()
+            ? productRepository.findLowStockProductsAfter(cursor, PageRequest.of(0, limit + 1))
+            : productRepository.findSparseViews(fields, ProductRepository.LOW_STOCK_AFTER,
+                Map.of("after", cursor), limit + 1);
+        return toPage(products, limit, fields);
+    }
+    
     @Override
     public List<ProductDTO> searchProductsByName(String name) {
         log.debug("Searching products by name: {}", name);
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(name);
-        return products.stream()
-            .map(productMapper::toDTO)
+        return search(name, Integer.MAX_VALUE);
+    }
+    
+    @Override
+    public List<ProductDTO> searchProductsByName(String name, int limit) {
+        validatePageSize(limit);
+        log.debug("Searching up to {} products by name: {}", limit, name);
+        return search(name, limit);
+    }
+    
+    @Override
+    public List<ProductDTO> searchProductsByNameFuzzy(String name, int limit) {
+        validatePageSize(limit);
+        log.debug("Fuzzy search for up to {} products by name: {}", limit, name);
+        List<Long> ids = productFuzzyIndex.search(name, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // The query returns ID order; restore the ranking of the index
+        Map<Long, ProductViewDTO> products = productRepository.findViewsByIdIn(ids).stream()
+            .collect(Collectors.toMap(ProductViewDTO::id, product -> product));
+        return ids.stream()
+            .filter(products::containsKey)
+            .map(id -> toDTO(products.get(id)))
+            .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<ProductSuggestionDTO> autocomplete(String prefix, int limit) {
+        validatePageSize(limit);
+        return productCompletionIndex.complete(prefix, limit);
+    }
+    
+    @Override
+    public FullTextPageDTO searchFullText(String query, int page, int size) {
+        validatePageSize(size);
+        if (page < 0 || (long) page * size + size > ProductFullTextIndex.MAX_RESULT_WINDOW) {
+            throw new IllegalArgumentException("Page must be between 0 and "
+                + (ProductFullTextIndex.MAX_RESULT_WINDOW / size - 1) + " for page size " + size);
+        }
+        log.debug("Full-text search for '{}', page {} of size {}", query, page, size);
+        ProductFullTextIndex.Result result = productFullTextIndex.search(query, page * size, size);
+        if (result.hits().isEmpty()) {
+            return new FullTextPageDTO(List.of(), result.totalHits(), page, size);
+        }
+        
+        // Stock comes from the database; hits whose product was deleted since indexing are dropped
+        Map<Long, ProductViewDTO> products = productRepository.findViewsByIdIn(
+                result.hits().stream().map(ProductFullTextIndex.Hit::productId).toList()).stream()
+            .collect(Collectors.toMap(ProductViewDTO::id, product -> product));
+        List<FullTextHitDTO> hits = result.hits().stream()
+            .filter(hit -> products.containsKey(hit.productId()))
+            .map(hit -> new FullTextHitDTO(toDTO(products.get(hit.productId())), hit.score(),
+                hit.nameHighlight(), hit.descriptionHighlight()))
             .collect(Collectors.toList());
+        return new FullTextPageDTO(hits, result.totalHits(), page, size);
+    }
+    
+    /**
+     * Find the matching IDs in the name index and load only those rows, in bounded IN lists.
+     * Each row is checked against the name again, because the index may briefly lag the database.
+     */
+    private List<ProductDTO> search(String name, int limit) {
+        String text = name.toLowerCase(Locale.ROOT);
+        List<Long> ids = productNameIndex.search(text, limit);
+        List<ProductDTO> products = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_PAGE_SIZE) {
+            productRepository.findViewsByIdIn(ids.subList(from, Math.min(from + MAX_PAGE_SIZE, ids.size()))).stream()
+                .filter(product -> product.name().toLowerCase(Locale.ROOT).contains(text))
+                .map(this::toDTO)
+                .forEach(products::add);
+        }
+        return products;
+    }
+    
+    /**
+     * Without hot stock a product's representation is fully determined by its version; a hot
+     * product keeps its version while its counters move, so the unreserved stock is part of the tag
+     */
+    private static String productETag(Long version, Integer availableQuantity) {
+        return version + "-" + availableQuantity;
+    }
+    
+    private String currentETag(Long productId, Long version, int availableQuantity) {
+        return productETag(version, hotStockManager.hotAvailableQuantity(productId).orElse(availableQuantity));
+    }
+    
+    private static void validatePageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    /**
+     * Turn a keyset query that fetched one row more than the limit into a page and its next cursor
+     */
+    private CursorPageDTO<ProductDTO> toPage(List<ProductViewDTO> products, int limit, ProductFields fields) {
+        boolean hasMore = products.size() > limit;
+        List<ProductDTO> items = products.stream()
+            .limit(limit)
+            .map(product -> toDTO(product, fields))
+            .toList();
+        
+        return CursorPageDTO.<ProductDTO>builder()
+            .items(items)
+            .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+            .build();
+    }
+    
+    /**
+     * Map a product for a read, overlaying the live stock of hot products
+     */
+    private ProductDTO toDTO(Product product) {
+        ProductDTO dto = productMapper.toDTO(product);
+        hotStockManager.applyHotStock(dto);
+        return dto;
+    }
+    
+    /**
+     * Map a read-only projection, overlaying the live stock of hot products
+     */
+    private ProductDTO toDTO(ProductViewDTO product) {
+        ProductDTO dto = productMapper.toDTO(product);
+        hotStockManager.applyHotStock(dto);
+        return dto;
+    }
+    
+    /**
+     * Map a view read for some fields only, serializing just those fields; without the stock
+     * columns there is nothing to derive or overlay
+     */
+    private ProductDTO toDTO(ProductViewDTO product, ProductFields fields) {
+        if (fields.includesStock()) {
+            return fields.project(toDTO(product));
+        }
+        return fields.project(ProductDTO.builder()
+            .id(product.id())
+            .name(product.name())
+            .description(product.description())
+            .createdAt(product.createdAt())
+            .updatedAt(product.updatedAt())
+            .build());
     }
 }
\ No newline at end of file
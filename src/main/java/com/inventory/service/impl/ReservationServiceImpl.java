@@ -0,0 +1,186 @@
+package com.inventory.service.impl;
+
+import com.inventory.cache.ProductCache;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ReservationCreateDTO;
+import com.inventory.dto.ReservationDTO;
+import com.inventory.entity.Product;
+import com.inventory.entity.ProductChange;
+import com.inventory.entity.StockMovement;
+import com.inventory.entity.StockReservation;
+import com.inventory.event.StockLevelChangedEvent;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.InvalidStockOperationException;
+import com.inventory.exception.ProductNotFoundException;
+import com.inventory.exception.ReservationNotFoundException;
+import com.inventory.feed.ProductChangeFeed;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.service.ReservationService;
+import com.inventory.stock.HotStockManager;
+import com.inventory.stock.ReservationExpiryScheduler;
+import com.inventory.stock.StockLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Service implementation for stock reservations.
+ * <p>
+ * Every operation locks the product row before it reads the reservation, so reservation
+ * changes and regular stock movements on the same product are serialized by one lock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ReservationServiceImpl implements ReservationService {
+    
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final HotStockManager hotStockManager;
+    private final ReservationExpiryScheduler expiryScheduler;
+    private final StockLedger stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryProperties inventoryProperties;
+    private final ProductCache productCache;
+    private final ProductChangeFeed productChangeFeed;
+    
+    @Override
+    @Transactional
+    public ReservationDTO reserve(Long productId, ReservationCreateDTO createDTO) {
+        int quantity = createDTO.getQuantity();
+        int ttlSeconds = createDTO.getTtlSeconds() != null
+            ? createDTO.getTtlSeconds()
+            : inventoryProperties.getReservations().getDefaultTtlSeconds();
+        log.debug("Reserving {} units of product ID: {} for {} seconds", quantity, productId, ttlSeconds);
+        
+        // Hot products keep their stock in memory; reservations need the row to be authoritative
+        hotStockManager.pin(productId);
+        try {
+            Product product = productRepository.findByIdWithLock(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+            if (product.getAvailableQuantity() < quantity) {
+                throw new InsufficientStockException(productId, quantity, product.getAvailableQuantity());
+            }
+            product.reserve(quantity);
+            productRepository.save(product);
+            productCache.refreshAfterCommit(product);
+            productChangeFeed.record(product.getId(), ProductChange.Type.UPSERT);
+            
+            StockReservation reservation = reservationRepository.save(StockReservation.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .status(StockReservation.Status.ACTIVE)
+                .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                .build());
+            expiryScheduler.track(reservation.getId(), reservation.getExpiresAt());
+            
+            log.info("Reserved {} units of product ID: {} as reservation ID: {}. Available: {}",
+                quantity, productId, reservation.getId(), product.getAvailableQuantity());
+            return toDTO(reservation, product);
+        } finally {
+            hotStockManager.unpin(productId);
+        }
+    }
+    
+    @Override
+    @Transactional
+    public ReservationDTO confirm(Long reservationId) {
+        log.debug("Confirming reservation ID: {}", reservationId);
+        return resolve(reservationId, StockReservation.Status.CONFIRMED)
+            .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+    }
+    
+    @Override
+    @Transactional
+    public ReservationDTO release(Long reservationId) {
+        log.debug("Releasing reservation ID: {}", reservationId);
+        return resolve(reservationId, StockReservation.Status.RELEASED)
+            .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+    }
+    
+    @Override
+    @Transactional
+    public void expireReservation(Long reservationId) {
+        try {
+            resolve(reservationId, StockReservation.Status.EXPIRED);
+        } catch (InvalidStockOperationException | ProductNotFoundException ex) {
+            // Confirmed or released while the expiry was due, or the product is gone
+            log.debug("Reservation ID: {} needs no expiry: {}", reservationId, ex.getMessage());
+        }
+    }
+    
+    /**
+     * Move an active reservation to its final status and apply its effect on the product.
+     *
+     * @return the resolved reservation, or empty when it does not exist
+     */
+    private Optional<ReservationDTO> resolve(Long reservationId, StockReservation.Status outcome) {
+        Optional<Long> productId = reservationRepository.findProductIdById(reservationId);
+        if (productId.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        hotStockManager.pin(productId.get());
+        try {
+            // Lock the product first, then read the reservation under that lock
+            Product product = productRepository.findByIdWithLock(productId.get())
+                .orElseThrow(() -> new ProductNotFoundException(productId.get()));
+            StockReservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+            if (!reservation.isActive()) {
+                throw new InvalidStockOperationException(String.format(
+                    "Reservation with ID %d is already %s", reservationId, reservation.getStatus()));
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (outcome == StockReservation.Status.CONFIRMED && reservation.getExpiresAt().isBefore(now)) {
+                throw new InvalidStockOperationException(String.format(
+                    "Reservation with ID %d has expired", reservationId));
+            }
+            
+            if (outcome == StockReservation.Status.CONFIRMED) {
+                product.confirmReservation(reservation.getQuantity());
+                stockLedger.record(product.getId(), -reservation.getQuantity(),
+                    product.getStockQuantity(), StockMovement.Reason.RESERVATION);
+                eventPublisher.publishEvent(new StockLevelChangedEvent(product.getId(), product.getName(),
+                    -reservation.getQuantity(), product.getStockQuantity(), product.getLowStockThreshold()));
+            } else {
+                product.releaseReservation(reservation.getQuantity());
+            }
+            productRepository.save(product);
+            productCache.refreshAfterCommit(product);
+            productChangeFeed.record(product.getId(), ProductChange.Type.UPSERT);
+            reservation.setStatus(outcome);
+            reservation.setResolvedAt(now);
+            reservationRepository.save(reservation);
+            if (outcome != StockReservation.Status.EXPIRED) {
+                expiryScheduler.untrack(reservationId);
+            }
+            
+            log.info("Reservation ID: {} {} for product ID: {}. Stock: {}, available: {}",
+                reservationId, outcome, product.getId(), product.getStockQuantity(), product.getAvailableQuantity());
+            return Optional.of(toDTO(reservation, product));
+        } finally {
+            hotStockManager.unpin(productId.get());
+        }
+    }
+    
+    private ReservationDTO toDTO(StockReservation reservation, Product product) {
+        return ReservationDTO.builder()
+            .id(reservation.getId())
+            .productId(reservation.getProductId())
+            .quantity(reservation.getQuantity())
+            .status(reservation.getStatus())
+            .availableQuantity(product.getAvailableQuantity())
+            .expiresAt(reservation.getExpiresAt())
+            .createdAt(reservation.getCreatedAt())
+            .resolvedAt(reservation.getResolvedAt())
+            .build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventory.service.impl;
+
+import com.inventory.dto.CursorPageDTO;
+import com.inventory.dto.StockMovementDTO;
+import com.inventory.entity.StockMovement;
+import com.inventory.exception.ProductNotFoundException;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockMovementRepository;
+import com.inventory.service.StockMovementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Service implementation for reading the stock movement ledger
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class StockMovementServiceImpl implements StockMovementService {
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    private final StockMovementRepository stockMovementRepository;
+    private final ProductRepository productRepository;
+    
+    @Override
+    public CursorPageDTO<StockMovementDTO> getMovements(Long productId, Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.debug("Fetching up to {} stock movements of product ID: {} after movement ID: {}", limit, productId, after);
+        if (!productRepository.existsById(productId)) {
+            throw new ProductNotFoundException(productId);
+        }
+        
+        // Fetch one extra row to learn whether there is a next page
+        List<StockMovement> movements = stockMovementRepository.findPage(
+            productId, after != null ? after : 0L, PageRequest.of(0, limit + 1));
+        boolean hasMore = movements.size() > limit;
+        List<StockMovementDTO> items = movements.stream()
+            .limit(limit)
+            .map(this::toDTO)
+            .toList();
+        
+        return CursorPageDTO.<StockMovementDTO>builder()
+            .items(items)
+            .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+            .build();
+    }
+    
+    private StockMovementDTO toDTO(StockMovement movement) {
+        return StockMovementDTO.builder()
+            .id(movement.getId())
+            .productId(movement.getProductId())
+            .delta(movement.getDelta())
+            .resultingQuantity(movement.getResultingQuantity())
+            .reason(movement.getReason())
+            .createdAt(movement.getCreatedAt())
+            .build();
+    }
+}
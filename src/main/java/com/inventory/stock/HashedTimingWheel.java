@@ -0,0 +1,124 @@
+package com.inventory.stock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel for cheap expiry of a very large number of timeouts.
+ * <p>
+ * Scheduling and cancelling are O(1); each tick only visits the entries hashed
+ * into the current bucket, so the cost of expiry does not depend on how many
+ * timeouts are pending. Deadlines are rounded up to the tick duration.
+ * The wheel does not own a thread: the caller drives it with {@link #advance(long)}.
+ *
+ * @param <K> key identifying a timeout
+ */
+public class HashedTimingWheel<K> {
+    
+    private final long tickMillis;
+    private final long startMillis;
+    private final Entry<K>[] buckets;
+    private final int mask;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long currentTick;
+    
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        int size = wheelSize <= 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.buckets = (Entry<K>[]) new Entry[size];
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Schedule (or reschedule) a timeout for the given key
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(currentTick,
+            (deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+        Entry<K> entry = new Entry<>(key, (deadlineTick - currentTick) / buckets.length);
+        int bucket = (int) (deadlineTick & mask);
+        entry.bucket = bucket;
+        entry.next = buckets[bucket];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        buckets[bucket] = entry;
+        entries.put(key, entry);
+    }
+    
+    /**
+     * Cancel a pending timeout.
+     *
+     * @return true when the key was pending
+     */
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+    
+    /**
+     * Move the wheel forward to the given time and return every key whose deadline has passed
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        while (currentTick <= targetTick) {
+            Entry<K> entry = buckets[(int) (currentTick & mask)];
+            while (entry != null) {
+                Entry<K> next = entry.next;
+                if (entry.remainingRounds <= 0) {
+                    unlink(entry);
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    entry.remainingRounds--;
+                }
+                entry = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private void unlink(Entry<K> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            buckets[entry.bucket] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+    
+    private static final class Entry<K> {
+        private final K key;
+        private long remainingRounds;
+        private int bucket;
+        private Entry<K> prev;
+        private Entry<K> next;
+        
+        private Entry(K key, long remainingRounds) {
+            this.key = key;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+}
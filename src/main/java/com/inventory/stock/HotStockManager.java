@@ -0,0 +1,635 @@
+package com.inventory.stock;
+
+import com.inventory.cache.ProductCache;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductDTO;
+import com.inventory.entity.Product;
+import com.inventory.entity.ProductChange;
+import com.inventory.entity.StockMovement;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.exception.InvalidStockOperationException;
+import com.inventory.feed.ProductChangeFeed;
+import com.inventory.mapper.ProductMapper;
+import com.inventory.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot-SKU mode for heavily contended products.
+ * <p>
+ * A promoted product keeps its unreserved stock in a {@link StripedStockCounter}; stock movements
+ * update the counter without touching the database and the net change is written back
+ * to the products table in periodic batched UPDATEs. Products are promoted when their
+ * movements queue up on the row lock and demoted again once traffic calms down.
+ * <p>
+ * Inside a transaction the counters only ever hold committed stock: additions are applied when
+ * the transaction commits, removals are taken right away and put back if it rolls back. Until then
+ * the product stays open, so demoting it waits for the transaction to finish.
+ * <p>
+ * The ledger entries of hot movements are queued when they commit and written by the write-back
+ * that carries their stock to the products table, in the same transaction, so a movement only reaches
+ * the ledger together with its stock and both are lost together if the application dies before the flush.
+ */
+@Component
+@Slf4j
+public class HotStockManager {
+    
+    /**
+     * Write-back applies the net delta rather than an absolute value, so movements that
+     * reached the database through the regular path are never overwritten. The low-stock
+     * flag comes first so it is computed from the old quantity on every database. The version
+     * is left alone, so product edits that read the row before a write-back do not fail on it.
+     */
+    private static final String FLUSH_SQL =
+        "UPDATE products SET low_stock = CASE WHEN stock_quantity + ? <= low_stock_threshold THEN TRUE ELSE FALSE END, " +
+        "stock_quantity = stock_quantity + ?, updated_at = ? " +
+        "WHERE id = ? AND stock_quantity - reserved_quantity + ? >= 0";
+    /**
+     * Retry for rows the guarded write-back did not match. The movements were already acknowledged,
+     * so they are written even when the row was changed outside the application and ends up oversold.
+     */
+    private static final String FORCE_FLUSH_SQL =
+        "UPDATE products SET low_stock = CASE WHEN stock_quantity + ? <= low_stock_threshold THEN TRUE ELSE FALSE END, " +
+        "stock_quantity = stock_quantity + ?, updated_at = ? " +
+        "WHERE id = ?";
+    
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCache productCache;
+    private final ProductChangeFeed productChangeFeed;
+    private final StockLedger stockLedger;
+    private final InventoryProperties.HotStock settings;
+    private final int stripes;
+    
+    private final Map<Long, HotSku> hotSkus = new ConcurrentHashMap<>();
+    private final Map<Long, Contention> contention = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    /**
+     * Products that must stay on the database path, with the number of callers holding them there
+     */
+    private final Map<Long, Integer> pins = new HashMap<>();
+    
+    public HotStockManager(ProductRepository productRepository,
+                           ProductMapper productMapper,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ProductCache productCache,
+                           ProductChangeFeed productChangeFeed,
+                           StockLedger stockLedger,
+                           InventoryProperties inventoryProperties) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.productCache = productCache;
+        this.productChangeFeed = productChangeFeed;
+        this.stockLedger = stockLedger;
+        this.settings = inventoryProperties.getHotStock();
+        this.stripes = settings.getStripes() > 0
+            ? settings.getStripes()
+            : Runtime.getRuntime().availableProcessors();
+    }
+    
+    public boolean isHot(Long productId) {
+        return hotSkus.containsKey(productId);
+    }
+    
+    /**
+     * Record a stock movement that went through the database, with the time it waited for the row
+     */
+    public void recordStockOperation(Long productId, long lockWaitNanos) {
+        if (settings.isEnabled()) {
+            contention.computeIfAbsent(productId, id -> new Contention()).record(lockWaitNanos);
+        }
+    }
+    
+    /**
+     * Add stock to a hot product.
+     *
+     * @return the updated product, or empty when the product is not hot and the caller must use the database
+     */
+    public Optional<ProductDTO> addStock(Long productId, int quantity) {
+        HotSku sku = enter(productId);
+        if (sku == null) {
+            return Optional.empty();
+        }
+        try {
+            Movement pending = TransactionSynchronizationManager.isSynchronizationActive()
+                ? pendingStock().of(sku)
+                : null;
+            long added = pending != null ? pending.added : 0;
+            if (sku.counter.sum() + added + sku.template.getReservedQuantity() > Integer.MAX_VALUE - quantity) {
+                throw new InvalidStockOperationException(
+                    "Stock addition would exceed maximum allowed value");
+            }
+            recordStockOperation(productId, 0);
+            if (pending == null) {
+                sku.counter.add(quantity);
+                return Optional.of(sku.logged(sku.snapshot(0), quantity, StockMovement.Reason.ADD));
+            }
+            pending.added += quantity;
+            return Optional.of(pending.logged(sku.snapshot(pending.added), quantity, StockMovement.Reason.ADD));
+        } finally {
+            sku.exit();
+        }
+    }
+    
+    /**
+     * Remove stock from a hot product.
+     *
+     * @return the updated product, or empty when the product is not hot and the caller must use the database
+     * @throws InsufficientStockException when the counters do not hold enough stock
+     */
+    public Optional<ProductDTO> removeStock(Long productId, int quantity) {
+        HotSku sku = enter(productId);
+        if (sku == null) {
+            return Optional.empty();
+        }
+        try {
+            Movement pending = TransactionSynchronizationManager.isSynchronizationActive()
+                ? pendingStock().of(sku)
+                : null;
+            // Stock this transaction added is not in the counters yet, so it is taken first
+            long fromPending = pending != null ? Math.min(pending.added, quantity) : 0;
+            long fromCounter = quantity - fromPending;
+            if (fromCounter > 0 && !sku.counter.tryRemove(fromCounter)) {
+                throw new InsufficientStockException(productId, quantity, (int) (sku.counter.sum() + fromPending));
+            }
+            recordStockOperation(productId, 0);
+            if (pending == null) {
+                return Optional.of(sku.logged(sku.snapshot(0), -quantity, StockMovement.Reason.REMOVE));
+            }
+            pending.added -= fromPending;
+            pending.removed += fromCounter;
+            return Optional.of(pending.logged(sku.snapshot(pending.added), -quantity, StockMovement.Reason.REMOVE));
+        } finally {
+            sku.exit();
+        }
+    }
+    
+    /**
+     * Overlay the in-memory stock of a hot product onto a DTO read from the database
+     */
+    public void applyHotStock(ProductDTO product) {
+        HotSku sku = hotSkus.get(product.getId());
+        if (sku != null) {
+            int available = (int) sku.counter.sum();
+            int quantity = available + product.getReservedQuantity();
+            product.setStockQuantity(quantity);
+            product.setAvailableQuantity(available);
+            product.setLowStock(quantity <= product.getLowStockThreshold());
+        }
+    }
+    
+    /**
+     * Live unreserved stock of a hot product; empty when the product is served from the database
+     */
+    public Optional<Integer> hotAvailableQuantity(Long productId) {
+        HotSku sku = hotSkus.get(productId);
+        return sku != null ? Optional.of((int) sku.counter.sum()) : Optional.empty();
+    }
+    
+    /**
+     * Order-independent fingerprint of the live counters of all hot products, 0 when none is hot.
+     * Responses that overlay hot stock fold it into their entity tags.
+     */
+    public long fingerprint() {
+        long fingerprint = 0;
+        for (HotSku sku : hotSkus.values()) {
+            long hash = sku.template.getId() * 0x9E3779B97F4A7C15L ^ sku.counter.sum();
+            hash ^= hash >>> 33;
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 33;
+            fingerprint += hash;
+        }
+        return fingerprint;
+    }
+    
+    /**
+     * Pick up name, description and threshold changes of a hot product
+     */
+    public void refresh(ProductDTO product) {
+        HotSku sku = hotSkus.get(product.getId());
+        if (sku != null) {
+            sku.template = product;
+        }
+    }
+    
+    /**
+     * Write back and leave hot mode, e.g. before a batch or reservation that must lock the row
+     */
+    public void demote(Long productId) {
+        HotSku sku = hotSkus.get(productId);
+        if (sku == null) {
+            return;
+        }
+        sku.close();
+        synchronized (flushLock) {
+            writeBack(List.of(sku));
+            hotSkus.remove(productId, sku);
+        }
+        log.info("Product ID: {} left hot-SKU mode", productId);
+    }
+    
+    /**
+     * Demote a product and keep it from being promoted until {@link #unpin(Long)}.
+     * Used by operations that change the reserved quantity, which the counters do not track.
+     */
+    public void pin(Long productId) {
+        synchronized (pins) {
+            pins.merge(productId, 1, Integer::sum);
+        }
+        demote(productId);
+    }
+    
+    public void unpin(Long productId) {
+        synchronized (pins) {
+            pins.computeIfPresent(productId, (id, count) -> count == 1 ? null : count - 1);
+        }
+    }
+    
+    /**
+     * Drop a deleted product once the current transaction commits
+     */
+    public void evictAfterCommit(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(productId);
+            }
+        });
+    }
+    
+    /**
+     * Drop a deleted product without writing anything back
+     */
+    public void evict(Long productId) {
+        HotSku sku = hotSkus.remove(productId);
+        if (sku != null) {
+            sku.close();
+        }
+        contention.remove(productId);
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.hot-stock.flush-interval-ms:100}")
+    public void flush() {
+        if (hotSkus.isEmpty()) {
+            return;
+        }
+        synchronized (flushLock) {
+            writeBack(new ArrayList<>(hotSkus.values()));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.hot-stock.evaluation-window-ms:1000}")
+    public void evaluateContention() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        for (Long productId : hotSkus.keySet()) {
+            Contention observed = contention.get(productId);
+            if (observed == null || observed.operations.sum() < settings.getDemoteOpsPerWindow()) {
+                demote(productId);
+            }
+        }
+        contention.forEach((productId, observed) -> {
+            long operations = observed.operations.sumThenReset();
+            long lockWaitMs = TimeUnit.NANOSECONDS.toMillis(observed.lockWaitNanos.sumThenReset());
+            if (operations == 0) {
+                contention.remove(productId, observed);
+            } else if (!isHot(productId)
+                    && operations >= settings.getPromoteOpsPerWindow()
+                    && lockWaitMs >= settings.getPromoteLockWaitMs()
+                    && hotSkus.size() < settings.getMaxHotProducts()) {
+                promote(productId, operations, lockWaitMs);
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+    
+    /**
+     * Seed the counters while holding the row lock, so every movement that queued on the
+     * lock before promotion is already counted and every later one sees the product as hot
+     */
+    private void promote(Long productId, long operations, long lockWaitMs) {
+        Boolean promoted = transactionTemplate.execute(status -> {
+            Optional<Product> locked = productRepository.findByIdWithLock(productId);
+            if (locked.isEmpty()) {
+                return false;
+            }
+            Product product = locked.get();
+            HotSku sku = new HotSku(productMapper.toDTO(product),
+                new StripedStockCounter(product.getAvailableQuantity(), stripes));
+            synchronized (pins) {
+                if (pins.containsKey(productId)) {
+                    return false;
+                }
+                hotSkus.put(productId, sku);
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(promoted)) {
+            return;
+        }
+        log.info("Product ID: {} entered hot-SKU mode after {} movements with {} ms lock wait",
+            productId, operations, lockWaitMs);
+    }
+    
+    /**
+     * Write the net change of each product since its last write-back in one JDBC batch,
+     * together with the ledger entries of the movements committed since. Callers must hold the flush lock.
+     */
+    private void writeBack(List<HotSku> skus) {
+        List<HotSku> dirty = new ArrayList<>();
+        List<Long> observed = new ArrayList<>();
+        Map<HotSku, List<StockMovement>> logged = new HashMap<>();
+        List<StockMovement> movements = new ArrayList<>();
+        for (HotSku sku : skus) {
+            List<StockMovement> unwritten = new ArrayList<>(sku.unwritten);
+            if (!unwritten.isEmpty()) {
+                logged.put(sku, unwritten);
+                movements.addAll(unwritten);
+            }
+            long current = sku.counter.sum();
+            if (current != sku.persistedQuantity) {
+                dirty.add(sku);
+                observed.add(current);
+            }
+        }
+        if (dirty.isEmpty() && movements.isEmpty()) {
+            return;
+        }
+        
+        List<Long> deltas = new ArrayList<>(dirty.size());
+        for (int i = 0; i < dirty.size(); i++) {
+            deltas.add(observed.get(i) - dirty.get(i).persistedQuantity);
+        }
+        int[] counts = applyDeltas(true, dirty, deltas, movements);
+        // Only the flush takes entries off the queues, so the written ones are still at their heads
+        logged.forEach((sku, written) -> written.forEach(movement -> sku.unwritten.poll()));
+        
+        // Acknowledged movements are never dropped: refused rows are retried without the guard,
+        // and only a product that no longer exists loses its counters
+        List<HotSku> refused = new ArrayList<>();
+        List<Long> refusedDeltas = new ArrayList<>();
+        for (int i = 0; i < dirty.size(); i++) {
+            if (counts[i] == 0) {
+                refused.add(dirty.get(i));
+                refusedDeltas.add(deltas.get(i));
+            }
+        }
+        int[] retried = refused.isEmpty() ? new int[0] : applyDeltas(false, refused, refusedDeltas, List.of());
+        for (int i = 0; i < refused.size(); i++) {
+            HotSku sku = refused.get(i);
+            if (retried[i] == 0) {
+                log.info("Hot product ID: {} was deleted, dropping its counters", sku.template.getId());
+                evict(sku.template.getId());
+            } else {
+                log.error("Write-back of {} for hot product ID: {} exceeded the stock left in its row, "
+                    + "which was changed outside the application", refusedDeltas.get(i), sku.template.getId());
+            }
+        }
+        
+        for (int i = 0; i < dirty.size(); i++) {
+            HotSku sku = dirty.get(i);
+            sku.persistedQuantity = observed.get(i);
+            // The write-back has committed, so the cached row is outdated
+            productCache.evict(sku.template.getId());
+        }
+    }
+    
+    /**
+     * Apply one delta per product in a single JDBC batch and record the updated products in the change feed
+     *
+     * @param guarded whether a delta that would leave negative unreserved stock is refused
+     * @param movements ledger entries written in the same transaction
+     * @return the number of rows each statement matched
+     */
+    private int[] applyDeltas(boolean guarded, List<HotSku> skus, List<Long> deltas, List<StockMovement> movements) {
+        String sql = guarded ? FLUSH_SQL : FORCE_FLUSH_SQL;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return transactionTemplate.execute(status -> {
+            stockLedger.recordAll(movements);
+            if (skus.isEmpty()) {
+                return new int[0];
+            }
+            int[] updated = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    long delta = deltas.get(i);
+                    ps.setLong(1, delta);
+                    ps.setLong(2, delta);
+                    ps.setTimestamp(3, now);
+                    ps.setLong(4, skus.get(i).template.getId());
+                    if (guarded) {
+                        ps.setLong(5, delta);
+                    }
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return skus.size();
+                }
+            });
+            for (int i = 0; i < skus.size(); i++) {
+                if (updated[i] != 0) {
+                    productChangeFeed.record(skus.get(i).template.getId(), ProductChange.Type.UPSERT);
+                }
+            }
+            return updated;
+        });
+    }
+    
+    /**
+     * Hot stock moved by the current transaction; looked up among its synchronizations rather
+     * than bound as a resource, so a nested REQUIRES_NEW transaction keeps its own
+     */
+    private PendingStock pendingStock() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingStock pending) {
+                return pending;
+            }
+        }
+        PendingStock pending = new PendingStock();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+    
+    private HotSku enter(Long productId) {
+        HotSku sku = hotSkus.get(productId);
+        if (sku == null) {
+            return null;
+        }
+        sku.inFlight.increment();
+        if (sku.closed) {
+            sku.inFlight.decrement();
+            return null;
+        }
+        return sku;
+    }
+    
+    private static final class HotSku {
+        private final StripedStockCounter counter;
+        private final LongAdder inFlight = new LongAdder();
+        /**
+         * Committed movements whose ledger entries wait for the next write-back
+         */
+        private final Queue<StockMovement> unwritten = new ConcurrentLinkedQueue<>();
+        private volatile ProductDTO template;
+        private volatile boolean closed;
+        /**
+         * Quantity last written to the database, guarded by the flush lock
+         */
+        private long persistedQuantity;
+        
+        private HotSku(ProductDTO template, StripedStockCounter counter) {
+            this.template = template;
+            this.counter = counter;
+            this.persistedQuantity = counter.sum();
+        }
+        
+        /**
+         * @param pendingAdded stock the calling transaction added that is not in the counters yet
+         */
+        private ProductDTO snapshot(long pendingAdded) {
+            ProductDTO current = template;
+            int available = (int) (counter.sum() + pendingAdded);
+            int quantity = available + current.getReservedQuantity();
+            return current.toBuilder()
+                .stockQuantity(quantity)
+                .availableQuantity(available)
+                .isLowStock(quantity <= current.getLowStockThreshold())
+                .build();
+        }
+        
+        private ProductDTO logged(ProductDTO product, int delta, StockMovement.Reason reason) {
+            unwritten.add(ledgerEntry(product, delta, reason));
+            return product;
+        }
+        
+        private void exit() {
+            inFlight.decrement();
+        }
+        
+        /**
+         * Refuse new movements and wait for the ones in progress to finish
+         */
+        private void close() {
+            closed = true;
+            while (inFlight.sum() != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+    
+    private static final class Movement {
+        /**
+         * Added by the transaction, applied to the counters when it commits
+         */
+        private long added;
+        /**
+         * Taken from the counters by the transaction, put back if it rolls back
+         */
+        private long removed;
+        /**
+         * Ledger entries of the transaction, queued for write-back when it commits
+         */
+        private final List<StockMovement> ledger = new ArrayList<>();
+        
+        private ProductDTO logged(ProductDTO product, int delta, StockMovement.Reason reason) {
+            ledger.add(ledgerEntry(product, delta, reason));
+            return product;
+        }
+    }
+    
+    private static StockMovement ledgerEntry(ProductDTO product, int delta, StockMovement.Reason reason) {
+        return StockMovement.builder()
+            .productId(product.getId())
+            .delta(delta)
+            .resultingQuantity(product.getStockQuantity())
+            .reason(reason)
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+    
+    private static final class PendingStock implements TransactionSynchronization {
+        
+        private final Map<HotSku, Movement> movements = new HashMap<>();
+        
+        /**
+         * The movement of a product in this transaction; the product stays open until the transaction completes
+         */
+        private Movement of(HotSku sku) {
+            return movements.computeIfAbsent(sku, key -> {
+                key.inFlight.increment();
+                return new Movement();
+            });
+        }
+        
+        @Override
+        public void afterCompletion(int status) {
+            movements.forEach((sku, movement) -> {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        if (movement.added > 0) {
+                            sku.counter.add(movement.added);
+                        }
+                        sku.unwritten.addAll(movement.ledger);
+                    } else if (status == STATUS_ROLLED_BACK && movement.removed > 0) {
+                        sku.counter.add(movement.removed);
+                    } else if (status == STATUS_UNKNOWN) {
+                        log.warn("Outcome of a transaction that moved hot product ID: {} is unknown, "
+                            + "keeping its counters as they are", sku.template.getId());
+                    }
+                } finally {
+                    sku.exit();
+                }
+            });
+        }
+    }
+    
+    private static final class Contention {
+        private final LongAdder operations = new LongAdder();
+        private final LongAdder lockWaitNanos = new LongAdder();
+        
+        private void record(long waitNanos) {
+            operations.increment();
+            lockWaitNanos.add(waitNanos);
+        }
+    }
+}
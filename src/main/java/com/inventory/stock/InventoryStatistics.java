@@ -0,0 +1,154 @@
+package com.inventory.stock;
+
+import com.inventory.dto.InventoryStatsDTO;
+import com.inventory.event.StockLevelChangedEvent;
+import com.inventory.replica.ReadConsistency;
+import com.inventory.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Catalog-wide stock totals, maintained in memory so reading them never scans the products table.
+ * <p>
+ * Every committed change adjusts the counters by the difference it made: stock movements arrive
+ * as {@link StockLevelChangedEvent}s, while product creation, deletion and threshold changes are
+ * reported by the product service. A periodic reconciliation compares the counters with one
+ * aggregate query and corrects whatever drifted, such as rows changed outside the service.
+ * Hot products are written back first, so the query sees the stock they hold in memory.
+ * A round that overlaps a change is skipped and left to the next one.
+ */
+@Component
+@Slf4j
+public class InventoryStatistics {
+    
+    private final ProductRepository productRepository;
+    private final HotStockManager hotStockManager;
+    
+    private final LongAdder totalUnits = new LongAdder();
+    private final LongAdder productCount = new LongAdder();
+    private final LongAdder lowStockCount = new LongAdder();
+    private final LongAdder outOfStockCount = new LongAdder();
+    /**
+     * Changes applied so far, compared before and after a reconciliation query
+     */
+    private final LongAdder changes = new LongAdder();
+    
+    private volatile LocalDateTime reconciledAt;
+    
+    public InventoryStatistics(ProductRepository productRepository, HotStockManager hotStockManager) {
+        this.productRepository = productRepository;
+        this.hotStockManager = hotStockManager;
+    }
+    
+    public InventoryStatsDTO snapshot() {
+        return new InventoryStatsDTO(totalUnits.sum(), productCount.sum(),
+            lowStockCount.sum(), outOfStockCount.sum(), reconciledAt);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        int threshold = event.lowStockThreshold();
+        apply(-1, event.stockQuantity() - event.delta(), threshold);
+        apply(1, event.stockQuantity(), threshold);
+    }
+    
+    /**
+     * Count a new product once the current transaction commits. Products start out empty;
+     * their initial stock is counted from the INITIAL stock movement.
+     */
+    public void productCreated(int lowStockThreshold) {
+        afterCommit(() -> apply(1, 0, lowStockThreshold));
+    }
+    
+    /**
+     * Stop counting a product, with its last stock level, once the current transaction commits
+     */
+    public void productDeleted(int stockQuantity, int lowStockThreshold) {
+        afterCommit(() -> apply(-1, stockQuantity, lowStockThreshold));
+    }
+    
+    /**
+     * Re-evaluate the low-stock state of a product once the current transaction commits
+     */
+    public void thresholdChanged(int stockQuantity, int previousThreshold, int lowStockThreshold) {
+        afterCommit(() -> {
+            apply(-1, stockQuantity, previousThreshold);
+            apply(1, stockQuantity, lowStockThreshold);
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.stats.reconcile-interval-ms:60000}",
+               initialDelayString = "${inventory.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        long changesBefore = changes.sum();
+        // Hot movements counted so far reach the table here; any later one shows up as a change
+        hotStockManager.flush();
+        ProductRepository.InventoryTotals totals = ReadConsistency.onPrimary(productRepository::getInventoryTotals);
+        if (changes.sum() != changesBefore) {
+            log.debug("Inventory statistics reconciliation skipped, products changed during the query");
+            return;
+        }
+        boolean drifted = correct(totalUnits, totals.getTotalUnits())
+            | correct(productCount, totals.getProductCount())
+            | correct(lowStockCount, totals.getLowStockCount())
+            | correct(outOfStockCount, totals.getOutOfStockCount());
+        if (drifted) {
+            log.info("Corrected drifted inventory statistics to {} units in {} products",
+                totals.getTotalUnits(), totals.getProductCount());
+        }
+        reconciledAt = LocalDateTime.now();
+    }
+    
+    /**
+     * Add or remove one product at the given stock level
+     */
+    private void apply(int sign, int stockQuantity, int lowStockThreshold) {
+        totalUnits.add((long) sign * stockQuantity);
+        productCount.add(sign);
+        if (stockQuantity <= lowStockThreshold) {
+            lowStockCount.add(sign);
+        }
+        if (stockQuantity == 0) {
+            outOfStockCount.add(sign);
+        }
+        changes.increment();
+    }
+    
+    /**
+     * Move the counter to the actual value by adding the difference, so concurrent updates are kept
+     *
+     * @return whether the counter had drifted
+     */
+    private static boolean correct(LongAdder counter, Long actual) {
+        long difference = (actual != null ? actual : 0) - counter.sum();
+        counter.add(difference);
+        return difference != 0;
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
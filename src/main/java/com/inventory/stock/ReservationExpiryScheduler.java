@@ -0,0 +1,101 @@
+package com.inventory.stock;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.entity.StockReservation;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.service.ReservationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Expires stock reservations from an in-memory {@link HashedTimingWheel}.
+ * <p>
+ * Pending holds are never polled from the database: each one is scheduled on the wheel
+ * once, after the transaction that created it commits, and the wheel only hands back the
+ * holds that are due. The wheel is rebuilt from the ACTIVE rows on startup.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryScheduler {
+    
+    private static final long RETRY_DELAY_MS = 1000;
+    
+    private final ReservationService reservationService;
+    private final StockReservationRepository reservationRepository;
+    private final HashedTimingWheel<Long> wheel;
+    
+    public ReservationExpiryScheduler(@Lazy ReservationService reservationService,
+                                      StockReservationRepository reservationRepository,
+                                      InventoryProperties inventoryProperties) {
+        this.reservationService = reservationService;
+        this.reservationRepository = reservationRepository;
+        InventoryProperties.Reservations settings = inventoryProperties.getReservations();
+        this.wheel = new HashedTimingWheel<>(settings.getTickMs(), settings.getWheelSize(), System.currentTimeMillis());
+    }
+    
+    /**
+     * Schedule the expiry of a reservation once the current transaction commits
+     */
+    public void track(Long reservationId, LocalDateTime expiresAt) {
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        afterCommit(() -> wheel.schedule(reservationId, deadline));
+    }
+    
+    /**
+     * Drop the pending expiry of a reservation that was confirmed or released
+     */
+    public void untrack(Long reservationId) {
+        afterCommit(() -> wheel.cancel(reservationId));
+    }
+    
+    public int pending() {
+        return wheel.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveReservations() {
+        List<StockReservationRepository.PendingExpiry> active =
+            reservationRepository.findExpiriesByStatus(StockReservation.Status.ACTIVE);
+        for (StockReservationRepository.PendingExpiry reservation : active) {
+            long deadline = reservation.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            wheel.schedule(reservation.getId(), deadline);
+        }
+        log.info("Scheduled expiry of {} active reservations", active.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.reservations.tick-ms:100}")
+    public void expireDueReservations() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        for (Long reservationId : due) {
+            try {
+                reservationService.expireReservation(reservationId);
+            } catch (RuntimeException ex) {
+                log.error("Failed to expire reservation ID: {}, retrying", reservationId, ex);
+                wheel.schedule(reservationId, System.currentTimeMillis() + RETRY_DELAY_MS);
+            }
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
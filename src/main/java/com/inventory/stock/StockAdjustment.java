@@ -0,0 +1,24 @@
+package com.inventory.stock;
+
+import com.inventory.dto.StockBatchLineDTO;
+
+/**
+ * One stock movement requested by a caller, as collected by the {@link StockMovementCoalescer}
+ */
+public record StockAdjustment(StockBatchLineDTO.Operation operation, int quantity) {
+    
+    public static StockAdjustment add(int quantity) {
+        return new StockAdjustment(StockBatchLineDTO.Operation.ADD, quantity);
+    }
+    
+    public static StockAdjustment remove(int quantity) {
+        return new StockAdjustment(StockBatchLineDTO.Operation.REMOVE, quantity);
+    }
+    
+    /**
+     * The change this movement makes to the stock quantity
+     */
+    public int signedQuantity() {
+        return operation == StockBatchLineDTO.Operation.ADD ? quantity : -quantity;
+    }
+}
@@ -0,0 +1,28 @@
+package com.inventory.stock;
+
+import com.inventory.dto.ProductDTO;
+
+/**
+ * Result of one {@link StockAdjustment}: either the product as that caller left it, or the
+ * exception that caller would have received had its movement been applied on its own
+ */
+public record StockAdjustmentOutcome(ProductDTO product, RuntimeException failure) {
+    
+    public static StockAdjustmentOutcome applied(ProductDTO product) {
+        return new StockAdjustmentOutcome(product, null);
+    }
+    
+    public static StockAdjustmentOutcome failed(RuntimeException failure) {
+        return new StockAdjustmentOutcome(null, failure);
+    }
+    
+    /**
+     * Return the product, or rethrow the failure in the caller's thread
+     */
+    public ProductDTO getOrThrow() {
+        if (failure != null) {
+            throw failure;
+        }
+        return product;
+    }
+}
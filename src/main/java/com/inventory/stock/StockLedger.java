@@ -0,0 +1,199 @@
+package com.inventory.stock;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.entity.StockMovement;
+import com.inventory.entity.StockSnapshot;
+import com.inventory.repository.StockMovementRepository;
+import com.inventory.repository.StockSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only ledger of stock movements.
+ * <p>
+ * The movements of a transaction are collected while it runs and written to the
+ * 'stock_movements' table in one JDBC batch just before it commits, so a movement is stored
+ * if and only if the stock change it describes is, and the ledger can always rebuild a count.
+ * The insert is deliberately part of the moving transaction rather than buffered after commit:
+ * a buffer would lose acknowledged movements in a crash, and the batch costs one round trip
+ * to a transaction that already writes the row. Hot products, which skip the row write, hand
+ * their movements over with the write-back instead (see {@link HotStockManager}).
+ * A compaction job rolls movements older than the retention period into one
+ * {@link StockSnapshot} per product to keep the ledger bounded.
+ */
+@Component
+@Slf4j
+public class StockLedger {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO stock_movements (product_id, delta, resulting_quantity, reason, created_at) VALUES (?, ?, ?, ?, ?)";
+    
+    private static final String DELETE_RANGE_SQL =
+        "DELETE FROM stock_movements WHERE id > ? AND id <= ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryProperties.Ledger settings;
+    
+    public StockLedger(JdbcTemplate jdbcTemplate,
+                       StockMovementRepository movementRepository,
+                       StockSnapshotRepository snapshotRepository,
+                       PlatformTransactionManager transactionManager,
+                       InventoryProperties inventoryProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = inventoryProperties.getLedger();
+    }
+    
+    /**
+     * Record a movement; it is inserted as part of the current transaction, or right away without one
+     */
+    public void record(Long productId, int delta, int resultingQuantity, StockMovement.Reason reason) {
+        StockMovement movement = StockMovement.builder()
+            .productId(productId)
+            .delta(delta)
+            .resultingQuantity(resultingQuantity)
+            .reason(reason)
+            .createdAt(LocalDateTime.now())
+            .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(movement));
+            return;
+        }
+        pendingMovements().movements.add(movement);
+    }
+    
+    /**
+     * Record movements taken earlier, keeping their timestamps; written like {@link #record}
+     */
+    public void recordAll(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(movements);
+            return;
+        }
+        pendingMovements().movements.addAll(movements);
+    }
+    
+    /**
+     * Roll movements older than the retention period into per-product snapshots, a chunk of IDs per transaction
+     */
+    @Scheduled(fixedDelayString = "${inventory.ledger.compaction-interval-ms:3600000}",
+        initialDelayString = "${inventory.ledger.compaction-interval-ms:3600000}")
+    public void compact() {
+        Long boundary = movementRepository.findLastIdBefore(
+            LocalDateTime.now().minusDays(settings.getRetentionDays()));
+        Long first = movementRepository.findFirstId();
+        if (boundary == null || first == null) {
+            return;
+        }
+        long compacted = 0;
+        for (long fromId = first - 1; fromId < boundary; fromId += settings.getCompactionChunkSize()) {
+            long toId = Math.min(boundary, fromId + settings.getCompactionChunkSize());
+            long rangeStart = fromId;
+            Integer deleted = transactionTemplate.execute(status -> compactRange(rangeStart, toId));
+            compacted += deleted != null ? deleted : 0;
+        }
+        log.info("Compacted {} stock movements up to ID: {} into snapshots", compacted, boundary);
+    }
+    
+    private int compactRange(long fromId, long toId) {
+        List<StockMovementRepository.CompactionRange> ranges = movementRepository.findCompactionRanges(fromId, toId);
+        if (ranges.isEmpty()) {
+            return 0;
+        }
+        Map<Long, StockMovement> lastMovements = movementRepository.findAllById(
+                ranges.stream().map(StockMovementRepository.CompactionRange::getLastMovementId).toList())
+            .stream()
+            .collect(Collectors.toMap(StockMovement::getId, Function.identity()));
+        Map<Long, StockSnapshot> snapshots = snapshotRepository.findAllById(
+                ranges.stream().map(StockMovementRepository.CompactionRange::getProductId).toList())
+            .stream()
+            .collect(Collectors.toMap(StockSnapshot::getProductId, Function.identity()));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<StockSnapshot> updated = new ArrayList<>(ranges.size());
+        for (StockMovementRepository.CompactionRange range : ranges) {
+            StockSnapshot snapshot = snapshots.getOrDefault(range.getProductId(), StockSnapshot.builder()
+                .productId(range.getProductId())
+                .movementCount(0L)
+                .build());
+            snapshot.setQuantity(lastMovements.get(range.getLastMovementId()).getResultingQuantity());
+            snapshot.setLastMovementId(range.getLastMovementId());
+            snapshot.setMovementCount(snapshot.getMovementCount() + range.getMovementCount());
+            snapshot.setCompactedAt(now);
+            updated.add(snapshot);
+        }
+        snapshotRepository.saveAll(updated);
+        return jdbcTemplate.update(DELETE_RANGE_SQL, fromId, toId);
+    }
+    
+    /**
+     * Movements collected by the current transaction, looked up among its synchronizations
+     */
+    private PendingMovements pendingMovements() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingMovements pending) {
+                return pending;
+            }
+        }
+        PendingMovements pending = new PendingMovements();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+    
+    private void insert(List<StockMovement> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockMovement movement = batch.get(i);
+                ps.setLong(1, movement.getProductId());
+                ps.setInt(2, movement.getDelta());
+                ps.setInt(3, movement.getResultingQuantity());
+                ps.setString(4, movement.getReason().name());
+                ps.setTimestamp(5, Timestamp.valueOf(movement.getCreatedAt()));
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+    
+    /**
+     * Inserts the movements of a transaction before it commits; a failed insert fails the commit
+     */
+    private final class PendingMovements implements TransactionSynchronization {
+        
+        private final List<StockMovement> movements = new ArrayList<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(movements);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.inventory.stock;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductDTO;
+import com.inventory.dto.StockBatchLineDTO;
+import com.inventory.dto.StockUpdateDTO;
+import com.inventory.service.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single stock movements.
+ * <p>
+ * Concurrent movements of the same product are gathered for a short window (or until the
+ * group is full) and applied together by {@link ProductService#applyStockAdjustments}: one
+ * row lock, one save and one commit instead of one per request. The first caller of a group
+ * runs it; every caller still gets its own resulting product or its own exception, exactly
+ * as if the movements had been applied one after another in arrival order. A caller that is
+ * already in a transaction, such as an idempotent request, applies its movement on its own,
+ * because a group commits in its leader's transaction.
+ */
+@Component
+@Slf4j
+public class StockMovementCoalescer {
+    
+    private final ProductService productService;
+    private final InventoryProperties.Coalescing settings;
+    private final Map<Long, Group> openGroups = new ConcurrentHashMap<>();
+    
+    public StockMovementCoalescer(ProductService productService, InventoryProperties inventoryProperties) {
+        this.productService = productService;
+        this.settings = inventoryProperties.getCoalescing();
+    }
+    
+    public ProductDTO addStock(Long productId, StockUpdateDTO stockUpdateDTO) {
+        if (!coalesces()) {
+            return productService.addStock(productId, stockUpdateDTO);
+        }
+        return submit(productId, StockAdjustment.add(stockUpdateDTO.getQuantity()));
+    }
+    
+    public ProductDTO removeStock(Long productId, StockUpdateDTO stockUpdateDTO) {
+        if (!coalesces()) {
+            return productService.removeStock(productId, stockUpdateDTO);
+        }
+        return submit(productId, StockAdjustment.remove(stockUpdateDTO.getQuantity()));
+    }
+    
+    private boolean coalesces() {
+        return settings.isEnabled() && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+    
+    private ProductDTO submit(Long productId, StockAdjustment adjustment) {
+        Pending pending = new Pending(adjustment);
+        Group group;
+        boolean leader;
+        while (true) {
+            group = openGroups.computeIfAbsent(productId, id -> new Group());
+            int position = group.join(pending, settings.getMaxBatchSize());
+            if (position >= 0) {
+                leader = position == 0;
+                break;
+            }
+            // Sealed while we were looking at it; make room for a new group
+            openGroups.remove(productId, group);
+        }
+        
+        if (leader) {
+            List<Pending> members = group.awaitAndSeal(
+                System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(settings.getMaxWaitMicros()));
+            openGroups.remove(productId, group);
+            run(productId, members);
+        }
+        return await(pending);
+    }
+    
+    private void run(Long productId, List<Pending> members) {
+        List<StockAdjustment> adjustments = members.stream().map(Pending::adjustment).toList();
+        try {
+            List<StockAdjustmentOutcome> outcomes = productService.applyStockAdjustments(productId, adjustments);
+            for (int i = 0; i < outcomes.size(); i++) {
+                members.get(i).result().complete(outcomes.get(i));
+            }
+            // The product left hot mode midway; apply the rest one by one
+            for (int i = outcomes.size(); i < members.size(); i++) {
+                members.get(i).result().complete(applySingle(productId, members.get(i).adjustment()));
+            }
+            if (members.size() > 1) {
+                log.debug("Coalesced {} stock movements of product ID: {}", members.size(), productId);
+            }
+        } catch (RuntimeException ex) {
+            members.forEach(member -> member.result().completeExceptionally(ex));
+        }
+    }
+    
+    private StockAdjustmentOutcome applySingle(Long productId, StockAdjustment adjustment) {
+        StockUpdateDTO stockUpdateDTO = StockUpdateDTO.builder().quantity(adjustment.quantity()).build();
+        try {
+            return StockAdjustmentOutcome.applied(adjustment.operation() == StockBatchLineDTO.Operation.ADD
+                ? productService.addStock(productId, stockUpdateDTO)
+                : productService.removeStock(productId, stockUpdateDTO));
+        } catch (RuntimeException ex) {
+            return StockAdjustmentOutcome.failed(ex);
+        }
+    }
+    
+    private static ProductDTO await(Pending pending) {
+        try {
+            return pending.result().get().getOrThrow();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced stock movement", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+    
+    private record Pending(StockAdjustment adjustment, CompletableFuture<StockAdjustmentOutcome> result) {
+        private Pending(StockAdjustment adjustment) {
+            this(adjustment, new CompletableFuture<>());
+        }
+    }
+    
+    /**
+     * Movements of one product waiting to be applied together
+     */
+    private static final class Group {
+        private final List<Pending> members = new ArrayList<>();
+        private boolean sealed;
+        
+        /**
+         * @return the position of the movement in the group, or -1 when the group no longer accepts movements
+         */
+        private synchronized int join(Pending pending, int maxSize) {
+            if (sealed) {
+                return -1;
+            }
+            members.add(pending);
+            if (members.size() >= maxSize) {
+                sealed = true;
+                notifyAll();
+            }
+            return members.size() - 1;
+        }
+        
+        /**
+         * Wait until the group is full or the deadline passes, then close it to new movements
+         */
+        private synchronized List<Pending> awaitAndSeal(long deadlineNanos) {
+            boolean interrupted = false;
+            long remaining;
+            while (!sealed && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            sealed = true;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return List.copyOf(members);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.inventory.stock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock quantity split across padded stripes so that concurrent movements on the
+ * same product update different cache lines instead of one contended row or word.
+ * <p>
+ * The counter never goes negative: a removal either takes the whole quantity from
+ * a single stripe, or falls back to a locked slow path that consolidates every
+ * stripe before deciding. Units are never held "in flight" by a failed removal,
+ * so a removal is only refused when the total stock really is insufficient.
+ * <p>
+ * Readers never see a slow path halfway: it bumps a sequence number before draining the
+ * stripes and again after spreading the remainder back, and {@link #sum()} retries until
+ * it has read every stripe without a drain starting or running in between.
+ */
+public final class StripedStockCounter {
+    
+    /**
+     * 16 longs = 128 bytes between stripes, enough to keep neighbours off the same cache line pair
+     */
+    private static final int PADDING = 16;
+    
+    private final AtomicLongArray cells;
+    private final int mask;
+    /**
+     * Odd while the slow path has drained the stripes, incremented once more when it is done
+     */
+    private final AtomicLong drains = new AtomicLong();
+    
+    public StripedStockCounter(long initialQuantity, int stripes) {
+        if (initialQuantity < 0) {
+            throw new IllegalArgumentException("Initial quantity cannot be negative");
+        }
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * PADDING);
+        spread(initialQuantity);
+    }
+    
+    /**
+     * Add stock to the calling thread's stripe
+     */
+    public void add(long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to add must be positive");
+        }
+        cells.getAndAdd(slot(homeStripe()), quantity);
+    }
+    
+    /**
+     * Remove stock if enough is available.
+     *
+     * @return true when the quantity was removed, false when the total stock is insufficient
+     */
+    public boolean tryRemove(long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to remove must be positive");
+        }
+        int home = homeStripe();
+        for (int i = 0; i <= mask; i++) {
+            int slot = slot((home + i) & mask);
+            long current = cells.get(slot);
+            while (current >= quantity) {
+                if (cells.compareAndSet(slot, current, current - quantity)) {
+                    return true;
+                }
+                current = cells.get(slot);
+            }
+        }
+        return removeConsolidated(quantity);
+    }
+    
+    /**
+     * Current total. Exact when no movement is in progress, otherwise a moment-in-time estimate
+     * that never counts stock the slow path is holding out of the stripes.
+     */
+    public long sum() {
+        while (true) {
+            long stamp = drains.get();
+            if ((stamp & 1) == 0) {
+                long total = 0;
+                for (int stripe = 0; stripe <= mask; stripe++) {
+                    total += cells.get(slot(stripe));
+                }
+                if (drains.get() == stamp) {
+                    return total;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    public int stripes() {
+        return mask + 1;
+    }
+    
+    /**
+     * Slow path: drain every stripe, decide on the real total, then spread the remainder back.
+     * Fast-path removers that see the drained stripes fall through to here and wait their turn.
+     */
+    private synchronized boolean removeConsolidated(long quantity) {
+        drains.incrementAndGet();
+        try {
+            long total = 0;
+            for (int stripe = 0; stripe <= mask; stripe++) {
+                total += cells.getAndSet(slot(stripe), 0);
+            }
+            boolean removed = total >= quantity;
+            spread(removed ? total - quantity : total);
+            return removed;
+        } finally {
+            drains.incrementAndGet();
+        }
+    }
+    
+    private void spread(long quantity) {
+        int stripes = mask + 1;
+        long share = quantity / stripes;
+        long remainder = quantity % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            long amount = share + (stripe < remainder ? 1 : 0);
+            if (amount > 0) {
+                cells.getAndAdd(slot(stripe), amount);
+            }
+        }
+    }
+    
+    private static int slot(int stripe) {
+        return stripe * PADDING;
+    }
+    
+    private int homeStripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,68 @@
+package com.inventory.alert;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.event.ProductDeletedEvent;
+import com.inventory.event.StockLevelChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LowStockAlertMonitor
+ */
+@DisplayName("Low Stock Alert Monitor Unit Tests")
+class LowStockAlertMonitorTest {
+    
+    private AlertDispatcher alertDispatcher;
+    private LowStockAlertMonitor monitor;
+    
+    @BeforeEach
+    void setUp() {
+        alertDispatcher = mock(AlertDispatcher.class);
+        InventoryProperties properties = new InventoryProperties();
+        properties.getAlerts().setRearmMarginPercent(20); // threshold 10 re-arms above 12
+        monitor = new LowStockAlertMonitor(alertDispatcher, properties);
+    }
+    
+    @Test
+    @DisplayName("Should raise one alert per crossing and re-arm only above the hysteresis margin")
+    void hysteresis() {
+        for (int quantity : new int[] {15, 10, 8, 11, 9, 12, 13, 7}) {
+            monitor.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", -1, quantity, 10));
+        }
+        
+        ArgumentCaptor<StockAlert> alerts = ArgumentCaptor.forClass(StockAlert.class);
+        verify(alertDispatcher, times(3)).submit(alerts.capture());
+        assertThat(alerts.getAllValues())
+            .extracting(StockAlert::type, StockAlert::stockQuantity)
+            .containsExactly(
+                tuple(StockAlert.Type.LOW_STOCK, 10),
+                tuple(StockAlert.Type.RESTOCKED, 13),
+                tuple(StockAlert.Type.LOW_STOCK, 7));
+    }
+    
+    @Test
+    @DisplayName("Should track products independently")
+    void perProduct() {
+        monitor.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", -5, 5, 10));
+        monitor.onStockLevelChanged(new StockLevelChangedEvent(2L, "Gadget", -5, 5, 10));
+        monitor.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", -1, 4, 10));
+        
+        verify(alertDispatcher, times(2)).submit(any(StockAlert.class));
+    }
+    
+    @Test
+    @DisplayName("Should forget the alert state of a deleted product")
+    void productDeleted() {
+        monitor.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", -5, 5, 10));
+        monitor.onProductDeleted(new ProductDeletedEvent(1L));
+        // Without its state the next low level counts as a new crossing
+        monitor.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", -1, 4, 10));
+        
+        verify(alertDispatcher, times(2)).submit(argThat(alert -> alert.type() == StockAlert.Type.LOW_STOCK));
+    }
+}
@@ -0,0 +1,71 @@
+package com.inventory.cache;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductViewDTO;
+import com.inventory.entity.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProductCache
+ */
+@DisplayName("Product Cache Unit Tests")
+class ProductCacheTest {
+    
+    private ProductCache productCache;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(new InventoryProperties(), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+    
+    @Test
+    @DisplayName("Should never let an older version replace a newer cached product")
+    void refreshIsVersionAware() {
+        productCache.get(1L, id -> load(id, 5L));
+        
+        productCache.refreshAfterCommit(product(1L, 4L, 30));
+        assertThat(productCache.get(1L, id -> load(id, 0L))).map(ProductViewDTO::version).contains(5L);
+        
+        productCache.refreshAfterCommit(product(1L, 6L, 40));
+        assertThat(productCache.get(1L, id -> load(id, 0L)))
+            .map(ProductViewDTO::stockQuantity).contains(40);
+        assertThat(loads).hasValue(1);
+    }
+    
+    @Test
+    @DisplayName("Should load again after an eviction and never cache missing products")
+    void evictAndMiss() {
+        productCache.get(1L, id -> load(id, 1L));
+        productCache.evictAfterCommit(1L);
+        productCache.get(1L, id -> load(id, 2L));
+        
+        assertThat(productCache.get(2L, id -> Optional.empty())).isEmpty();
+        assertThat(productCache.get(2L, id -> load(id, 1L))).isPresent();
+        assertThat(loads).hasValue(3);
+    }
+    
+    private Optional<ProductViewDTO> load(Long id, Long version) {
+        loads.incrementAndGet();
+        return Optional.of(new ProductViewDTO(id, "Widget", null, 20, 0, 10, false, null, null, version));
+    }
+    
+    private static Product product(Long id, Long version, int stockQuantity) {
+        return Product.builder()
+            .id(id)
+            .name("Widget")
+            .stockQuantity(stockQuantity)
+            .lowStockThreshold(10)
+            .version(version)
+            .build();
+    }
+}
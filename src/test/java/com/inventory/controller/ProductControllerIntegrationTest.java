@@ -1,19 +1,38 @@
 package com.inventory.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.inventory.dto.ErrorResponseDTO;
 import com.inventory.dto.ProductCreateDTO;
+import com.inventory.dto.ProductDTO;
 import com.inventory.dto.StockUpdateDTO;
 import com.inventory.entity.Product;
+import com.inventory.entity.ProductChange;
+import com.inventory.feed.ProductChangeFeed;
+import com.inventory.repository.ProductChangeRepository;
 import com.inventory.repository.ProductRepository;
+import com.inventory.search.ProductFullTextIndex;
+import com.inventory.search.ProductNameFilter;
+import com.inventory.search.ProductNameIndex;
+import com.inventory.stock.InventoryStatistics;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -38,6 +57,27 @@ class ProductControllerIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ProductNameIndex productNameIndex;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ProductFullTextIndex productFullTextIndex;
+    
+    @Autowired
+    private ProductNameFilter productNameFilter;
+    
+    @Autowired
+    private InventoryStatistics inventoryStatistics;
+    
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+    
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+    
     private Product testProduct;
     
     @BeforeEach
@@ -313,4 +353,704 @@ class ProductControllerIntegrationTest {
             .andExpect(jsonPath("$", hasSize(2)))
             .andExpect(jsonPath("$[*].name", everyItem(containsString("Computer"))));
     }
-}
\ No newline at end of file
+    
+    // ==================== STOCK BATCH TESTS ====================
+    
+    @Test
+    @Order(15)
+    @DisplayName("Should apply a best-effort stock batch and report per-line results")
+    void applyStockBatch() throws Exception {
+        String batchJson = """
+            {
+                "mode": "BEST_EFFORT",
+                "lines": [
+                    {"productId": %d, "operation": "REMOVE", "quantity": 30},
+                    {"productId": %d, "operation": "REMOVE", "quantity": 500},
+                    {"productId": 9999, "operation": "ADD", "quantity": 5}
+                ]
+            }
+            """.formatted(testProduct.getId(), testProduct.getId());
+        
+        mockMvc.perform(post("/api/products/stock/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchJson))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.committed").value(true))
+            .andExpect(jsonPath("$.applied").value(1))
+            .andExpect(jsonPath("$.results[0].status").value("APPLIED"))
+            .andExpect(jsonPath("$.results[0].stockQuantity").value(70))
+            .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+            .andExpect(jsonPath("$.results[2].status").value("FAILED"));
+        
+        mockMvc.perform(get("/api/products/{id}", testProduct.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.stockQuantity").value(70));
+    }
+    
+    // ==================== RESERVATION TESTS ====================
+    
+    @Test
+    @Order(16)
+    @DisplayName("Should hold reserved stock back from removals until the reservation is confirmed")
+    void reserveAndConfirmStock() throws Exception {
+        String response = mockMvc.perform(post("/api/products/{id}/reservations", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": 30, \"ttlSeconds\": 600}"))
+            .andDo(print())
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value("ACTIVE"))
+            .andExpect(jsonPath("$.availableQuantity").value(70))
+            .andReturn().getResponse().getContentAsString();
+        long reservationId = objectMapper.readTree(response).get("id").asLong();
+        
+        mockMvc.perform(get("/api/products/{id}", testProduct.getId()))
+            .andExpect(jsonPath("$.stockQuantity").value(100))
+            .andExpect(jsonPath("$.reservedQuantity").value(30))
+            .andExpect(jsonPath("$.availableQuantity").value(70));
+        
+        StockUpdateDTO stockUpdate = StockUpdateDTO.builder().quantity(80).build();
+        mockMvc.perform(patch("/api/products/{id}/stock/remove", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(stockUpdate)))
+            .andExpect(status().isBadRequest());
+        
+        mockMvc.perform(post("/api/products/reservations/{reservationId}/confirm", reservationId))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("CONFIRMED"));
+        
+        mockMvc.perform(post("/api/products/reservations/{reservationId}/release", reservationId))
+            .andExpect(status().isBadRequest());
+        
+        mockMvc.perform(get("/api/products/{id}", testProduct.getId()))
+            .andExpect(jsonPath("$.stockQuantity").value(70))
+            .andExpect(jsonPath("$.reservedQuantity").value(0))
+            .andExpect(jsonPath("$.availableQuantity").value(70));
+    }
+    
+    // ==================== IDEMPOTENCY TESTS ====================
+    
+    @Test
+    @Order(17)
+    @DisplayName("Should replay the first result when a stock removal is retried with the same Idempotency-Key")
+    void removeStock_IdempotentRetry() throws Exception {
+        StockUpdateDTO stockUpdate = StockUpdateDTO.builder().quantity(10).build();
+        String body = objectMapper.writeValueAsString(stockUpdate);
+        
+        mockMvc.perform(patch("/api/products/{id}/stock/remove", testProduct.getId())
+                .header("Idempotency-Key", "retry-remove-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andExpect(jsonPath("$.stockQuantity").value(90));
+        
+        mockMvc.perform(patch("/api/products/{id}/stock/remove", testProduct.getId())
+                .header("Idempotency-Key", "retry-remove-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(jsonPath("$.stockQuantity").value(90));
+        
+        // The same key with a different body is rejected
+        mockMvc.perform(patch("/api/products/{id}/stock/remove", testProduct.getId())
+                .header("Idempotency-Key", "retry-remove-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(20).build())))
+            .andExpect(status().isBadRequest());
+        
+        mockMvc.perform(get("/api/products/{id}", testProduct.getId()))
+            .andExpect(jsonPath("$.stockQuantity").value(90));
+    }
+    
+    // ==================== STOCK LEDGER TESTS ====================
+    
+    @Test
+    @Order(18)
+    @DisplayName("Should page through the stock ledger of a product")
+    void getStockMovements() throws Exception {
+        mockMvc.perform(patch("/api/products/{id}/stock/add", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(5).build())))
+            .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/products/{id}/stock/remove", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(15).build())))
+            .andExpect(status().isOk());
+        
+        String firstPage = mockMvc.perform(get("/api/products/{id}/movements", testProduct.getId())
+                .param("limit", "1"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(1)))
+            .andExpect(jsonPath("$.items[0].delta").value(5))
+            .andExpect(jsonPath("$.items[0].resultingQuantity").value(105))
+            .andExpect(jsonPath("$.nextCursor").isNumber())
+            .andReturn().getResponse().getContentAsString();
+        long cursor = objectMapper.readTree(firstPage).get("nextCursor").asLong();
+        
+        mockMvc.perform(get("/api/products/{id}/movements", testProduct.getId())
+                .param("after", String.valueOf(cursor))
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(1)))
+            .andExpect(jsonPath("$.items[0].delta").value(-15))
+            .andExpect(jsonPath("$.items[0].resultingQuantity").value(90))
+            .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+    
+    // ==================== LOW STOCK INDEX TESTS ====================
+    
+    @Test
+    @Order(19)
+    @DisplayName("Should keep the low stock listing in sync with stock movements")
+    void pageLowStockProducts() throws Exception {
+        Product otherProduct = productRepository.save(Product.builder()
+            .name("Another Low Stock Item")
+            .stockQuantity(1)
+            .lowStockThreshold(5)
+            .build());
+        mockMvc.perform(patch("/api/products/{id}/stock/remove", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(85).build())))
+            .andExpect(status().isOk());
+        
+        String cursor = mockMvc.perform(get("/api/products/low-stock")
+                .param("limit", "1"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(testProduct.getId()))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn().getResponse().getHeader("X-Next-Cursor");
+        
+        mockMvc.perform(get("/api/products/low-stock")
+                .param("after", cursor)
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(otherProduct.getId()))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+        
+        mockMvc.perform(patch("/api/products/{id}/stock/add", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(50).build())))
+            .andExpect(status().isOk());
+        
+        mockMvc.perform(get("/api/products/low-stock"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(otherProduct.getId()));
+    }
+    
+    // ==================== CATALOG LISTING TESTS ====================
+    
+    @Test
+    @Order(20)
+    @DisplayName("Should page through products by ID and stream the whole catalog")
+    void pageAndStreamProducts() throws Exception {
+        Product secondProduct = productRepository.save(Product.builder()
+            .name("Second Catalog Item")
+            .stockQuantity(7)
+            .lowStockThreshold(2)
+            .build());
+        
+        String cursor = mockMvc.perform(get("/api/products")
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(testProduct.getId()))
+            .andExpect(header().string("X-Next-Cursor", String.valueOf(testProduct.getId())))
+            .andReturn().getResponse().getHeader("X-Next-Cursor");
+        
+        mockMvc.perform(get("/api/products")
+                .param("after", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(secondProduct.getId()))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+        
+        mockMvc.perform(get("/api/products").param("limit", "501"))
+            .andExpect(status().isBadRequest());
+        
+        MvcResult streaming = mockMvc.perform(get("/api/products/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(streaming))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].name").value("Integration Test Product"))
+            .andExpect(jsonPath("$[0].availableQuantity").value(100))
+            .andExpect(jsonPath("$[1].name").value("Second Catalog Item"))
+            .andExpect(jsonPath("$[1].isLowStock").value(false));
+    }
+    
+    // ==================== CONDITIONAL GET TESTS ====================
+    
+    @Test
+    @Order(21)
+    @DisplayName("Should answer unchanged polls with 304 and changed ones with a new ETag")
+    void conditionalGets() throws Exception {
+        String productETag = mockMvc.perform(get("/api/products/{id}", testProduct.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+        String catalogETag = mockMvc.perform(get("/api/products"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+        
+        mockMvc.perform(get("/api/products/{id}", testProduct.getId())
+                .header("If-None-Match", productETag))
+            .andDo(print())
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", productETag))
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/api/products")
+                .header("If-None-Match", catalogETag))
+            .andExpect(status().isNotModified());
+        
+        mockMvc.perform(patch("/api/products/{id}/stock/add", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(1).build())))
+            .andExpect(status().isOk());
+        
+        mockMvc.perform(get("/api/products/{id}", testProduct.getId())
+                .header("If-None-Match", productETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", not(productETag)))
+            .andExpect(jsonPath("$.stockQuantity").value(101));
+        mockMvc.perform(get("/api/products")
+                .header("If-None-Match", catalogETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", not(catalogETag)));
+    }
+    
+    @Test
+    @Order(22)
+    @DisplayName("Should answer name searches from the trigram index exactly like the JPA query")
+    void searchIndexMatchesJpaQuery() throws Exception {
+        List<String> names = List.of("Laptop Computer", "Desktop Computer", "Laptop Bag", "USB-C Cable",
+            "usb hub", "Computer Desk", "Desk Lamp", "100% Cotton Shirt", "Cable_Tie Pack", "Lapel Pin");
+        for (String name : names) {
+            productRepository.save(Product.builder().name(name).stockQuantity(5).build());
+        }
+        Product renamed = productRepository.save(Product.builder().name("Old Monitor").stockQuantity(1).build());
+        renamed.setName("New Keyboard");
+        productRepository.save(renamed);
+        
+        // A product written by a transaction that rolls back must not stay in the index
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            productRepository.save(Product.builder().name("Phantom Computer").stockQuantity(1).build());
+            status.setRollbackOnly();
+        });
+        
+        for (String query : List.of("computer", "LAP", "desk", "usb", "b", "%", "_", "cable", "monitor",
+                "keyboard", "phantom", "ptop co", "zzz", "")) {
+            List<Long> expected = productRepository.findByNameContainingIgnoreCase(query).stream()
+                .map(Product::getId)
+                .sorted()
+                .toList();
+            assertThat(productNameIndex.search(query, Integer.MAX_VALUE)).as("query '%s'", query)
+                .isEqualTo(expected);
+        }
+        
+        mockMvc.perform(get("/api/products/search")
+                .param("name", "computer")
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].name").value("Laptop Computer"));
+        mockMvc.perform(get("/api/products/search")
+                .param("name", "computer")
+                .param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @Order(23)
+    @DisplayName("Should autocomplete product names by prefix, most stocked first")
+    void autocomplete() throws Exception {
+        productRepository.save(Product.builder().name("Integration Test Kit").stockQuantity(300).build());
+        productRepository.save(Product.builder().name("Integral Cable").stockQuantity(1).build());
+        
+        mockMvc.perform(get("/api/products/autocomplete")
+                .param("prefix", "INTEG")
+                .param("limit", "2"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].name").value("Integration Test Kit"))
+            .andExpect(jsonPath("$[1].name").value("Integration Test Product"));
+        
+        // Adding stock re-ranks the suggestions once the movement commits
+        mockMvc.perform(patch("/api/products/{id}/stock/add", testProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(500).build())))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/autocomplete")
+                .param("prefix", "integration"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(testProduct.getId()))
+            .andExpect(jsonPath("$[0].stockQuantity").value(600));
+        
+        mockMvc.perform(get("/api/products/autocomplete")
+                .param("prefix", "nothing like this"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+    
+    @Test
+    @Order(24)
+    @DisplayName("Should rank and highlight full-text matches in names and descriptions")
+    void searchFullText() throws Exception {
+        ProductCreateDTO keyboard = ProductCreateDTO.builder()
+            .name("Wireless Keyboard")
+            .description("Compact keyboard with a rechargeable battery")
+            .stockQuantity(15)
+            .build();
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(keyboard)))
+            .andExpect(status().isCreated());
+        productRepository.save(Product.builder()
+            .name("Charging Dock")
+            .description("Dock for any rechargeable battery pack")
+            .stockQuantity(3)
+            .build());
+        productFullTextIndex.refresh();
+        
+        mockMvc.perform(get("/api/products/search/fulltext")
+                .param("q", "rechargeable keyboard")
+                .param("size", "1"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalHits").value(2))
+            .andExpect(jsonPath("$.hits", hasSize(1)))
+            .andExpect(jsonPath("$.hits[0].product.name").value("Wireless Keyboard"))
+            .andExpect(jsonPath("$.hits[0].nameHighlight").value("Wireless <em>Keyboard</em>"))
+            .andExpect(jsonPath("$.hits[0].descriptionHighlight", containsString("<em>rechargeable</em>")));
+        mockMvc.perform(get("/api/products/search/fulltext")
+                .param("q", "rechargeable keyboard")
+                .param("page", "1")
+                .param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.hits[0].product.name").value("Charging Dock"))
+            .andExpect(jsonPath("$.hits[0].nameHighlight").value(nullValue()));
+        mockMvc.perform(get("/api/products/search/fulltext")
+                .param("q", "keyboard")
+                .param("size", "0"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @Order(25)
+    @DisplayName("Should find misspelled product names with fuzzy search, closest first")
+    void searchProductsFuzzy() throws Exception {
+        productRepository.save(Product.builder().name("Integration Test Produce").stockQuantity(5).build());
+        
+        mockMvc.perform(get("/api/products/search")
+                .param("name", "integraton tset product")
+                .param("fuzzy", "true"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].id").value(testProduct.getId()))
+            .andExpect(jsonPath("$[1].name").value("Integration Test Produce"));
+        mockMvc.perform(get("/api/products/search")
+                .param("name", "integraton tset product"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+    
+    @Test
+    @Order(26)
+    @DisplayName("Should reject duplicate names ignoring case, accents and spacing, even when the name filter misses")
+    void createProduct_DuplicateNormalizedName() throws Exception {
+        ProductCreateDTO duplicate = ProductCreateDTO.builder()
+            .name("  INTEGRATION   Test Product ")
+            .stockQuantity(1)
+            .build();
+        
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(duplicate)))
+            .andDo(print())
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value(containsString("already exists")));
+        
+        // Without the filter the insert itself runs into the unique index
+        productNameFilter.clear();
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(duplicate)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Product with this name already exists"));
+        
+        assertThat(productRepository.count()).isEqualTo(1);
+    }
+    
+    @Test
+    @Order(27)
+    @DisplayName("Should keep inventory statistics up to date without recomputing them")
+    void inventoryStats() throws Exception {
+        // setUp wrote through the repository, which the counters only learn about by reconciling
+        inventoryStatistics.reconcile();
+        
+        ProductCreateDTO probe = ProductCreateDTO.builder()
+            .name("Stats Probe")
+            .stockQuantity(5)
+            .lowStockThreshold(10)
+            .build();
+        mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(probe)))
+            .andExpect(status().isCreated());
+        Long probeId = productRepository.findByNameContainingIgnoreCase("Stats Probe").get(0).getId();
+        mockMvc.perform(patch("/api/products/{id}/stock/remove", probeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(StockUpdateDTO.builder().quantity(5).build())))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/products/{id}", testProduct.getId()))
+            .andExpect(status().isNoContent());
+        
+        mockMvc.perform(get("/api/inventory/stats"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalUnits").value(0))
+            .andExpect(jsonPath("$.productCount").value(1))
+            .andExpect(jsonPath("$.lowStockCount").value(1))
+            .andExpect(jsonPath("$.outOfStockCount").value(1))
+            .andExpect(jsonPath("$.reconciledAt").value(notNullValue()));
+    }
+    
+    @Test
+    @Order(28)
+    @DisplayName("Should filter products by stock range and bucket stock levels into a histogram")
+    void stockRangeAndHistogram() throws Exception {
+        productRepository.save(Product.builder().name("Range Empty").stockQuantity(0).build());
+        productRepository.save(Product.builder().name("Range Low").stockQuantity(5).build());
+        productRepository.save(Product.builder().name("Range Mid").stockQuantity(42).build());
+        
+        mockMvc.perform(get("/api/products")
+                .param("minStock", "5")
+                .param("maxStock", "100"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[*].stockQuantity", containsInAnyOrder(5, 42, 100)));
+        mockMvc.perform(get("/api/products")
+                .param("maxStock", "5")
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].name").value("Range Empty"))
+            .andExpect(header().exists("X-Next-Cursor"));
+        mockMvc.perform(get("/api/products")
+                .param("minStock", "50")
+                .param("maxStock", "10"))
+            .andExpect(status().isBadRequest());
+        
+        mockMvc.perform(get("/api/inventory/stats/stock-histogram")
+                .param("bucketSize", "50"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.bucketSize").value(50))
+            .andExpect(jsonPath("$.buckets", hasSize(2)))
+            .andExpect(jsonPath("$.buckets[0].minStock").value(0))
+            .andExpect(jsonPath("$.buckets[0].maxStock").value(49))
+            .andExpect(jsonPath("$.buckets[0].productCount").value(3))
+            .andExpect(jsonPath("$.buckets[0].totalUnits").value(47))
+            .andExpect(jsonPath("$.buckets[1].minStock").value(100))
+            .andExpect(jsonPath("$.buckets[1].productCount").value(1));
+        mockMvc.perform(get("/api/inventory/stats/stock-histogram")
+                .param("bucketSize", "0"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @Order(29)
+    @DisplayName("Should get several products by ID in request order with not-found markers")
+    void multiGet() throws Exception {
+        Long first = productRepository.save(Product.builder().name("Mget First").stockQuantity(1).build()).getId();
+        Long second = productRepository.save(Product.builder().name("Mget Second").stockQuantity(2).build()).getId();
+        
+        mockMvc.perform(post("/api/products/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [%d, 9999, %d]}".formatted(second, first)))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].found").value(true))
+            .andExpect(jsonPath("$[0].product.name").value("Mget Second"))
+            .andExpect(jsonPath("$[1].id").value(9999))
+            .andExpect(jsonPath("$[1].found").value(false))
+            .andExpect(jsonPath("$[1].product").value(nullValue()))
+            .andExpect(jsonPath("$[2].product.name").value("Mget First"));
+        mockMvc.perform(post("/api/products/_mget")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": []}"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @Order(30)
+    @DisplayName("Should return only the requested product fields")
+    void sparseFields() throws Exception {
+        Long id = productRepository.save(Product.builder()
+            .name("Sparse Widget")
+            .description("A description nobody polling stock needs")
+            .stockQuantity(3)
+            .lowStockThreshold(5)
+            .build()).getId();
+        
+        mockMvc.perform(get("/api/products")
+                .param("fields", "id,stockQuantity")
+                .param("limit", "500"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").exists())
+            .andExpect(jsonPath("$[0].stockQuantity").exists())
+            .andExpect(jsonPath("$[0].name").doesNotExist())
+            .andExpect(jsonPath("$[0].description").doesNotExist())
+            .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+        mockMvc.perform(get("/api/products/low-stock")
+                .param("fields", "name,isLowStock"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@.name == 'Sparse Widget')].isLowStock", contains(true)))
+            .andExpect(jsonPath("$[0].id").doesNotExist());
+        mockMvc.perform(get("/api/products/{id}", id)
+                .param("fields", "updatedAt,name"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Sparse Widget"))
+            .andExpect(jsonPath("$.updatedAt", matchesPattern("\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}")))
+            .andExpect(jsonPath("$.stockQuantity").doesNotExist());
+        mockMvc.perform(get("/api/products")
+                .param("fields", "id,price"))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    @Order(31)
+    @DisplayName("Should read and write Smile and CBOR when the client asks for them")
+    void binaryFormats() throws Exception {
+        ObjectMapper cbor = objectMapper.copyWith(new CBORFactory());
+        ObjectMapper smile = objectMapper.copyWith(new SmileFactory());
+        MediaType smileType = new MediaType("application", "x-jackson-smile");
+        Long id = productRepository.save(Product.builder().name("Binary Widget").stockQuantity(4).build()).getId();
+        
+        MvcResult added = mockMvc.perform(patch("/api/products/{id}/stock/add", id)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cbor.writeValueAsBytes(StockUpdateDTO.builder().quantity(6).build())))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn();
+        ProductDTO product = cbor.readValue(added.getResponse().getContentAsByteArray(), ProductDTO.class);
+        assertThat(product.getName()).isEqualTo("Binary Widget");
+        assertThat(product.getStockQuantity()).isEqualTo(10);
+        
+        MvcResult fetched = mockMvc.perform(get("/api/products/{id}", id).accept(smileType))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(smileType))
+            .andReturn();
+        assertThat(smile.readValue(fetched.getResponse().getContentAsByteArray(), ProductDTO.class).getId())
+            .isEqualTo(id);
+        
+        // Each encoding has its own entity tag, and caches key the response by Accept
+        String smileETag = fetched.getResponse().getHeader("ETag");
+        String jsonETag = mockMvc.perform(get("/api/products/{id}", id))
+            .andExpect(header().string("Vary", containsString("Accept")))
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(smileETag).isNotEqualTo(jsonETag);
+        mockMvc.perform(get("/api/products/{id}", id).accept(smileType).header("If-None-Match", smileETag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("Vary", containsString("Accept")));
+        mockMvc.perform(get("/api/products/{id}", id)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", jsonETag))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/api/products").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", endsWith("-cbor\"")));
+        
+        // Errors keep their model in the negotiated format
+        MvcResult missing = mockMvc.perform(get("/api/products/{id}", 999_999).accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andReturn();
+        assertThat(cbor.readValue(missing.getResponse().getContentAsByteArray(), ErrorResponseDTO.class).getStatus())
+            .isEqualTo(404);
+        
+        // JSON stays the default
+        mockMvc.perform(get("/api/products/{id}", id).accept(MediaType.ALL))
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+    
+    @Test
+    @Order(32)
+    @DisplayName("Should feed creates, updates and deletes in order from a position")
+    void changeFeed() throws Exception {
+        productChangeFeed.sequence();
+        long since = productChangeRepository.findAll(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "seq")))
+            .stream()
+            .findFirst()
+            .map(ProductChange::getSeq)
+            .orElse(0L);
+        
+        MvcResult created = mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(ProductCreateDTO.builder()
+                    .name("Feed Widget")
+                    .stockQuantity(3)
+                    .build())))
+            .andExpect(status().isCreated())
+            .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(put("/api/products/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Renamed Feed Widget\"}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/products/{id}", testProduct.getId()))
+            .andExpect(status().isNoContent());
+        
+        // Upserts carry the product as it is now, deletes leave a tombstone
+        mockMvc.perform(get("/api/products/changes").param("since", String.valueOf(since)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(3)))
+            .andExpect(jsonPath("$.items[0].seq").value(since + 1))
+            .andExpect(jsonPath("$.items[0].type").value("UPSERT"))
+            .andExpect(jsonPath("$.items[0].product.name").value("Renamed Feed Widget"))
+            .andExpect(jsonPath("$.items[1].productId").value(id))
+            .andExpect(jsonPath("$.items[2].type").value("DELETE"))
+            .andExpect(jsonPath("$.items[2].productId").value(testProduct.getId()))
+            .andExpect(jsonPath("$.items[2].product").value(nullValue()))
+            .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+        
+        mockMvc.perform(get("/api/products/changes").param("since", String.valueOf(since)).param("limit", "2"))
+            .andExpect(jsonPath("$.items", hasSize(2)))
+            .andExpect(jsonPath("$.nextCursor").value(since + 2));
+        
+        mockMvc.perform(get("/api/products/changes").param("since", "-1"))
+            .andExpect(status().isBadRequest());
+        
+        // Compaction keeps the latest change per product; the recent delete is still retained
+        productChangeFeed.compact();
+        mockMvc.perform(get("/api/products/changes").param("since", String.valueOf(since)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(2)))
+            .andExpect(jsonPath("$.items[0].seq").value(since + 2))
+            .andExpect(jsonPath("$.items[0].product.name").value("Renamed Feed Widget"))
+            .andExpect(jsonPath("$.items[1].type").value("DELETE"));
+        assertThat(productChangeRepository.findAll())
+            .filteredOn(change -> change.getProductId().equals(testProduct.getId()))
+            .extracting(ProductChange::getType)
+            .containsExactly(ProductChange.Type.DELETE);
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory.replica;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource
+ */
+@DisplayName("Replica Routing Data Source Unit Tests")
+class ReplicaRoutingDataSourceTest {
+    
+    private ReplicaRoutingDataSource routing;
+    private ReplicaRoutingDataSource.Replica first;
+    private ReplicaRoutingDataSource.Replica second;
+    
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", mock(DataSource.class));
+        replicas.put("replica-1", mock(DataSource.class));
+        routing = new ReplicaRoutingDataSource(mock(DataSource.class), replicas, 1_000);
+        first = routing.replicas().get(0);
+        second = routing.replicas().get(1);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadConsistency.clear();
+    }
+    
+    @Test
+    @DisplayName("Should send writes to the primary")
+    void writes() {
+        first.observed(System.currentTimeMillis());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+    
+    @Test
+    @DisplayName("Should take turns between caught-up replicas and skip the others")
+    void reads() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY); // none observed yet
+        
+        long now = System.currentTimeMillis();
+        first.observed(now);
+        second.observed(now);
+        assertThat(routing.determineCurrentLookupKey()).isNotEqualTo(routing.determineCurrentLookupKey());
+        
+        second.unreachable();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+    
+    @Test
+    @DisplayName("Should fall back to the primary when every replica lags too far behind")
+    void lagFallback() {
+        first.observed(10_000);
+        second.observed(10_500);
+        
+        assertThat(routing.select(0, 11_000)).isSameAs(first);
+        assertThat(routing.select(0, 11_400).name).isEqualTo("replica-1"); // replica-0 lags 1.4 s
+        assertThat(routing.select(0, 12_000)).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should only read from replicas that have applied the write behind a consistency token")
+    void readYourWrites() {
+        long now = System.currentTimeMillis();
+        first.observed(now - 200);
+        second.observed(now - 100);
+        
+        ReadConsistency.require(now - 150);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+        
+        ReadConsistency.require(now - 100); // a heartbeat from the token's millisecond may predate the write
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+    
+    @Test
+    @DisplayName("Should read from the primary when asked to, whatever the replicas")
+    void onPrimary() {
+        first.observed(System.currentTimeMillis());
+        
+        Object key = ReadConsistency.onPrimary(() -> routing.determineCurrentLookupKey());
+        
+        assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+}
@@ -0,0 +1,140 @@
+package com.inventory.replica;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.ProductCreateDTO;
+import com.inventory.entity.Product;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for read replica routing, with a second in-memory H2 database as the replica.
+ * H2 does not replicate, so the tests copy the primary into the replica whenever it should catch up.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:replicaprimary;MODE=MySQL;DB_CLOSE_ON_EXIT=FALSE",
+    "inventory.replicas.enabled=true",
+    "inventory.replicas.instances[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+    "inventory.replicas.instances[0].username=sa",
+    "inventory.replicas.instances[0].password=",
+    "inventory.replicas.max-lag-ms=60000",
+    // Heartbeats and lag checks are driven by the tests
+    "inventory.replicas.heartbeat-interval-ms=3600000",
+    "inventory.replicas.lag-check-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Replica Routing Integration Tests")
+class ReplicaRoutingIntegrationTest {
+    
+    static final String REPLICA_URL = "jdbc:h2:mem:replicareplica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = new JdbcTemplate(dataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        productRepository.deleteAll();
+        replicate();
+    }
+    
+    @Test
+    @DisplayName("Should read from the replica, and from the primary until the replica shows the client's write")
+    void readYourWrites() throws Exception {
+        ProductCreateDTO widget = ProductCreateDTO.builder()
+            .name("Replicated Widget")
+            .stockQuantity(10)
+            .build();
+        MvcResult created = mockMvc.perform(post("/api/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(widget)))
+            .andExpect(status().isCreated())
+            .andExpect(header().exists(ReadConsistency.TOKEN_HEADER))
+            .andReturn();
+        String token = created.getResponse().getHeader(ReadConsistency.TOKEN_HEADER);
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        
+        // The replica has not caught up: plain reads miss the product, reads with the token go to the primary
+        mockMvc.perform(get("/api/products").param("limit", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/products").param("limit", "10").header(ReadConsistency.TOKEN_HEADER, token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].name").value("Replicated Widget"));
+        
+        // Once it has caught up the replica serves the token too; mark its copy to tell them apart
+        replicate();
+        replica.update("UPDATE products SET description = 'served by replica' WHERE id = ?", id);
+        mockMvc.perform(get("/api/products").param("limit", "10").header(ReadConsistency.TOKEN_HEADER, token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].description").value("served by replica"));
+    }
+    
+    @Test
+    @DisplayName("Should fall back to the primary while the replica lags too far behind")
+    void lagFallback() throws Exception {
+        productRepository.save(Product.builder().name("Lagging Widget").stockQuantity(1).build());
+        
+        mockMvc.perform(get("/api/products").param("limit", "10"))
+            .andExpect(jsonPath("$", hasSize(0)));
+        
+        replica.update("UPDATE replication_heartbeat SET beat_at = ?",
+            new Timestamp(System.currentTimeMillis() - 120_000));
+        replicaLagMonitor.poll();
+        mockMvc.perform(get("/api/products").param("limit", "10"))
+            .andExpect(jsonPath("$[0].name").value("Lagging Widget"));
+    }
+    
+    /**
+     * Copy the primary into the replica, including a heartbeat newer than every earlier write
+     */
+    private void replicate() throws Exception {
+        Thread.sleep(2);
+        replicaLagMonitor.beat();
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            primary.execute("SCRIPT TO '" + script + "'");
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+        replicaLagMonitor.poll();
+    }
+}
@@ -0,0 +1,119 @@
+package com.inventory.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for CompletionTrie
+ */
+@DisplayName("Completion Trie Unit Tests")
+class CompletionTrieTest {
+    
+    @Test
+    @DisplayName("Should complete normalized prefixes, highest score first")
+    void completeByScore() {
+        CompletionTrie trie = new CompletionTrie();
+        trie.put(1, "Laptop Computer", 5);
+        trie.put(2, "Laptop Bag", 40);
+        trie.put(3, "Lamp", 12);
+        trie.put(4, "Desk", 99);
+        
+        assertThat(ids(trie.complete("la", 10))).containsExactly(2L, 3L, 1L);
+        assertThat(ids(trie.complete("  LAPTOP  c", 10))).containsExactly(1L);
+        assertThat(ids(trie.complete("lap", 1))).containsExactly(2L);
+        assertThat(ids(trie.complete("", 2))).containsExactly(4L, 2L);
+        assertThat(trie.complete("lx", 10)).isEmpty();
+        assertThat(trie.complete("laptop computers", 10)).isEmpty();
+        assertThat(trie.complete("cafe", 10)).isEmpty();
+        
+        trie.put(5, "Café Crème", 1);
+        assertThat(trie.complete("cafe cr", 10)).singleElement()
+            .extracting(CompletionTrie.Completion::name).isEqualTo("Café Crème");
+    }
+    
+    @Test
+    @DisplayName("Should follow renames, score changes and removals")
+    void incrementalUpdates() {
+        CompletionTrie trie = new CompletionTrie();
+        trie.put(1, "Laptop Computer", 5);
+        trie.put(2, "Laptop Bag", 40);
+        trie.put(3, "Laptop", 7);
+        
+        trie.updateScore(1, 100);
+        assertThat(ids(trie.complete("laptop", 10))).containsExactly(1L, 2L, 3L);
+        
+        trie.put(2, "Backpack", 40);
+        assertThat(ids(trie.complete("laptop", 10))).containsExactly(1L, 3L);
+        assertThat(ids(trie.complete("back", 10))).containsExactly(2L);
+        
+        trie.remove(3);
+        trie.remove(1);
+        assertThat(trie.complete("lap", 10)).isEmpty();
+        assertThat(ids(trie.complete("", 10))).containsExactly(2L);
+        assertThat(trie.size()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Should return the same top N as sorting every matching name")
+    void matchesBruteForce() {
+        Random random = new Random(7);
+        CompletionTrie trie = new CompletionTrie();
+        Map<Long, String> names = new TreeMap<>();
+        Map<Long, Integer> scores = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(1_500) + 1;
+            switch (random.nextInt(10)) {
+                case 0 -> {
+                    trie.remove(id);
+                    names.remove(id);
+                    scores.remove(id);
+                }
+                case 1, 2 -> {
+                    int score = random.nextInt(50);
+                    trie.updateScore(id, score);
+                    scores.computeIfPresent(id, (key, previous) -> score);
+                }
+                default -> {
+                    String name = randomName(random);
+                    int score = random.nextInt(50);
+                    trie.put(id, name, score);
+                    names.put(id, name);
+                    scores.put(id, score);
+                }
+            }
+        }
+        
+        for (int i = 0; i < 500; i++) {
+            String prefix = randomName(random).substring(0, random.nextInt(4));
+            int limit = 1 + random.nextInt(20);
+            List<Long> expected = names.keySet().stream()
+                .filter(id -> NameNormalizer.normalize(names.get(id)).startsWith(NameNormalizer.normalize(prefix)))
+                .sorted(Comparator.comparing((Long id) -> scores.get(id)).reversed().thenComparing(id -> id))
+                .limit(limit)
+                .toList();
+            
+            assertThat(ids(trie.complete(prefix, limit))).as("prefix '%s'", prefix).isEqualTo(expected);
+        }
+        assertThat(trie.size()).isEqualTo(names.size());
+    }
+    
+    private static String randomName(Random random) {
+        char[] name = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = "abcAB ".charAt(random.nextInt(6));
+        }
+        return new String(name);
+    }
+    
+    private static List<Long> ids(List<CompletionTrie.Completion> completions) {
+        return completions.stream().map(CompletionTrie.Completion::id).toList();
+    }
+}
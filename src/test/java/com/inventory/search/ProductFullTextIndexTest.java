@@ -0,0 +1,99 @@
+package com.inventory.search;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductViewDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProductFullTextIndex
+ */
+@DisplayName("Product Full-Text Index Unit Tests")
+class ProductFullTextIndexTest {
+    
+    private final ProductFullTextIndex index = new ProductFullTextIndex(new InventoryProperties());
+    
+    @AfterEach
+    void tearDown() throws Exception {
+        index.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should rank name matches above description matches and highlight both")
+    void rankAndHighlight() throws Exception {
+        index.index(product(1L, "USB Cable", "Braided cable for a wireless keyboard"));
+        index.index(product(2L, "Wireless Keyboard", "Compact <b>bluetooth</b> keyboard"));
+        index.index(product(3L, "Desk Lamp", "LED lamp"));
+        index.refresh();
+        
+        ProductFullTextIndex.Result result = index.search("wireless keyboard", 0, 10);
+        
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.hits()).extracting(ProductFullTextIndex.Hit::productId).containsExactly(2L, 1L);
+        ProductFullTextIndex.Hit best = result.hits().get(0);
+        assertThat(best.nameHighlight()).isEqualTo("<em>Wireless</em> <em>Keyboard</em>");
+        assertThat(best.descriptionHighlight()).isEqualTo("Compact &lt;b&gt;bluetooth&lt;/b&gt; <em>keyboard</em>");
+        assertThat(result.hits().get(1).nameHighlight()).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should page through hits and reject pages past the result window")
+    void paging() throws Exception {
+        for (long id = 1; id <= 5; id++) {
+            index.index(product(id, "Widget " + id, null));
+        }
+        index.refresh();
+        
+        ProductFullTextIndex.Result second = index.search("widget", 2, 2);
+        
+        assertThat(second.totalHits()).isEqualTo(5);
+        assertThat(second.hits()).hasSize(2);
+        assertThat(index.search("widget", 4, 2).hits()).hasSize(1);
+        assertThatThrownBy(() -> index.search("widget", ProductFullTextIndex.MAX_RESULT_WINDOW, 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("Should apply only the latest queued change of a product")
+    void coalesceChanges() throws Exception {
+        index.index(product(1L, "Old Name", null));
+        index.refresh();
+        
+        index.index(product(1L, "Intermediate Name", null));
+        index.index(product(1L, "New Name", null));
+        assertThat(index.search("new", 0, 10).totalHits()).as("not refreshed yet").isZero();
+        index.refresh();
+        
+        assertThat(index.search("old", 0, 10).totalHits()).isZero();
+        assertThat(index.search("intermediate", 0, 10).totalHits()).isZero();
+        assertThat(index.search("new", 0, 10).totalHits()).isEqualTo(1);
+        
+        index.remove(1L);
+        index.refresh();
+        assertThat(index.search("new", 0, 10).totalHits()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should drop everything indexed before a clear")
+    void clear() throws Exception {
+        index.index(product(1L, "Gadget", null));
+        index.refresh();
+        
+        index.clear();
+        index.index(product(2L, "Gadget Pro", null));
+        index.refresh();
+        
+        assertThat(index.search("gadget", 0, 10).hits())
+            .extracting(ProductFullTextIndex.Hit::productId).containsExactly(2L);
+    }
+    
+    private static ProductViewDTO product(Long id, String name, String description) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ProductViewDTO(id, name, description, 10, 0, 5, false, now, now, 0L);
+    }
+}
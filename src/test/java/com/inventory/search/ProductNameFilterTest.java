@@ -0,0 +1,62 @@
+package com.inventory.search;
+
+import com.inventory.config.InventoryProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProductNameFilter
+ */
+@DisplayName("Product Name Filter Unit Tests")
+class ProductNameFilterTest {
+    
+    @Test
+    @DisplayName("Should never report an added name as new, whatever its spelling variant")
+    void noFalseNegatives() {
+        ProductNameFilter filter = filter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("Product " + i);
+        }
+        
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("  PRODUCT   " + i)).as("Product %d", i).isTrue();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should keep false positives near the configured rate")
+    void falsePositiveRate() {
+        ProductNameFilter filter = filter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("Product " + i);
+        }
+        
+        long falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("Other " + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+    
+    @Test
+    @DisplayName("Should forget every name when cleared")
+    void clear() {
+        ProductNameFilter filter = filter(100, 0.01);
+        filter.add("Desk Lamp");
+        
+        filter.clear();
+        
+        assertThat(filter.mightContain("Desk Lamp")).isFalse();
+    }
+    
+    private static ProductNameFilter filter(long expectedNames, double falsePositiveRate) {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getNameFilter().setExpectedNames(expectedNames);
+        properties.getNameFilter().setFalsePositiveRate(falsePositiveRate);
+        return new ProductNameFilter(properties);
+    }
+}
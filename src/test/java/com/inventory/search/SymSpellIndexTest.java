@@ -0,0 +1,129 @@
+package com.inventory.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SymSpellIndex
+ */
+@DisplayName("SymSpell Index Unit Tests")
+class SymSpellIndexTest {
+    
+    @Test
+    @DisplayName("Should find names despite typos and rank them by distance")
+    void searchWithTypos() {
+        SymSpellIndex index = new SymSpellIndex();
+        index.put(1, "Wireless Keyboard");
+        index.put(2, "Wired Keyboard");
+        index.put(3, "Wireless Mouse");
+        
+        assertThat(ids(index.search("wirelss keybaord", 10))).containsExactly(1L);
+        assertThat(index.search("wirelss keybaord", 10).get(0).distance()).isEqualTo(2);
+        assertThat(ids(index.search("keyboard wired", 10))).containsExactly(2L);
+        assertThat(ids(index.search("mosue", 10))).containsExactly(3L);
+        assertThat(ids(index.search("KEYBORD", 1))).containsExactly(1L);
+        assertThat(index.search("trackball", 10)).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should stop at the limit with the closest matches first, ties in ID order")
+    void searchLimit() {
+        SymSpellIndex index = new SymSpellIndex();
+        index.put(5, "Cable Tie");
+        index.put(4, "Cabel Reel");
+        index.put(3, "Cable Clip");
+        index.put(2, "Table Lamp");
+        index.put(1, "Sable Brush");
+        
+        assertThat(ids(index.search("cable", 2))).containsExactly(3L, 5L);
+        assertThat(ids(index.search("cable", 4))).containsExactly(3L, 5L, 1L, 2L);
+        assertThat(index.search("cable", 10)).extracting(SymSpellIndex.Match::distance)
+            .containsExactly(0, 0, 1, 1, 1);
+        assertThat(ids(index.search("cable clip", 10))).containsExactly(3L);
+        assertThat(ids(index.search("tabel lamp", 10))).containsExactly(2L);
+    }
+    
+    @Test
+    @DisplayName("Should allow fewer typos in short words")
+    void shortWords() {
+        SymSpellIndex index = new SymSpellIndex();
+        index.put(1, "USB Hub");
+        index.put(2, "Pen");
+        
+        assertThat(ids(index.search("hub", 10))).containsExactly(1L);
+        assertThat(ids(index.search("hb", 10))).isEmpty();
+        assertThat(ids(index.search("pan", 10))).containsExactly(2L);
+        assertThat(ids(index.search("pant", 10))).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should forget the words of renamed and removed products")
+    void renameAndRemove() {
+        SymSpellIndex index = new SymSpellIndex();
+        index.put(1, "Desk Lamp");
+        index.put(2, "Floor Lamp");
+        index.put(1, "Office Chair");
+        
+        assertThat(ids(index.search("desk", 10))).isEmpty();
+        assertThat(ids(index.search("lamp", 10))).containsExactly(2L);
+        assertThat(ids(index.search("chiar", 10))).containsExactly(1L);
+        
+        index.remove(2);
+        index.remove(1);
+        assertThat(index.size()).isZero();
+        assertThat(index.dictionarySize()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should find the same words as comparing the query with every word")
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        SymSpellIndex index = new SymSpellIndex();
+        Map<Long, String> names = new TreeMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            String name = randomWord(random) + " " + randomWord(random);
+            index.put(id, name);
+            names.put(id, name);
+        }
+        
+        for (int i = 0; i < 300; i++) {
+            String query = randomWord(random);
+            int allowed = SymSpellIndex.allowedDistance(query.length());
+            List<Long> expected = names.entrySet().stream()
+                .filter(entry -> List.of(SymSpellIndex.words(entry.getValue())).stream()
+                    .anyMatch(word -> SymSpellIndex.distance(query, word, allowed) <= allowed))
+                .map(Map.Entry::getKey)
+                .toList();
+            
+            assertThat(ids(index.search(query, Integer.MAX_VALUE))).as("query '%s'", query)
+                .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+    
+    @Test
+    @DisplayName("Should count adjacent swaps as one edit")
+    void distance() {
+        assertThat(SymSpellIndex.distance("keyboard", "keybaord", 2)).isEqualTo(1);
+        assertThat(SymSpellIndex.distance("lamp", "lamp", 2)).isZero();
+        assertThat(SymSpellIndex.distance("chair", "stool", 2)).isEqualTo(3);
+    }
+    
+    private static String randomWord(Random random) {
+        char[] word = new char[2 + random.nextInt(7)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = "abcdef".charAt(random.nextInt(6));
+        }
+        return new String(word);
+    }
+    
+    private static List<Long> ids(List<SymSpellIndex.Match> matches) {
+        return matches.stream().map(SymSpellIndex.Match::id).toList();
+    }
+}
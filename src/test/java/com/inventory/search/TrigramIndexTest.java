@@ -0,0 +1,114 @@
+package com.inventory.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for TrigramIndex
+ */
+@DisplayName("Trigram Index Unit Tests")
+class TrigramIndexTest {
+    
+    @Test
+    @DisplayName("Should find substrings case-insensitively in ID order")
+    void searchSubstring() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(3, "Desktop Computer");
+        index.put(1, "Laptop Computer");
+        index.put(2, "Laptop Bag");
+        
+        assertThat(index.search("COMPUTER", 10)).containsExactly(1, 3);
+        assertThat(index.search("top", 10)).containsExactly(1, 2, 3);
+        assertThat(index.search("top", 2)).containsExactly(1, 2);
+        assertThat(index.search("pc", 10)).isEmpty();
+        assertThat(index.search("tab", 10)).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should reject candidates that hold every trigram but not the substring")
+    void rejectTrigramFalsePositives() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "abcd bcde");
+        
+        assertThat(index.search("abcde", 10)).isEmpty();
+        assertThat(index.search("bcde", 10)).containsExactly(1);
+    }
+    
+    @Test
+    @DisplayName("Should drop the postings of a renamed or removed product")
+    void renameAndRemove() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Laptop Computer");
+        index.put(1, "Desk Lamp");
+        
+        assertThat(index.search("laptop", 10)).isEmpty();
+        assertThat(index.search("lamp", 10)).containsExactly(1);
+        
+        index.remove(1);
+        assertThat(index.search("lamp", 10)).isEmpty();
+        assertThat(index.search("", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should return the same matches as a linear scan of random names")
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        Map<Long, String> names = new TreeMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(2_000) + 1;
+            if (random.nextInt(10) == 0) {
+                index.remove(id);
+                names.remove(id);
+            } else {
+                String name = randomName(random);
+                index.put(id, name);
+                names.put(id, name);
+            }
+        }
+        
+        for (int i = 0; i < 500; i++) {
+            String query = randomName(random).substring(0, 1 + random.nextInt(4));
+            int limit = 1 + random.nextInt(50);
+            long[] expected = names.entrySet().stream()
+                .filter(entry -> entry.getValue().toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT)))
+                .mapToLong(Map.Entry::getKey)
+                .limit(limit)
+                .toArray();
+            
+            assertThat(index.search(query, limit)).as("query '%s'", query).containsExactly(expected);
+        }
+        assertThat(index.size()).isEqualTo(names.size());
+    }
+    
+    private static String randomName(Random random) {
+        char[] name = new char[4 + random.nextInt(8)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = "abcdeABCDE -".charAt(random.nextInt(12));
+        }
+        return new String(name);
+    }
+    
+    @Test
+    @DisplayName("Should keep posting lists sorted for IDs added out of order")
+    void outOfOrderIds() {
+        TrigramIndex index = new TrigramIndex();
+        long[] ids = {50, 7, 31, 2, 99, 18};
+        for (long id : ids) {
+            index.put(id, "Widget " + id);
+        }
+        
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        assertThat(index.search("widget", 10)).containsExactly(sorted);
+    }
+}
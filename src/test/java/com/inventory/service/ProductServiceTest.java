@@ -1,25 +1,52 @@
 package com.inventory.service;
 
+import com.inventory.cache.ProductCache;
+import com.inventory.config.InventoryProperties;
 import com.inventory.dto.*;
 import com.inventory.entity.Product;
+import com.inventory.entity.ProductChange;
+import com.inventory.entity.StockMovement;
+import com.inventory.entity.StockReservation;
+import com.inventory.event.ProductDeletedEvent;
+import com.inventory.exception.ChangeFeedPositionExpiredException;
 import com.inventory.exception.InsufficientStockException;
 import com.inventory.exception.InvalidStockOperationException;
 import com.inventory.exception.ProductNotFoundException;
+import com.inventory.feed.ProductChangeFeed;
 import com.inventory.mapper.ProductMapper;
+import com.inventory.repository.ProductChangeRepository;
 import com.inventory.repository.ProductRepository;
+import com.inventory.repository.StockReservationRepository;
+import com.inventory.search.ProductCompletionIndex;
+import com.inventory.search.ProductFullTextIndex;
+import com.inventory.search.ProductFuzzyIndex;
+import com.inventory.search.ProductNameFilter;
+import com.inventory.search.ProductNameIndex;
 import com.inventory.service.impl.ProductServiceImpl;
+import com.inventory.stock.HotStockManager;
+import com.inventory.stock.InventoryStatistics;
+import com.inventory.stock.StockAdjustment;
+import com.inventory.stock.StockAdjustmentOutcome;
+import com.inventory.stock.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,10 +65,53 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
     
+    @Spy
+    private InventoryProperties inventoryProperties = new InventoryProperties();
+    
+    @Mock
+    private HotStockManager hotStockManager;
+    
+    @Mock
+    private StockLedger stockLedger;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Spy
+    private ProductCache productCache = new ProductCache(new InventoryProperties(), new SimpleMeterRegistry());
+    
+    @Spy
+    private ProductNameIndex productNameIndex = new ProductNameIndex();
+    
+    @Spy
+    private ProductCompletionIndex productCompletionIndex = new ProductCompletionIndex();
+    
+    @Mock
+    private ProductFullTextIndex productFullTextIndex;
+    
+    @Spy
+    private ProductFuzzyIndex productFuzzyIndex = new ProductFuzzyIndex();
+    
+    @Spy
+    private ProductNameFilter productNameFilter = new ProductNameFilter(new InventoryProperties());
+    
+    @Mock
+    private InventoryStatistics inventoryStatistics;
+    
+    @Mock
+    private ProductChangeFeed productChangeFeed;
+    
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+    
+    @Mock
+    private StockReservationRepository reservationRepository;
+    
     @InjectMocks
     private ProductServiceImpl productService;
     
     private Product testProduct;
+    private ProductViewDTO testProductView;
     private ProductDTO testProductDTO;
     private ProductCreateDTO createDTO;
     private ProductUpdateDTO updateDTO;
@@ -60,6 +130,9 @@ class ProductServiceTest {
             .updatedAt(LocalDateTime.now())
             .build();
         
+        testProductView = new ProductViewDTO(1L, "Test Product", "Test Description",
+            50, 0, 10, false, testProduct.getCreatedAt(), testProduct.getUpdatedAt(), 0L);
+        
         testProductDTO = ProductDTO.builder()
             .id(1L)
             .name("Test Product")
@@ -93,9 +166,9 @@ class ProductServiceTest {
     @DisplayName("Should get all products successfully")
     void getAllProducts_Success() {
         // Given
-        List<Product> products = Arrays.asList(testProduct);
-        when(productRepository.findAll()).thenReturn(products);
-        when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
+        List<ProductViewDTO> products = Arrays.asList(testProductView);
+        when(productRepository.findAllViews()).thenReturn(products);
+        when(productMapper.toDTO(any(ProductViewDTO.class))).thenReturn(testProductDTO);
         
         // When
         List<ProductDTO> result = productService.getAllProducts();
@@ -104,7 +177,8 @@ class ProductServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getName()).isEqualTo("Test Product");
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findAllViews();
+        verify(productRepository, never()).findAll();
     }
     
     // ==================== GET PRODUCT BY ID TESTS ====================
@@ -113,8 +187,8 @@ class ProductServiceTest {
     @DisplayName("Should get product by ID successfully")
     void getProductById_Success() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productMapper.toDTO(testProduct)).thenReturn(testProductDTO);
+        when(productRepository.findViewById(1L)).thenReturn(Optional.of(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
         
         // When
         ProductDTO result = productService.getProductById(1L);
@@ -123,21 +197,85 @@ class ProductServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getName()).isEqualTo("Test Product");
-        verify(productRepository, times(1)).findById(1L);
+        verify(productRepository, times(1)).findViewById(1L);
+    }
+    
+    @Test
+    @DisplayName("Should serve repeated product reads from the cache until the product is written")
+    void getProductById_Cached() {
+        // Given
+        when(productRepository.findViewById(1L)).thenReturn(Optional.of(testProductView));
+        when(productMapper.toDTO(any(ProductViewDTO.class))).thenReturn(testProductDTO);
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+            Product saved = invocation.getArgument(0);
+            saved.setVersion(1L);
+            return saved;
+        });
+        when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
+        
+        // When
+        productService.getProductById(1L);
+        productService.getProductById(1L);
+        productService.updateProduct(1L, ProductUpdateDTO.builder().description("Refreshed").build());
+        productService.getProductById(1L);
+        
+        // Then
+        verify(productRepository, times(1)).findViewById(1L);
+        verify(productMapper).toDTO(argThat((ProductViewDTO view) ->
+            "Refreshed".equals(view.description()) && view.version() == 1L));
     }
     
     @Test
     @DisplayName("Should throw exception when product not found")
     void getProductById_NotFound() {
         // Given
-        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+        when(productRepository.findViewById(999L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> productService.getProductById(999L))
             .isInstanceOf(ProductNotFoundException.class)
             .hasMessageContaining("Product with ID 999 not found");
         
-        verify(productRepository, times(1)).findById(999L);
+        verify(productRepository, times(1)).findViewById(999L);
+    }
+    
+    @Test
+    @DisplayName("Should get products by IDs in request order, fetching only cache misses and marking unknown IDs")
+    void getProductsByIds() {
+        // Given
+        when(productRepository.findViewById(1L)).thenReturn(Optional.of(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
+        productService.getProductById(1L);
+        when(productRepository.findViewsByIdIn(List.of(2L))).thenReturn(List.of());
+        
+        // When
+        List<ProductLookupDTO> result = productService.getProductsByIds(List.of(2L, 1L, 2L));
+        
+        // Then
+        assertThat(result).containsExactly(
+            new ProductLookupDTO(2L, false, null),
+            new ProductLookupDTO(1L, true, testProductDTO),
+            new ProductLookupDTO(2L, false, null));
+        verify(productRepository).findViewsByIdIn(List.of(2L));
+        verify(productRepository, times(1)).findViewById(1L);
+    }
+    
+    @Test
+    @DisplayName("Should tag a product with its version and answer later tag lookups from the cache")
+    void getProductETag_FromCache() {
+        // Given
+        when(productRepository.findViewById(1L)).thenReturn(Optional.of(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO.toBuilder().availableQuantity(50).build());
+        
+        // When
+        ProductService.Tagged<ProductDTO> tagged = productService.getTaggedProductById(1L);
+        Optional<String> current = productService.getProductETag(1L);
+        
+        // Then
+        assertThat(tagged.eTag()).isEqualTo("0-50");
+        assertThat(current).contains(tagged.eTag());
+        verify(productRepository, never()).findVersionById(anyLong());
     }
     
     // ==================== CREATE PRODUCT TESTS ====================
@@ -161,7 +299,6 @@ class ProductServiceTest {
             .lowStockThreshold(15)
             .build();
         
-        when(productRepository.existsByNameIgnoreCase("New Product")).thenReturn(false);
         when(productMapper.toEntity(createDTO)).thenReturn(newProduct);
         when(productRepository.save(newProduct)).thenReturn(savedProduct);
         when(productMapper.toDTO(savedProduct)).thenReturn(testProductDTO);
@@ -171,15 +308,17 @@ class ProductServiceTest {
         
         // Then
         assertThat(result).isNotNull();
-        verify(productRepository, times(1)).existsByNameIgnoreCase("New Product");
+        verify(productRepository, never()).existsByNormalizedName(anyString()); // name filter knows it is new
         verify(productRepository, times(1)).save(newProduct);
+        verify(inventoryStatistics).productCreated(15);
     }
     
     @Test
     @DisplayName("Should throw exception when product name already exists")
     void createProduct_DuplicateName() {
         // Given
-        when(productRepository.existsByNameIgnoreCase("New Product")).thenReturn(true);
+        productNameFilter.add("New Product");
+        when(productRepository.existsByNormalizedName("new product")).thenReturn(true);
         
         // When & Then
         assertThatThrownBy(() -> productService.createProduct(createDTO))
@@ -259,6 +398,22 @@ class ProductServiceTest {
             .hasMessageContaining("Requested: 60, Available: 50");
         
         verify(productRepository, never()).save(any());
+        verify(stockLedger, never()).record(anyLong(), anyInt(), anyInt(), any());
+    }
+    
+    @Test
+    @DisplayName("Should append a ledger movement for a stock removal")
+    void removeStock_RecordsMovement() {
+        // Given
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
+        
+        // When
+        productService.removeStock(1L, stockUpdateDTO);
+        
+        // Then
+        verify(stockLedger).record(eq(1L), eq(-10), anyInt(), eq(StockMovement.Reason.REMOVE));
     }
     
     @Test
@@ -300,22 +455,206 @@ class ProductServiceTest {
         assertThat(testProduct.isLowStock()).isTrue();
     }
     
+    @Test
+    @DisplayName("Should remove stock with a single guarded update")
+    void removeStock_ConditionalUpdate() {
+        // Given
+        inventoryProperties.getStock().setEngine(InventoryProperties.StockEngine.CONDITIONAL_UPDATE);
+        when(productRepository.removeStockIfAvailable(eq(1L), eq(10), any(LocalDateTime.class))).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productMapper.toDTO(testProduct)).thenReturn(testProductDTO);
+        
+        // When
+        ProductDTO result = productService.removeStock(1L, stockUpdateDTO);
+        
+        // Then
+        assertThat(result).isNotNull();
+        verify(productRepository, never()).findByIdWithLock(any());
+        verify(productRepository, never()).save(any());
+    }
+    
+    @Test
+    @DisplayName("Should move a guarded removal to the counters when a promotion committed before the update")
+    void removeStock_ConditionalUpdate_PromotedMeanwhile() {
+        // Given
+        inventoryProperties.getStock().setEngine(InventoryProperties.StockEngine.CONDITIONAL_UPDATE);
+        ProductDTO hotProduct = testProductDTO.toBuilder().stockQuantity(40).build();
+        when(hotStockManager.removeStock(1L, 10)).thenReturn(Optional.empty(), Optional.of(hotProduct));
+        when(hotStockManager.isHot(1L)).thenReturn(true);
+        when(productRepository.removeStockIfAvailable(eq(1L), eq(10), any(LocalDateTime.class))).thenReturn(1);
+        
+        // When
+        ProductDTO result = productService.removeStock(1L, stockUpdateDTO);
+        
+        // Then
+        assertThat(result.getStockQuantity()).isEqualTo(40);
+        verify(productRepository).addStockIfWithinLimit(eq(1L), eq(10), eq(Integer.MAX_VALUE - 10),
+            any(LocalDateTime.class));
+        verify(productRepository, never()).findById(any());
+    }
+    
+    @Test
+    @DisplayName("Should tell insufficient stock apart from a missing product on a guarded update")
+    void removeStock_ConditionalUpdate_NoRowMatched() {
+        // Given
+        inventoryProperties.getStock().setEngine(InventoryProperties.StockEngine.CONDITIONAL_UPDATE);
+        stockUpdateDTO.setQuantity(60);
+        when(productRepository.removeStockIfAvailable(anyLong(), eq(60), any(LocalDateTime.class))).thenReturn(0);
+        when(productRepository.findAvailableQuantityById(1L)).thenReturn(Optional.of(50));
+        when(productRepository.findAvailableQuantityById(999L)).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.removeStock(1L, stockUpdateDTO))
+            .isInstanceOf(InsufficientStockException.class)
+            .hasMessageContaining("Requested: 60, Available: 50");
+        assertThatThrownBy(() -> productService.removeStock(999L, stockUpdateDTO))
+            .isInstanceOf(ProductNotFoundException.class);
+    }
+    
+    // ==================== STOCK BATCH TESTS ====================
+    
+    @Test
+    @DisplayName("Should apply every line of an atomic batch")
+    void applyStockBatch_AtomicSuccess() {
+        // Given
+        StockBatchRequestDTO batch = StockBatchRequestDTO.builder()
+            .mode(StockBatchRequestDTO.Mode.ATOMIC)
+            .lines(List.of(
+                StockBatchLineDTO.builder().productId(1L)
+                    .operation(StockBatchLineDTO.Operation.REMOVE).quantity(20).build(),
+                StockBatchLineDTO.builder().productId(1L)
+                    .operation(StockBatchLineDTO.Operation.ADD).quantity(5).build()))
+            .build();
+        when(productRepository.findAllByIdWithLock(anyCollection())).thenReturn(List.of(testProduct));
+        
+        // When
+        StockBatchResultDTO result = productService.applyStockBatch(batch);
+        
+        // Then
+        assertThat(result.isCommitted()).isTrue();
+        assertThat(result.getApplied()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(StockBatchLineResultDTO::getStockQuantity)
+            .containsExactly(30, 35);
+        assertThat(testProduct.getStockQuantity()).isEqualTo(35); // 50 - 20 + 5
+        verify(productRepository, times(1)).findAllByIdWithLock(anyCollection());
+        verify(productRepository, times(1)).saveAll(List.of(testProduct));
+    }
+    
+    @Test
+    @DisplayName("Should reject the whole atomic batch when one line fails")
+    void applyStockBatch_AtomicRejected() {
+        // Given
+        StockBatchRequestDTO batch = StockBatchRequestDTO.builder()
+            .mode(StockBatchRequestDTO.Mode.ATOMIC)
+            .lines(List.of(
+                StockBatchLineDTO.builder().productId(1L)
+                    .operation(StockBatchLineDTO.Operation.REMOVE).quantity(20).build(),
+                StockBatchLineDTO.builder().productId(1L)
+                    .operation(StockBatchLineDTO.Operation.REMOVE).quantity(40).build()))
+            .build();
+        when(productRepository.findAllByIdWithLock(anyCollection())).thenReturn(List.of(testProduct));
+        
+        // When
+        StockBatchResultDTO result = productService.applyStockBatch(batch);
+        
+        // Then
+        assertThat(result.isCommitted()).isFalse();
+        assertThat(result.getResults()).extracting(StockBatchLineResultDTO::getStatus)
+            .containsExactly(StockBatchLineResultDTO.Status.SKIPPED, StockBatchLineResultDTO.Status.FAILED);
+        assertThat(result.getResults().get(1).getError()).contains("Requested: 40, Available: 30");
+        assertThat(testProduct.getStockQuantity()).isEqualTo(50); // Unchanged
+        verify(productRepository, never()).saveAll(any());
+    }
+    
+    @Test
+    @DisplayName("Should apply satisfiable lines of a best-effort batch")
+    void applyStockBatch_BestEffort() {
+        // Given
+        StockBatchRequestDTO batch = StockBatchRequestDTO.builder()
+            .mode(StockBatchRequestDTO.Mode.BEST_EFFORT)
+            .lines(List.of(
+                StockBatchLineDTO.builder().productId(1L)
+                    .operation(StockBatchLineDTO.Operation.REMOVE).quantity(60).build(),
+                StockBatchLineDTO.builder().productId(999L)
+                    .operation(StockBatchLineDTO.Operation.ADD).quantity(5).build(),
+                StockBatchLineDTO.builder().productId(1L)
+                    .operation(StockBatchLineDTO.Operation.REMOVE).quantity(10).build()))
+            .build();
+        when(productRepository.findAllByIdWithLock(anyCollection())).thenReturn(List.of(testProduct));
+        
+        // When
+        StockBatchResultDTO result = productService.applyStockBatch(batch);
+        
+        // Then
+        assertThat(result.isCommitted()).isTrue();
+        assertThat(result.getApplied()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(StockBatchLineResultDTO::getStatus)
+            .containsExactly(
+                StockBatchLineResultDTO.Status.FAILED,
+                StockBatchLineResultDTO.Status.FAILED,
+                StockBatchLineResultDTO.Status.APPLIED);
+        assertThat(testProduct.getStockQuantity()).isEqualTo(40);
+    }
+    
+    @Test
+    @DisplayName("Should keep batched products off hot mode until their rows are locked")
+    void applyStockBatch_PinsHotProductsUntilLocked() {
+        // Given
+        StockBatchRequestDTO batch = StockBatchRequestDTO.builder()
+            .mode(StockBatchRequestDTO.Mode.ATOMIC)
+            .lines(List.of(StockBatchLineDTO.builder().productId(1L)
+                .operation(StockBatchLineDTO.Operation.ADD).quantity(5).build()))
+            .build();
+        when(productRepository.findAllByIdWithLock(anyCollection())).thenReturn(List.of(testProduct));
+        
+        // When
+        productService.applyStockBatch(batch);
+        
+        // Then
+        InOrder inOrder = inOrder(hotStockManager, productRepository);
+        inOrder.verify(hotStockManager).pin(1L);
+        inOrder.verify(productRepository).findAllByIdWithLock(anyCollection());
+        inOrder.verify(hotStockManager).unpin(1L);
+    }
+    
+    // ==================== COALESCED MOVEMENT TESTS ====================
+    
+    @Test
+    @DisplayName("Should apply coalesced movements in order with one save and per-caller outcomes")
+    void applyStockAdjustments_InOrder() {
+        // Given
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.saveAndFlush(any(Product.class))).thenReturn(testProduct);
+        when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
+        
+        // When
+        List<StockAdjustmentOutcome> outcomes = productService.applyStockAdjustments(1L, List.of(
+            StockAdjustment.remove(30),
+            StockAdjustment.remove(30),
+            StockAdjustment.add(10)));
+        
+        // Then
+        assertThat(outcomes).hasSize(3);
+        assertThat(outcomes.get(0).getOrThrow().getStockQuantity()).isEqualTo(20);
+        assertThat(outcomes.get(1).failure()).isInstanceOf(InsufficientStockException.class);
+        assertThat(outcomes.get(2).getOrThrow().getStockQuantity()).isEqualTo(30);
+        assertThat(testProduct.getStockQuantity()).isEqualTo(30);
+        verify(productRepository, times(1)).saveAndFlush(testProduct);
+    }
+    
     // ==================== LOW STOCK PRODUCTS TESTS ====================
     
     @Test
     @DisplayName("Should get low stock products successfully")
     void getLowStockProducts_Success() {
         // Given
-        Product lowStockProduct = Product.builder()
-            .id(2L)
-            .name("Low Stock Product")
-            .stockQuantity(5)
-            .lowStockThreshold(10)
-            .build();
+        ProductViewDTO lowStockProduct = new ProductViewDTO(2L, "Low Stock Product", null,
+            5, 0, 10, true, LocalDateTime.now(), LocalDateTime.now(), 0L);
         
-        List<Product> lowStockProducts = Arrays.asList(lowStockProduct);
+        List<ProductViewDTO> lowStockProducts = Arrays.asList(lowStockProduct);
         when(productRepository.findLowStockProducts()).thenReturn(lowStockProducts);
-        when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
+        when(productMapper.toDTO(any(ProductViewDTO.class))).thenReturn(testProductDTO);
         
         // When
         List<ProductDTO> result = productService.getLowStockProducts();
@@ -326,14 +665,217 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findLowStockProducts();
     }
     
+    @Test
+    @DisplayName("Should page low stock products by ID and return the next cursor")
+    void getLowStockProducts_Paged() {
+        // Given
+        ProductViewDTO first = new ProductViewDTO(2L, "First", null, 5, 0, 10, true, null, null, 0L);
+        ProductViewDTO second = new ProductViewDTO(3L, "Second", null, 1, 0, 10, true, null, null, 0L);
+        when(productRepository.findLowStockProductsAfter(eq(1L), any(Pageable.class)))
+            .thenReturn(Arrays.asList(first, second));
+        when(productMapper.toDTO(first)).thenReturn(ProductDTO.builder().id(2L).build());
+        
+        // When
+        CursorPageDTO<ProductDTO> result = productService.getLowStockProducts(1L, 1);
+        
+        // Then
+        assertThat(result.getItems()).extracting(ProductDTO::getId).containsExactly(2L);
+        assertThat(result.getNextCursor()).isEqualTo(2L);
+        verify(productRepository, never()).findLowStockProducts();
+    }
+    
+    @Test
+    @DisplayName("Should start the product keyset page at the beginning when no cursor is given")
+    void getProducts_FirstPage() {
+        // Given
+        when(productRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
+        
+        // When
+        CursorPageDTO<ProductDTO> result = productService.getProducts(null, 10);
+        
+        // Then
+        assertThat(result.getItems()).containsExactly(testProductDTO);
+        assertThat(result.getNextCursor()).isNull();
+        verify(productRepository, never()).findAll();
+    }
+    
+    @Test
+    @DisplayName("Should read only the requested columns for a sparse page and skip the stock mapping without stock fields")
+    void getProducts_SparseFields() {
+        // Given
+        ProductFields fields = ProductFields.of(ProductField.ID, ProductField.NAME);
+        ProductViewDTO sparseView = new ProductViewDTO(1L, "Test Product", null, null, null, null, null, null, null, null);
+        when(productRepository.findSparseViews(fields, ProductRepository.PAGE_AFTER, Map.of("after", 0L), 11))
+            .thenReturn(List.of(sparseView));
+        
+        // When
+        CursorPageDTO<ProductDTO> result = productService.getProducts(null, 10, fields);
+        
+        // Then
+        assertThat(result.getItems()).singleElement()
+            .isInstanceOf(SparseProductDTO.class)
+            .extracting(ProductDTO::getName).isEqualTo("Test Product");
+        verify(productRepository, never()).findPageAfter(any(), any());
+        verifyNoInteractions(productMapper);
+    }
+    
+    @Test
+    @DisplayName("Should page products within a stock range through the range query")
+    void getProductsByStockRange() {
+        // Given
+        when(productRepository.findByStockQuantityBetweenAfter(eq(10), eq(60), eq(0L), any(Pageable.class)))
+            .thenReturn(Arrays.asList(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
+        
+        // When
+        CursorPageDTO<ProductDTO> result = productService.getProductsByStockRange(10, 60, null, 10);
+        
+        // Then
+        assertThat(result.getItems()).containsExactly(testProductDTO);
+        assertThat(result.getNextCursor()).isNull();
+    }
+    
+    @Test
+    @DisplayName("Should reject a stock range whose minimum exceeds its maximum")
+    void getProductsByStockRange_Inverted() {
+        assertThatThrownBy(() -> productService.getProductsByStockRange(60, 10, null, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(productRepository, never()).findByStockQuantityBetweenAfter(anyInt(), anyInt(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Should fold the per-quantity counts into equal-width buckets in one pass")
+    void getStockHistogram() {
+        // Given
+        List<ProductRepository.StockLevelCount> levels = List.of(
+            stockLevel(0, 3), stockLevel(4, 1), stockLevel(9, 2), stockLevel(25, 1));
+        when(productRepository.countByStockQuantity()).thenReturn(levels);
+        
+        // When
+        StockHistogramDTO result = productService.getStockHistogram(10);
+        
+        // Then
+        assertThat(result.buckets()).containsExactly(
+            new StockHistogramDTO.Bucket(0, 9, 6, 22),
+            new StockHistogramDTO.Bucket(20, 29, 1, 25));
+        assertThatThrownBy(() -> productService.getStockHistogram(0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("Should search product names case-insensitively through the name index")
+    void searchProductsByName_UsesIndex() {
+        // Given
+        productNameIndex.index(testProductView);
+        when(productRepository.findViewsByIdIn(List.of(1L))).thenReturn(Arrays.asList(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
+        
+        // When
+        List<ProductDTO> result = productService.searchProductsByName("TeSt");
+        
+        // Then
+        assertThat(result).containsExactly(testProductDTO);
+        verify(productRepository, never()).findViewsByNameContaining(anyString());
+        verify(productMapper, never()).toDTO(any(Product.class));
+    }
+    
+    @Test
+    @DisplayName("Should not query the database when the name index has no match")
+    void searchProductsByName_NoMatch() {
+        // Given
+        productNameIndex.index(testProductView);
+        
+        // When
+        List<ProductDTO> result = productService.searchProductsByName("laptop", 10);
+        
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(productRepository);
+    }
+    
+    @Test
+    @DisplayName("Should find misspelled names and keep the closest match first")
+    void searchProductsByNameFuzzy_RankedByDistance() {
+        // Given
+        ProductViewDTO similarView = new ProductViewDTO(2L, "Test Produce", null, 5, 0, 10, true,
+            testProductView.createdAt(), testProductView.updatedAt(), 0L);
+        ProductDTO similarDTO = ProductDTO.builder().id(2L).name("Test Produce").build();
+        productFuzzyIndex.index(similarView);
+        productFuzzyIndex.index(testProductView);
+        when(productRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(testProductView, similarView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
+        when(productMapper.toDTO(similarView)).thenReturn(similarDTO);
+        
+        // When
+        List<ProductDTO> result = productService.searchProductsByNameFuzzy("tset prodcut", 10);
+        
+        // Then
+        assertThat(result).containsExactly(testProductDTO, similarDTO);
+    }
+    
+    @Test
+    @DisplayName("Should autocomplete names from memory without touching the database")
+    void autocomplete_FromIndex() {
+        // Given
+        productCompletionIndex.index(testProductView);
+        
+        // When
+        List<ProductSuggestionDTO> result = productService.autocomplete("test p", 5);
+        
+        // Then
+        assertThat(result).containsExactly(new ProductSuggestionDTO(1L, "Test Product", 50));
+        assertThatThrownBy(() -> productService.autocomplete("test", 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productRepository);
+    }
+    
+    @Test
+    @DisplayName("Should attach current product data to full-text hits and drop deleted products")
+    void searchFullText_LoadsHits() {
+        // Given
+        when(productFullTextIndex.search("test", 20, 10)).thenReturn(new ProductFullTextIndex.Result(2, List.of(
+            new ProductFullTextIndex.Hit(1L, 2.5f, "<em>Test</em> Product", null),
+            new ProductFullTextIndex.Hit(2L, 1.0f, "<em>Test</em> Kit", null))));
+        when(productRepository.findViewsByIdIn(List.of(1L, 2L))).thenReturn(List.of(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
+        
+        // When
+        FullTextPageDTO result = productService.searchFullText("test", 2, 10);
+        
+        // Then
+        assertThat(result.hits()).containsExactly(new FullTextHitDTO(testProductDTO, 2.5f, "<em>Test</em> Product", null));
+        assertThat(result.totalHits()).isEqualTo(2);
+        assertThat(result.page()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("Should reject full-text pages beyond the result window")
+    void searchFullText_InvalidPage() {
+        assertThatThrownBy(() -> productService.searchFullText("test", -1, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.searchFullText("test", 1_000, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productFullTextIndex);
+    }
+    
+    @Test
+    @DisplayName("Should reject a low stock page size out of range")
+    void getLowStockProducts_InvalidLimit() {
+        assertThatThrownBy(() -> productService.getLowStockProducts(null, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productRepository);
+    }
+    
     // ==================== UPDATE PRODUCT TESTS ====================
     
     @Test
     @DisplayName("Should update product successfully")
     void updateProduct_Success() {
         // Given
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.existsByNameIgnoreCase("Updated Product")).thenReturn(false);
+        productNameFilter.add("Updated Product");
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.existsByNormalizedName("updated product")).thenReturn(false);
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
         when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
         
@@ -346,6 +888,39 @@ class ProductServiceTest {
         assertThat(testProduct.getDescription()).isEqualTo("Updated Description");
         assertThat(testProduct.getLowStockThreshold()).isEqualTo(20);
         verify(productRepository, times(1)).save(testProduct);
+        verify(inventoryStatistics).thresholdChanged(eq(50), eq(10), anyInt());
+    }
+    
+    @Test
+    @DisplayName("Should reject renaming to a name that differs only in case, accents or spacing")
+    void updateProduct_DuplicateNormalizedName() {
+        // Given
+        productNameFilter.add("Café Table");
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.existsByNormalizedName("cafe table")).thenReturn(true);
+        
+        // When & Then
+        assertThatThrownBy(() -> productService.updateProduct(1L,
+                ProductUpdateDTO.builder().name("  CAFE   table").build()))
+            .isInstanceOf(InvalidStockOperationException.class)
+            .hasMessageContaining("already exists");
+        verify(productRepository, never()).save(any());
+    }
+    
+    @Test
+    @DisplayName("Should not query names when only the case of the current name changes")
+    void updateProduct_SameNormalizedName() {
+        // Given
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
+        
+        // When
+        productService.updateProduct(1L, ProductUpdateDTO.builder().name("TEST PRODUCT").build());
+        
+        // Then
+        assertThat(testProduct.getName()).isEqualTo("TEST PRODUCT");
+        verify(productRepository, never()).existsByNormalizedName(anyString());
     }
     
     @Test
@@ -356,7 +931,7 @@ class ProductServiceTest {
             .description("Only Description Updated")
             .build();
         
-        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
         when(productMapper.toDTO(any(Product.class))).thenReturn(testProductDTO);
         
@@ -376,27 +951,130 @@ class ProductServiceTest {
     @DisplayName("Should delete product successfully")
     void deleteProduct_Success() {
         // Given
-        when(productRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
+        when(reservationRepository.resolveAllByProductId(eq(1L), eq(StockReservation.Status.ACTIVE),
+            eq(StockReservation.Status.RELEASED), any(LocalDateTime.class))).thenReturn(2);
+        
+        // When
+        productService.deleteProduct(1L);
+        
+        // Then
+        InOrder inOrder = inOrder(hotStockManager, productRepository);
+        inOrder.verify(hotStockManager).pin(1L);
+        inOrder.verify(productRepository).findByIdWithLock(1L);
+        inOrder.verify(hotStockManager).unpin(1L);
+        verify(reservationRepository).resolveAllByProductId(eq(1L), eq(StockReservation.Status.ACTIVE),
+            eq(StockReservation.Status.RELEASED), any(LocalDateTime.class));
+        verify(hotStockManager).evictAfterCommit(1L);
+        verify(productRepository, times(1)).delete(testProduct);
+        verify(eventPublisher).publishEvent(new ProductDeletedEvent(1L));
+        verify(inventoryStatistics).productDeleted(50, 10);
+        verify(productChangeFeed).record(1L, ProductChange.Type.DELETE);
+    }
+    
+    @Test
+    @DisplayName("Should subtract the written-back stock of a hot product from the statistics")
+    void deleteProduct_HotProduct() {
+        // Given: pinning writes the hot counters back, so the locked row carries 15 more units
+        testProduct.setStockQuantity(65);
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testProduct));
         
         // When
         productService.deleteProduct(1L);
         
         // Then
-        verify(productRepository, times(1)).existsById(1L);
-        verify(productRepository, times(1)).deleteById(1L);
+        InOrder inOrder = inOrder(hotStockManager, productRepository, inventoryStatistics);
+        inOrder.verify(hotStockManager).pin(1L);
+        inOrder.verify(productRepository).findByIdWithLock(1L);
+        inOrder.verify(inventoryStatistics).productDeleted(65, 10);
     }
     
     @Test
     @DisplayName("Should throw exception when deleting non-existent product")
     void deleteProduct_NotFound() {
         // Given
-        when(productRepository.existsById(999L)).thenReturn(false);
+        when(productRepository.findByIdWithLock(999L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThatThrownBy(() -> productService.deleteProduct(999L))
             .isInstanceOf(ProductNotFoundException.class)
             .hasMessageContaining("Product with ID 999 not found");
         
-        verify(productRepository, never()).deleteById(any());
+        verify(productRepository, never()).delete(any(Product.class));
+        verify(hotStockManager).unpin(999L);
+        verifyNoInteractions(reservationRepository);
+        verify(inventoryStatistics, never()).productDeleted(anyInt(), anyInt());
+        verifyNoInteractions(productChangeFeed);
+    }
+    
+    // ==================== CHANGE FEED TESTS ====================
+    
+    @Test
+    @DisplayName("Should tag the catalog with the committed change count and any hot stock")
+    void getCatalogETag() {
+        when(productChangeFeed.committedChanges()).thenReturn(42L);
+        assertThat(productService.getCatalogETag()).isEqualTo("42");
+        
+        when(hotStockManager.fingerprint()).thenReturn(255L);
+        assertThat(productService.getCatalogETag()).isEqualTo("42-ff");
+        verifyNoInteractions(productRepository);
+    }
+    
+    @Test
+    @DisplayName("Should hand the catalog tag to the listing read with it")
+    void readCatalog() {
+        when(productChangeFeed.committedChanges()).thenReturn(42L);
+        
+        assertThat(productService.readCatalog(eTag -> eTag + ":body")).isEqualTo("42:body");
+    }
+    
+    @Test
+    @DisplayName("Should page changes by sequence, with current products for upserts and none for deletes")
+    void getChanges() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(productChangeRepository.findPage(eq(4L), any(Pageable.class))).thenReturn(List.of(
+            new ProductChange(15L, 5L, 1L, ProductChange.Type.UPSERT, now),
+            new ProductChange(12L, 6L, 2L, ProductChange.Type.DELETE, now),
+            new ProductChange(16L, 7L, 1L, ProductChange.Type.UPSERT, now)));
+        when(productRepository.findViewsByIdIn(Set.of(1L))).thenReturn(List.of(testProductView));
+        when(productMapper.toDTO(testProductView)).thenReturn(testProductDTO);
+        
+        // When
+        CursorPageDTO<ProductChangeDTO> result = productService.getChanges(4L, 2);
+        
+        // Then
+        assertThat(result.getItems()).extracting(ProductChangeDTO::getSeq).containsExactly(5L, 6L);
+        assertThat(result.getItems().get(0).getProduct()).isEqualTo(testProductDTO);
+        assertThat(result.getItems().get(1).getType()).isEqualTo(ProductChange.Type.DELETE);
+        assertThat(result.getItems().get(1).getProduct()).isNull();
+        assertThat(result.getNextCursor()).isEqualTo(6L);
+        verify(productChangeFeed).sequence();
+    }
+    
+    @Test
+    @DisplayName("Should expire positions the feed has been pruned past, but not the start")
+    void getChanges_PrunedPosition() {
+        when(productChangeFeed.prunedThrough()).thenReturn(10L);
+        
+        assertThatThrownBy(() -> productService.getChanges(4L, 10))
+            .isInstanceOf(ChangeFeedPositionExpiredException.class);
+        assertThat(productService.getChanges(0L, 10).getItems()).isEmpty();
+        assertThat(productService.getChanges(10L, 10).getItems()).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Should reject a negative change feed position")
+    void getChanges_NegativeSince() {
+        assertThatThrownBy(() -> productService.getChanges(-1L, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(productChangeRepository);
+    }
+    
+    private static ProductRepository.StockLevelCount stockLevel(int stockQuantity, long productCount) {
+        ProductRepository.StockLevelCount level = mock(ProductRepository.StockLevelCount.class);
+        when(level.getStockQuantity()).thenReturn(stockQuantity);
+        when(level.getProductCount()).thenReturn(productCount);
+        return level;
     }
-}
\ No newline at end of file
+}
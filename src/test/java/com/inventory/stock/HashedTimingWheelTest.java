@@ -0,0 +1,43 @@
+package com.inventory.stock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for HashedTimingWheel
+ */
+@DisplayName("Hashed Timing Wheel Unit Tests")
+class HashedTimingWheelTest {
+    
+    @Test
+    @DisplayName("Should expire keys once their deadline has passed, never earlier")
+    void expiresOnDeadline() {
+        HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(10, 8, 0);
+        wheel.schedule(1L, 25);
+        wheel.schedule(2L, 500); // several revolutions of the wheel away
+        
+        assertThat(wheel.advance(24)).isEmpty();
+        assertThat(wheel.advance(30)).containsExactly(1L);
+        assertThat(wheel.advance(499)).isEmpty();
+        assertThat(wheel.advance(500)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+    
+    @Test
+    @DisplayName("Should not return cancelled keys and should honour rescheduling")
+    void cancelAndReschedule() {
+        HashedTimingWheel<Long> wheel = new HashedTimingWheel<>(10, 8, 0);
+        wheel.schedule(1L, 50);
+        wheel.schedule(2L, 50);
+        wheel.schedule(3L, 50);
+        
+        assertThat(wheel.cancel(2L)).isTrue();
+        assertThat(wheel.cancel(2L)).isFalse();
+        wheel.schedule(3L, 200);
+        
+        assertThat(wheel.advance(100)).containsExactly(1L);
+        assertThat(wheel.advance(200)).containsExactly(3L);
+    }
+}
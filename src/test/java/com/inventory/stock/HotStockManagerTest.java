@@ -0,0 +1,155 @@
+package com.inventory.stock;
+
+import com.inventory.cache.ProductCache;
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductDTO;
+import com.inventory.entity.Product;
+import com.inventory.entity.StockMovement;
+import com.inventory.feed.ProductChangeFeed;
+import com.inventory.mapper.ProductMapper;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HotStockManager
+ */
+@DisplayName("Hot Stock Manager Unit Tests")
+class HotStockManagerTest {
+    
+    private HotStockManager hotStockManager;
+    private TransactionTemplate transactionTemplate;
+    private StockLedger stockLedger;
+    
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getHotStock().setPromoteOpsPerWindow(1);
+        properties.getHotStock().setPromoteLockWaitMs(0);
+        properties.getHotStock().setStripes(4);
+        
+        Product product = Product.builder().id(1L).name("Widget").stockQuantity(10).build();
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findByIdWithLock(1L)).thenReturn(Optional.of(product));
+        ProductMapper productMapper = mock(ProductMapper.class);
+        when(productMapper.toDTO(product)).thenReturn(ProductDTO.builder()
+            .id(1L)
+            .name("Widget")
+            .stockQuantity(10)
+            .reservedQuantity(0)
+            .availableQuantity(10)
+            .lowStockThreshold(2)
+            .build());
+        
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+            .thenReturn(new int[] {1});
+        stockLedger = mock(StockLedger.class);
+        
+        NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        hotStockManager = new HotStockManager(productRepository, productMapper, jdbcTemplate, transactionManager,
+            mock(ProductCache.class), mock(ProductChangeFeed.class), stockLedger, properties);
+        
+        hotStockManager.recordStockOperation(1L, 0);
+        hotStockManager.evaluateContention();
+        assertThat(hotStockManager.isHot(1L)).isTrue();
+    }
+    
+    @Test
+    @DisplayName("Should leave hot stock where it was when the movement's transaction fails to commit")
+    void rollbackRestoresCounters() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            hotStockManager.removeStock(1L, 3);
+            hotStockManager.addStock(1L, 5);
+            // The ledger insert runs just before commit and fails
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new DataAccessResourceFailureException("Ledger insert failed");
+                }
+            });
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+        
+        assertThat(hotStockManager.hotAvailableQuantity(1L)).contains(10);
+    }
+    
+    @Test
+    @DisplayName("Should make added hot stock available once the transaction commits")
+    void commitAppliesAdditions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(hotStockManager.addStock(1L, 5)).get()
+                .extracting(ProductDTO::getAvailableQuantity)
+                .isEqualTo(15);
+            assertThat(hotStockManager.hotAvailableQuantity(1L)).contains(10);
+            // Takes the 5 units added above first, then 7 from the counters
+            assertThat(hotStockManager.removeStock(1L, 12)).get()
+                .extracting(ProductDTO::getAvailableQuantity)
+                .isEqualTo(3);
+        });
+        
+        assertThat(hotStockManager.hotAvailableQuantity(1L)).contains(3);
+    }
+    
+    @Test
+    @DisplayName("Should write the ledger entries of committed hot movements with the write-back")
+    void writeBackRecordsCommittedMovements() {
+        transactionTemplate.executeWithoutResult(status -> hotStockManager.addStock(1L, 5));
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            hotStockManager.removeStock(1L, 2);
+            throw new IllegalStateException("Rolled back");
+        })).isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(stockLedger);
+        
+        hotStockManager.flush();
+        
+        verify(stockLedger).recordAll(argThat((List<StockMovement> movements) -> movements.size() == 1
+            && movements.get(0).getDelta() == 5
+            && movements.get(0).getResultingQuantity() == 15
+            && movements.get(0).getReason() == StockMovement.Reason.ADD));
+        
+        // Written entries leave the queue, so the next write-back has nothing to record
+        hotStockManager.flush();
+        verifyNoMoreInteractions(stockLedger);
+    }
+    
+    /**
+     * Runs the synchronization callbacks of real transactions without a resource behind them
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+        
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+        
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+        
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
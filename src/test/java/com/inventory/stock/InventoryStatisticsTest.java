@@ -0,0 +1,127 @@
+package com.inventory.stock;
+
+import com.inventory.dto.InventoryStatsDTO;
+import com.inventory.event.StockLevelChangedEvent;
+import com.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryStatistics
+ */
+@DisplayName("Inventory Statistics Unit Tests")
+class InventoryStatisticsTest {
+    
+    private ProductRepository productRepository;
+    private HotStockManager hotStockManager;
+    private InventoryStatistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        hotStockManager = mock(HotStockManager.class);
+        statistics = new InventoryStatistics(productRepository, hotStockManager);
+    }
+    
+    @Test
+    @DisplayName("Should follow a product through creation, movements, a threshold change and deletion")
+    void lifecycle() {
+        statistics.productCreated(10);
+        assertStats(0, 1, 1, 1);
+        
+        statistics.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", 50, 50, 10)); // initial stock
+        assertStats(50, 1, 0, 0);
+        
+        statistics.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", -45, 5, 10));
+        assertStats(5, 1, 1, 0);
+        
+        statistics.thresholdChanged(5, 10, 3);
+        statistics.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", 0, 5, 3));
+        assertStats(5, 1, 0, 0);
+        
+        statistics.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", -5, 0, 3));
+        assertStats(0, 1, 1, 1);
+        
+        statistics.productDeleted(0, 3);
+        assertStats(0, 0, 0, 0);
+    }
+    
+    @Test
+    @DisplayName("Should correct drifted counters from the aggregate query")
+    void reconcile() {
+        statistics.productCreated(10);
+        statistics.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", 50, 50, 10));
+        ProductRepository.InventoryTotals totals = totals(2, 80L, 1L, 0L);
+        when(productRepository.getInventoryTotals()).thenReturn(totals);
+        
+        statistics.reconcile();
+        
+        assertStats(80, 2, 1, 0);
+        assertThat(statistics.snapshot().reconciledAt()).isNotNull();
+    }
+    
+    @Test
+    @DisplayName("Should treat the sums of an empty table as zero")
+    void reconcileEmpty() {
+        statistics.productCreated(10);
+        ProductRepository.InventoryTotals totals = totals(0, null, null, null);
+        when(productRepository.getInventoryTotals()).thenReturn(totals);
+        
+        statistics.reconcile();
+        
+        assertStats(0, 0, 0, 0);
+    }
+    
+    @Test
+    @DisplayName("Should write hot stock back before reading the totals")
+    void reconcileWhileHot() {
+        ProductRepository.InventoryTotals totals = totals(0, null, null, null);
+        when(productRepository.getInventoryTotals()).thenReturn(totals);
+        
+        statistics.reconcile();
+        
+        InOrder inOrder = inOrder(hotStockManager, productRepository);
+        inOrder.verify(hotStockManager).flush();
+        inOrder.verify(productRepository).getInventoryTotals();
+        assertThat(statistics.snapshot().reconciledAt()).isNotNull();
+    }
+    
+    @Test
+    @DisplayName("Should skip a reconciliation that overlaps a change")
+    void reconcileDuringChange() {
+        statistics.productCreated(0);
+        ProductRepository.InventoryTotals totals = totals(1, 0L, 1L, 1L); // read before the change was counted
+        when(productRepository.getInventoryTotals()).thenAnswer(invocation -> {
+            statistics.onStockLevelChanged(new StockLevelChangedEvent(1L, "Widget", 7, 7, 0));
+            return totals;
+        });
+        
+        statistics.reconcile();
+        
+        assertStats(7, 1, 0, 0);
+        assertThat(statistics.snapshot().reconciledAt()).isNull();
+    }
+    
+    private void assertStats(long totalUnits, long productCount, long lowStockCount, long outOfStockCount) {
+        InventoryStatsDTO stats = statistics.snapshot();
+        assertThat(stats.totalUnits()).isEqualTo(totalUnits);
+        assertThat(stats.productCount()).isEqualTo(productCount);
+        assertThat(stats.lowStockCount()).isEqualTo(lowStockCount);
+        assertThat(stats.outOfStockCount()).isEqualTo(outOfStockCount);
+    }
+    
+    private static ProductRepository.InventoryTotals totals(long productCount, Long totalUnits,
+                                                            Long lowStockCount, Long outOfStockCount) {
+        ProductRepository.InventoryTotals totals = mock(ProductRepository.InventoryTotals.class);
+        when(totals.getProductCount()).thenReturn(productCount);
+        when(totals.getTotalUnits()).thenReturn(totalUnits);
+        when(totals.getLowStockCount()).thenReturn(lowStockCount);
+        when(totals.getOutOfStockCount()).thenReturn(outOfStockCount);
+        return totals;
+    }
+}
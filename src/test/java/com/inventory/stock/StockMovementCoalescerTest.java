@@ -0,0 +1,106 @@
+package com.inventory.stock;
+
+import com.inventory.config.InventoryProperties;
+import com.inventory.dto.ProductDTO;
+import com.inventory.dto.StockBatchLineDTO;
+import com.inventory.dto.StockUpdateDTO;
+import com.inventory.exception.InsufficientStockException;
+import com.inventory.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockMovementCoalescer
+ */
+@DisplayName("Stock Movement Coalescer Unit Tests")
+class StockMovementCoalescerTest {
+    
+    @Test
+    @DisplayName("Should delegate straight to the service when coalescing is disabled")
+    void disabled() {
+        ProductService productService = mock(ProductService.class);
+        StockUpdateDTO stockUpdate = StockUpdateDTO.builder().quantity(5).build();
+        ProductDTO product = ProductDTO.builder().id(1L).stockQuantity(15).build();
+        when(productService.addStock(1L, stockUpdate)).thenReturn(product);
+        
+        StockMovementCoalescer coalescer = new StockMovementCoalescer(productService, new InventoryProperties());
+        
+        assertThat(coalescer.addStock(1L, stockUpdate)).isSameAs(product);
+        verify(productService, never()).applyStockAdjustments(anyLong(), anyList());
+    }
+    
+    @Test
+    @DisplayName("Should group concurrent movements and hand every caller its own outcome")
+    @SuppressWarnings("unchecked")
+    void concurrentMovements() throws Exception {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getCoalescing().setEnabled(true);
+        properties.getCoalescing().setMaxWaitMicros(50_000);
+        properties.getCoalescing().setMaxBatchSize(4);
+        
+        // Replays each group against a running quantity, like the service does under the row lock
+        ProductService productService = mock(ProductService.class);
+        AtomicInteger stock = new AtomicInteger(10);
+        AtomicInteger calls = new AtomicInteger();
+        when(productService.applyStockAdjustments(eq(1L), anyList())).thenAnswer(invocation -> {
+            calls.incrementAndGet();
+            List<StockAdjustmentOutcome> outcomes = new ArrayList<>();
+            for (StockAdjustment adjustment : (List<StockAdjustment>) invocation.getArgument(1)) {
+                int current = stock.get();
+                if (adjustment.operation() == StockBatchLineDTO.Operation.REMOVE && current < adjustment.quantity()) {
+                    outcomes.add(StockAdjustmentOutcome.failed(
+                        new InsufficientStockException(1L, adjustment.quantity(), current)));
+                } else {
+                    int signed = adjustment.operation() == StockBatchLineDTO.Operation.ADD
+                        ? adjustment.quantity() : -adjustment.quantity();
+                    outcomes.add(StockAdjustmentOutcome.applied(
+                        ProductDTO.builder().id(1L).stockQuantity(stock.addAndGet(signed)).build()));
+                }
+            }
+            return outcomes;
+        });
+        StockMovementCoalescer coalescer = new StockMovementCoalescer(productService, properties);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> removals = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            removals.add(executor.submit(() -> {
+                start.await();
+                return coalescer.removeStock(1L, StockUpdateDTO.builder().quantity(2).build()).getStockQuantity();
+            }));
+        }
+        start.countDown();
+        
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<Integer> removal : removals) {
+            try {
+                assertThat(removal.get()).isBetween(0, 8);
+                succeeded++;
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause()).isInstanceOf(InsufficientStockException.class);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+        
+        assertThat(succeeded).isEqualTo(5);
+        assertThat(rejected).isEqualTo(3);
+        assertThat(stock.get()).isZero();
+        assertThat(calls.get()).isLessThan(8);
+    }
+}
@@ -0,0 +1,90 @@
+package com.inventory.stock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StripedStockCounter
+ */
+@DisplayName("Striped Stock Counter Unit Tests")
+class StripedStockCounterTest {
+    
+    @Test
+    @DisplayName("Should spread the initial quantity over a power-of-two number of stripes")
+    void initialQuantity() {
+        StripedStockCounter counter = new StripedStockCounter(1001, 6);
+        
+        assertThat(counter.stripes()).isEqualTo(8);
+        assertThat(counter.sum()).isEqualTo(1001);
+    }
+    
+    @Test
+    @DisplayName("Should remove stock held across several stripes")
+    void removeAcrossStripes() {
+        StripedStockCounter counter = new StripedStockCounter(8, 8); // one unit per stripe
+        
+        assertThat(counter.tryRemove(8)).isTrue();
+        assertThat(counter.sum()).isZero();
+        assertThat(counter.tryRemove(1)).isFalse();
+    }
+    
+    @Test
+    @DisplayName("Should never read the total low while the slow path consolidates the stripes")
+    void sumDuringConsolidation() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(1_000, 8);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        // Refused removals drain every stripe and spread the same total back
+        Future<?> consolidations = executor.submit(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                assertThat(counter.tryRemove(1_001)).isFalse();
+            }
+        });
+        while (!consolidations.isDone()) {
+            assertThat(counter.sum()).isEqualTo(1_000);
+        }
+        consolidations.get();
+        executor.shutdown();
+    }
+    
+    @Test
+    @DisplayName("Should never go negative or lose units under concurrent movements")
+    void concurrentMovements() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(10_000, 8);
+        AtomicLong added = new AtomicLong();
+        AtomicLong removed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    int quantity = (i + seed) % 7 + 1;
+                    if (i % 3 == 0) {
+                        counter.add(quantity);
+                        added.addAndGet(quantity);
+                    } else if (counter.tryRemove(quantity)) {
+                        removed.addAndGet(quantity);
+                    }
+                    assertThat(counter.sum()).isGreaterThanOrEqualTo(0);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        
+        assertThat(counter.sum()).isEqualTo(10_000 + added.get() - removed.get());
+    }
+}